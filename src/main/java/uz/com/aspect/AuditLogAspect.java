@@ -12,10 +12,14 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import uz.com.exception.DataNotFoundException;
+import uz.com.filter.ClientIpResolver;
 import uz.com.model.entity.AuditLogsEntity;
 import uz.com.model.entity.UserEntity;
-import uz.com.repository.AuditLogsRepository;
 import uz.com.repository.UserRepository;
+import uz.com.service.audit.AuditLogSink;
+import uz.com.service.auth.AuthenticatedUser;
+
+import java.util.concurrent.CompletionStage;
 
 
 @Aspect
@@ -23,7 +27,7 @@ import uz.com.repository.UserRepository;
 @RequiredArgsConstructor
 public class AuditLogAspect {
 
-    private final AuditLogsRepository auditLogsRepository;
+    private final AuditLogSink auditLogSink;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
 
@@ -31,8 +35,7 @@ public class AuditLogAspect {
     public Object logAudit(ProceedingJoinPoint joinPoint) throws Throwable {
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         HttpServletRequest request = attributes.getRequest();
-        String ip = request.getHeader("X-Forwarded-For");
-        ip = getStringIp(ip, request);
+        String ip = ClientIpResolver.resolve(request);
 
         String requestURI = request.getRequestURI();
         String httpMethod = request.getMethod();
@@ -52,7 +55,9 @@ public class AuditLogAspect {
         if (authentication != null && authentication.isAuthenticated() &&
                 !"anonymousUser".equals(authentication.getPrincipal())) {
             Object principal = authentication.getPrincipal();
-            if (principal instanceof UserEntity) {
+            if (principal instanceof AuthenticatedUser authenticatedUser && authenticatedUser.getId() != null) {
+                userEntity = userRepository.getReferenceById(authenticatedUser.getId());
+            } else if (principal instanceof UserEntity) {
                 userEntity = (UserEntity) principal;
             } else if (principal instanceof String username) {
                 userEntity = userRepository.findUserEntityByEmailAndDeletedFalse(username);
@@ -71,6 +76,22 @@ public class AuditLogAspect {
 
         Object result = joinPoint.proceed();
 
+        if (result instanceof CompletionStage<?> stage) {
+            UserEntity user = userEntity;
+            String data = requestData;
+            stage.whenComplete((value, error) -> {
+                if (error == null) {
+                    submit(requestURI, httpMethod, user, data, value, ip);
+                }
+            });
+        } else {
+            submit(requestURI, httpMethod, userEntity, requestData, result, ip);
+        }
+        return result;
+    }
+
+    private void submit(String requestURI, String httpMethod, UserEntity userEntity, String requestData,
+                        Object result, String ip) {
         String responseData;
         try {
             responseData = objectMapper.writeValueAsString(result);
@@ -84,24 +105,6 @@ public class AuditLogAspect {
         auditLog.setRequest(requestData);
         auditLog.setResponse(responseData);
         auditLog.setFromIpAddress(ip);
-        auditLogsRepository.save(auditLog);
-
-        return result;
-    }
-
-    private static String getStringIp(String ip, HttpServletRequest request) {
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
-        }
-        return ip;
+        auditLogSink.submit(auditLog);
     }
 }
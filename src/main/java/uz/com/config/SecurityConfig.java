@@ -1,6 +1,9 @@
 package uz.com.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -12,8 +15,12 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import uz.com.filter.FilterToken;
+import uz.com.filter.RateLimitFilter;
+import uz.com.service.auth.AuthRateLimiter;
 import uz.com.service.auth.AuthenticationService;
-import uz.com.service.auth.JwtService;
+import uz.com.service.auth.JwtClaimsCache;
+
+import java.util.Set;
 
 
 @Configuration
@@ -22,23 +29,28 @@ import uz.com.service.auth.JwtService;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
-    private final JwtService jwtService;
+    private final JwtClaimsCache jwtClaimsCache;
     private final AuthenticationService authenticationService;
+    private final AuthRateLimiter authRateLimiter;
+    private final ObjectMapper objectMapper;
 
     private final String[] permitAll = {"/swagger-ui/**", "/v3/api-docs/**", "/brb/auth/**"};
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${rate-limit.trusted-proxies:}") Set<String> trustedProxies) throws Exception {
         return http
                 .cors(Customizer.withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests((requestsConfigurer) ->
                         requestsConfigurer
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                                 .requestMatchers(permitAll).permitAll()
                                 .anyRequest().authenticated()
                 )
                 .sessionManagement((session) -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(new FilterToken(authenticationService, jwtService), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new FilterToken(authenticationService, jwtClaimsCache), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new RateLimitFilter(authRateLimiter, objectMapper, trustedProxies), FilterToken.class)
                 .build();
     }
 }
@@ -5,17 +5,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uz.com.model.dto.request.AccountCreateRequest;
 import uz.com.model.dto.response.AccountResponse;
+import uz.com.model.dto.response.BulkDeleteResponse;
 import uz.com.model.dto.response.GeneralResponse;
 import uz.com.model.dto.response.PageResponse;
+import uz.com.model.enums.StatementFormat;
 import uz.com.service.AccountService;
+import uz.com.service.ledger.StatementService;
 
 import java.math.BigDecimal;
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,6 +35,7 @@ import java.util.UUID;
 public class AccountController {
 
     private final AccountService accountService;
+    private final StatementService statementService;
 
 
     @Operation(summary = "Save account", description = "Save account by managers for clients")
@@ -90,7 +99,7 @@ public class AccountController {
     })
     @DeleteMapping("/multi-delete")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<GeneralResponse<String>> multiDelete(@RequestBody List<String> ids, Principal principal) {
+    public ResponseEntity<GeneralResponse<BulkDeleteResponse>> multiDelete(@RequestBody List<String> ids, Principal principal) {
         return ResponseEntity.ok(accountService.multiDeleteAccount(ids, principal));
     }
 
@@ -108,9 +117,10 @@ public class AccountController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<GeneralResponse<PageResponse<AccountResponse>>> getAllAcc(@RequestParam(defaultValue = "0") int page,
                                                                                     @RequestParam(defaultValue = "10") int size,
-                                                                                    @RequestParam(required = false) String type) {
+                                                                                    @RequestParam(required = false) String type,
+                                                                                    @RequestParam(required = false) String cursor) {
         if (page != 0) page = page - 1;
-        return ResponseEntity.ok(accountService.getAllAccount(page, size, type));
+        return ResponseEntity.ok(accountService.getAllAccount(page, size, type, cursor));
     }
 
 
@@ -145,7 +155,52 @@ public class AccountController {
     @PutMapping("/fill-balance/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','CLIENT','MANAGER')")
     public ResponseEntity<GeneralResponse<AccountResponse>> fillBalance(@PathVariable UUID id,
-                                                                        @RequestParam BigDecimal amount) {
-        return ResponseEntity.ok(accountService.fillAccountBalance(id, amount));
+                                                                        @RequestParam BigDecimal amount,
+                                                                        Principal principal) {
+        return ResponseEntity.ok(accountService.fillAccountBalance(id, amount, principal));
     }
-}
\ No newline at end of file
+
+
+    @Operation(summary = "Get balance", description = "Get account balance from the ledger, now or at the given time")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Get data successfully!"),
+            @ApiResponse(responseCode = "404", description = "Data not found!"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "400", description = "Bad request")
+    })
+    @GetMapping("/balance/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN','CLIENT','MANAGER')")
+    public ResponseEntity<GeneralResponse<BigDecimal>> getBalance(@PathVariable UUID id,
+                                                                  @RequestParam(required = false)
+                                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+                                                                  Principal principal) {
+        return ResponseEntity.ok(accountService.getBalanceAt(id, at, principal));
+    }
+
+
+    @Operation(summary = "Export statement", description = "Stream account statement with running balance for the given period as CSV or NDJSON")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Statement lines streamed"),
+            @ApiResponse(responseCode = "404", description = "Data not found!"),
+            @ApiResponse(responseCode = "406", description = "Data not acceptable"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "400", description = "Bad request")
+    })
+    @GetMapping("/statement/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN','CLIENT','MANAGER')")
+    public ResponseEntity<StreamingResponseBody> getStatement(@PathVariable UUID id,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                              @RequestParam(required = false)
+                                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                              @RequestParam(defaultValue = "CSV") StatementFormat format,
+                                                              Principal principal) {
+        LocalDateTime until = to != null ? to : LocalDateTime.now();
+        statementService.check(id, from, until, principal);
+        return ResponseEntity.ok()
+                .contentType(format == StatementFormat.CSV ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement-" + id + "." + format.name().toLowerCase() + "\"")
+                .body(out -> statementService.write(id, from, until, format, out));
+    }
+}
@@ -39,9 +39,10 @@ public class AuditLogsController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<GeneralResponse<PageResponse<AuditLogsEntity>>> getByHttpMethod(@RequestParam String method,
                                                                                           @RequestParam(defaultValue = "0") int page,
-                                                                                          @RequestParam(defaultValue = "10") int size) {
+                                                                                          @RequestParam(defaultValue = "10") int size,
+                                                                                          @RequestParam(required = false) String cursor) {
         if (page != 0) page = page - 1;
-        return ResponseEntity.ok(auditLogService.getAuditByHttpMethod(method, page, size));
+        return ResponseEntity.ok(auditLogService.getAuditByHttpMethod(method, page, size, cursor));
     }
 
 
@@ -57,9 +58,10 @@ public class AuditLogsController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<GeneralResponse<PageResponse<AuditLogsEntity>>> getByUrl(@RequestParam String url,
                                                                                    @RequestParam(defaultValue = "0") int page,
-                                                                                   @RequestParam(defaultValue = "10") int size) {
+                                                                                   @RequestParam(defaultValue = "10") int size,
+                                                                                   @RequestParam(required = false) String cursor) {
         if (page != 0) page = page - 1;
-        return ResponseEntity.ok(auditLogService.getAuditsByUrl(url, page, size));
+        return ResponseEntity.ok(auditLogService.getAuditsByUrl(url, page, size, cursor));
     }
 
 
@@ -88,8 +90,9 @@ public class AuditLogsController {
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<GeneralResponse<PageResponse<AuditLogsEntity>>> getAll(@RequestParam(defaultValue = "0") int page,
-                                                                                 @RequestParam(defaultValue = "10") int size) {
+                                                                                 @RequestParam(defaultValue = "10") int size,
+                                                                                 @RequestParam(required = false) String cursor) {
         if (page != 0) page = page - 1;
-        return ResponseEntity.ok(auditLogService.getAllAudits(page, size));
+        return ResponseEntity.ok(auditLogService.getAllAudits(page, size, cursor));
     }
 }
@@ -20,6 +20,7 @@ import uz.com.service.MailSendingService;
 import uz.com.service.UserService;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
@@ -36,16 +37,17 @@ public class AuthController {
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "User registered successfully"),
             @ApiResponse(responseCode = "400", description = "Validation error"),
-            @ApiResponse(responseCode = "500", description = "Internal server error")
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent sign-ups")
     })
     @PostMapping("/sign-up")
-    public ResponseEntity<GeneralResponse<JwtResponse>> save(@Valid @RequestBody UserCreateRequest userCreateRequest,
+    public CompletableFuture<ResponseEntity<GeneralResponse<JwtResponse>>> save(@Valid @RequestBody UserCreateRequest userCreateRequest,
                                                              BindingResult bindingResult) throws RequestValidationException {
         if (bindingResult.hasErrors()) {
             List<ObjectError> allErrors = bindingResult.getAllErrors();
             throw new RequestValidationException(allErrors);
         }
-        return ResponseEntity.ok(userService.save(userCreateRequest));
+        return userService.save(userCreateRequest).thenApply(ResponseEntity::ok);
     }
 
 
@@ -54,11 +56,12 @@ public class AuthController {
             @ApiResponse(responseCode = "200", description = "Login successful"),
             @ApiResponse(responseCode = "401", description = "Invalid credentials"),
             @ApiResponse(responseCode = "500", description = "Internal server error"),
-            @ApiResponse(responseCode = "400", description = "Bad request")
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent sign-ins")
     })
     @PostMapping("/sign-in")
-    public ResponseEntity<GeneralResponse<JwtResponse>> login(@RequestBody LoginRequest request) {
-        return ResponseEntity.ok(userService.login(request));
+    public CompletableFuture<ResponseEntity<GeneralResponse<JwtResponse>>> login(@RequestBody LoginRequest request) {
+        return userService.login(request).thenApply(ResponseEntity::ok);
     }
 
 
@@ -81,10 +84,11 @@ public class AuthController {
             @ApiResponse(responseCode = "200", description = "Password reset code sent"),
             @ApiResponse(responseCode = "404", description = "User not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error"),
-            @ApiResponse(responseCode = "400", description = "Bad request")
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent password resets")
     })
     @PutMapping("/forgot-password")
-    public GeneralResponse<String> forgotPassword(
+    public CompletableFuture<GeneralResponse<String>> forgotPassword(
             @RequestBody ForgotPasswordRequest request
     ) {
         return userService.forgotPassword(request);
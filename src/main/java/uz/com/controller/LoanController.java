@@ -5,15 +5,24 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uz.com.model.dto.request.LoanCreateRequest;
+import uz.com.model.dto.response.BulkDeleteResponse;
+import uz.com.model.dto.response.DebtSummaryResponse;
 import uz.com.model.dto.response.GeneralResponse;
+import uz.com.model.dto.response.LoanInstallmentResponse;
 import uz.com.model.dto.response.LoanResponse;
 import uz.com.model.dto.response.PageResponse;
 import uz.com.service.LoanService;
+import uz.com.service.auth.CurrentUserService;
+import uz.com.service.bulk.BulkLoanService;
+import uz.com.service.idempotency.IdempotencyService;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.security.Principal;
 import java.util.List;
@@ -28,6 +37,9 @@ public class LoanController {
 
 
     private final LoanService loanService;
+    private final IdempotencyService idempotencyService;
+    private final CurrentUserService currentUserService;
+    private final BulkLoanService bulkLoanService;
 
 
     @Operation(summary = "Save loans", description = "Save loans by managers")
@@ -42,8 +54,30 @@ public class LoanController {
     @PostMapping("/save")
     @PreAuthorize("hasRole('MANAGER')")
     public ResponseEntity<GeneralResponse<LoanResponse>> save(@RequestBody LoanCreateRequest request,
+                                                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
                                                               Principal principal) {
-        return ResponseEntity.ok(loanService.saveLoan(request, principal));
+        return ResponseEntity.ok(idempotencyService.execute(
+                "loans/save:" + currentUserService.getUserId(principal), idempotencyKey, request, LoanResponse.class,
+                () -> loanService.saveLoan(request, principal)));
+    }
+
+
+    @Operation(summary = "Bulk save loans", description = "Originate loans from a JSON array or NDJSON stream by managers")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-row results streamed as NDJSON"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "400", description = "Bad request")
+    })
+    @PostMapping(value = "/bulk-save",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<StreamingResponseBody> bulkSave(InputStream body, Principal principal) {
+        UUID createdBy = currentUserService.getUserId(principal);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> bulkLoanService.originate(body, out, createdBy));
     }
 
 
@@ -109,7 +143,7 @@ public class LoanController {
     })
     @DeleteMapping("/multi-delete")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<GeneralResponse<String>> multiDeleteLoan(@RequestBody List<String> ids, Principal principal) {
+    public ResponseEntity<GeneralResponse<BulkDeleteResponse>> multiDeleteLoan(@RequestBody List<String> ids, Principal principal) {
         return ResponseEntity.ok(loanService.multiDeleteLoan(ids, principal));
     }
 
@@ -127,9 +161,10 @@ public class LoanController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<GeneralResponse<PageResponse<LoanResponse>>> getAllLoans(@RequestParam(required = false, defaultValue = "0") int page,
                                                                                    @RequestParam(required = false, defaultValue = "10") int size,
-                                                                                   @RequestParam(required = false) String status) {
+                                                                                   @RequestParam(required = false) String status,
+                                                                                   @RequestParam(required = false) String cursor) {
         if (page != 0) page = page - 1;
-        return ResponseEntity.ok(loanService.getAllLoans(page, size, status));
+        return ResponseEntity.ok(loanService.getAllLoans(page, size, status, cursor));
     }
 
 
@@ -152,7 +187,7 @@ public class LoanController {
     }
 
 
-    @Operation(summary = "Pay for loan", description = "Pay for ACTIVE loan by users")
+    @Operation(summary = "Pay for loan", description = "Pay for ACTIVE loan by users from the borrower's account")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Pay for loan successfully"),
             @ApiResponse(responseCode = "404", description = "Data not found"),
@@ -163,12 +198,14 @@ public class LoanController {
     @PutMapping("/pay-for-loan/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','CLIENT','MANAGER')")
     public ResponseEntity<GeneralResponse<LoanResponse>> payForLoan(@PathVariable UUID id,
-                                                                    @RequestParam BigDecimal amount) {
-        return ResponseEntity.ok(loanService.payForLoanById(id, amount));
+                                                                    @RequestParam UUID accountId,
+                                                                    @RequestParam BigDecimal amount,
+                                                                    Principal principal) {
+        return ResponseEntity.ok(loanService.payForLoanById(id, accountId, amount, principal));
     }
 
 
-    @Operation(summary = "Get my debts", description = "Get all my ACTIVE and FREEZE loans' debts")
+    @Operation(summary = "Get my debts", description = "Get all my ACTIVE, FREEZE and OVERDUE loans' debts")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Get data successfully"),
             @ApiResponse(responseCode = "404", description = "Data not found"),
@@ -181,4 +218,45 @@ public class LoanController {
         return ResponseEntity.ok(loanService.getMyAllActiveAndFreezeLoansAmount(principal));
     }
 
+
+    @Operation(summary = "Get loan schedule", description = "Get loan amortization schedule through id by users")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Get data successfully!"),
+            @ApiResponse(responseCode = "404", description = "Data not found!"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/schedule/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN','CLIENT','MANAGER')")
+    public ResponseEntity<GeneralResponse<List<LoanInstallmentResponse>>> getSchedule(@PathVariable UUID id) {
+        return ResponseEntity.ok(loanService.getLoanSchedule(id));
+    }
+
+
+    @Operation(summary = "Recompute schedules", description = "Regenerate amortization schedules of all open loans by admins")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Data updated successfully!"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/recompute-schedules")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<GeneralResponse<Integer>> recomputeSchedules() {
+        return ResponseEntity.ok(loanService.recomputeSchedules());
+    }
+
+
+    @Operation(summary = "Get my debt summary", description = "Get principal user's debt summary by users")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Get data successfully!"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/debt-summary")
+    @PreAuthorize("hasAnyRole('ADMIN','CLIENT','MANAGER')")
+    public ResponseEntity<GeneralResponse<DebtSummaryResponse>> getMyDebtSummary(Principal principal) {
+        return ResponseEntity.ok(loanService.getMyDebtSummary(principal));
+    }
+
 }
@@ -5,15 +5,26 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uz.com.model.dto.request.TransactionCreateRequest;
+import uz.com.model.dto.request.TransferCreateRequest;
+import uz.com.model.dto.response.BulkDeleteResponse;
 import uz.com.model.dto.response.GeneralResponse;
 import uz.com.model.dto.response.PageResponse;
+import uz.com.model.dto.response.TransactionImportResponse;
 import uz.com.model.dto.response.TransactionResponse;
+import uz.com.model.entity.TransactionImportEntity;
+import uz.com.model.enums.ImportFormat;
 import uz.com.service.TransactionService;
+import uz.com.service.auth.CurrentUserService;
+import uz.com.service.bulk.TransactionImportService;
+import uz.com.service.idempotency.IdempotencyService;
 
+import java.io.InputStream;
 import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
@@ -26,6 +37,9 @@ import java.util.UUID;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
+    private final CurrentUserService currentUserService;
+    private final TransactionImportService transactionImportService;
 
 
     @Operation(summary = "Save transaction", description = "Save transaction by users")
@@ -40,8 +54,67 @@ public class TransactionController {
     @PostMapping("/save")
     @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN') or hasRole('CLIENT')")
     public ResponseEntity<GeneralResponse<TransactionResponse>> save(@RequestBody TransactionCreateRequest request,
+                                                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
                                                                      Principal principal) {
-        return ResponseEntity.ok(transactionService.saveTransaction(request, principal));
+        return ResponseEntity.ok(idempotencyService.execute(
+                "transactions/save:" + currentUserService.getUserId(principal), idempotencyKey, request, TransactionResponse.class,
+                () -> transactionService.saveTransaction(request, principal)));
+    }
+
+
+    @Operation(summary = "Transfer", description = "Transfer money between two accounts by users")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Data created successfully!"),
+            @ApiResponse(responseCode = "404", description = "Data not found!"),
+            @ApiResponse(responseCode = "406", description = "Data not acceptable"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "400", description = "Bad request")
+    })
+    @PostMapping("/transfer")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN') or hasRole('CLIENT')")
+    public ResponseEntity<GeneralResponse<List<TransactionResponse>>> transfer(@RequestBody TransferCreateRequest request,
+                                                                               Principal principal) {
+        return ResponseEntity.ok(transactionService.transfer(request, principal));
+    }
+
+
+    @Operation(summary = "Import transactions", description = "Import transactions from a CSV or NDJSON file by admins. " +
+            "Pass the importId of an unfinished import to resume it after the last committed line")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Rejected lines and the import summary streamed as NDJSON"),
+            @ApiResponse(responseCode = "406", description = "Data not acceptable"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "400", description = "Bad request")
+    })
+    @PostMapping(value = "/import",
+            consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<StreamingResponseBody> importTransactions(InputStream body,
+                                                                    @RequestParam(defaultValue = "CSV") ImportFormat format,
+                                                                    @RequestParam(required = false) UUID importId,
+                                                                    Principal principal) {
+        TransactionImportEntity job = transactionImportService.begin(importId, format, currentUserService.getUserId(principal));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> transactionImportService.run(job, body, out));
+    }
+
+
+    @Operation(summary = "Get import", description = "Get transaction import progress through id by admins")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Get data successfully!"),
+            @ApiResponse(responseCode = "404", description = "Data not found!"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "400", description = "Bad request")
+    })
+    @GetMapping("/import/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<GeneralResponse<TransactionImportResponse>> getImport(@PathVariable UUID id) {
+        return ResponseEntity.ok(transactionImportService.getById(id));
     }
 
 
@@ -86,7 +159,7 @@ public class TransactionController {
     })
     @DeleteMapping("/multi-delete")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<GeneralResponse<String>> multiDelete(@RequestBody List<String> ids,
+    public ResponseEntity<GeneralResponse<BulkDeleteResponse>> multiDelete(@RequestBody List<String> ids,
                                                                Principal principal) {
         return ResponseEntity.ok(transactionService.multiDeleteTransaction(ids, principal));
     }
@@ -106,8 +179,9 @@ public class TransactionController {
     public ResponseEntity<GeneralResponse<PageResponse<TransactionResponse>>> getAll(@RequestParam(defaultValue = "0") int page,
                                                                                      @RequestParam(defaultValue = "10") int size,
                                                                                      @RequestParam(required = false) UUID accountId,
-                                                                                     @RequestParam(required = false) String type) {
+                                                                                     @RequestParam(required = false) String type,
+                                                                                     @RequestParam(required = false) String cursor) {
         if (page != 0) page = page - 1;
-        return ResponseEntity.ok(transactionService.getAllTransaction(page, size, accountId, type));
+        return ResponseEntity.ok(transactionService.getAllTransaction(page, size, accountId, type, cursor));
     }
 }
@@ -13,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import uz.com.model.dto.request.UserCreateRequest;
+import uz.com.model.dto.response.BulkDeleteResponse;
 import uz.com.model.dto.response.GeneralResponse;
 import uz.com.model.dto.response.UserResponse;
 import uz.com.model.dto.response.PageResponse;
@@ -21,6 +22,7 @@ import uz.com.service.UserService;
 import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
@@ -157,7 +159,7 @@ public class UserController {
     })
     @DeleteMapping("/multi-delete")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<GeneralResponse<String>> multiDelete(@RequestBody List<String> ids, Principal principal) {
+    public ResponseEntity<GeneralResponse<BulkDeleteResponse>> multiDelete(@RequestBody List<String> ids, Principal principal) {
         return ResponseEntity.ok(userService.multiDeleteUser(ids, principal));
     }
 
@@ -183,13 +185,14 @@ public class UserController {
             @ApiResponse(responseCode = "401", description = "Invalid credentials"),
             @ApiResponse(responseCode = "406", description = "Data not acceptable"),
             @ApiResponse(responseCode = "500", description = "Internal server error"),
-            @ApiResponse(responseCode = "400", description = "Bad request")
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent password updates")
     })
     @PutMapping("/update/{id}")
     @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN') or hasRole('CLIENT')")
-    public ResponseEntity<GeneralResponse<UserResponse>> update(@PathVariable UUID id,
-                                                                @Valid @RequestBody UserCreateRequest request) {
-        return ResponseEntity.ok(userService.updateUserProfile(id, request));
+    public CompletableFuture<ResponseEntity<GeneralResponse<UserResponse>>> update(@PathVariable UUID id,
+                                                                                   @Valid @RequestBody UserCreateRequest request) {
+        return userService.updateUserProfile(id, request).thenApply(ResponseEntity::ok);
     }
 
     @Operation(summary = "Get all user", description = "Get all default users by admins")
@@ -202,8 +205,9 @@ public class UserController {
     @GetMapping("/get-all-users")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<GeneralResponse<PageResponse<UserResponse>>> getAllUsersNew(@RequestParam(required = false,defaultValue = "0")int page,
-                                                                                      @RequestParam(required = false,defaultValue = "10")int size){
+                                                                                      @RequestParam(required = false,defaultValue = "10")int size,
+                                                                                      @RequestParam(required = false) String cursor){
         if(page != 0) page = page-1;
-        return ResponseEntity.ok(userService.getAllUsers(page, size));
+        return ResponseEntity.ok(userService.getAllUsers(page, size, cursor));
     }
 }
@@ -1,6 +1,7 @@
 package uz.com.exception;
 
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -52,4 +53,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(406).body(GeneralResponse.error(e.getMessage()));
     }
 
+    @ExceptionHandler(value = ServiceBusyException.class)
+    public ResponseEntity<GeneralResponse<String>> serviceBusyException(ServiceBusyException e){
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter()))
+                .body(GeneralResponse.error(e.getMessage()));
+    }
+
 }
@@ -1,7 +1,5 @@
 package uz.com.filter;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,14 +7,15 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import org.springframework.web.filter.OncePerRequestFilter;
 import uz.com.service.auth.AuthenticationService;
-import uz.com.service.auth.JwtService;
+import uz.com.service.auth.JwtClaimsCache;
+import uz.com.service.auth.VerifiedToken;
 
 import java.io.IOException;
 
 @AllArgsConstructor
 public class FilterToken extends OncePerRequestFilter {
     private AuthenticationService authenticationService;
-    private JwtService jwtService;
+    private JwtClaimsCache jwtClaimsCache;
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -28,9 +27,9 @@ public class FilterToken extends OncePerRequestFilter {
         }
         token = token.substring(7);
 
-        Jws<Claims> claimsJws = jwtService.extractToken(token);
+        VerifiedToken verifiedToken = jwtClaimsCache.get(token);
 
-        authenticationService.authenticate(claimsJws.getBody(), request);
+        authenticationService.authenticate(verifiedToken, request);
         filterChain.doFilter(request, response);
     }
 }
@@ -0,0 +1,181 @@
+package uz.com.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import uz.com.model.dto.response.GeneralResponse;
+import uz.com.service.auth.AuthRateLimiter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@AllArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Set<String> LIMITED = Set.of("/brb/auth/sign-in", "/brb/auth/send-verification", "/brb/auth/forgot-password");
+    private static final int MAX_BODY = 16 * 1024;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private AuthRateLimiter authRateLimiter;
+    private ObjectMapper objectMapper;
+    private Set<String> trustedProxies;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !LIMITED.contains(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        HttpServletRequest target = request;
+        String email = request.getParameter("email");
+        if (email == null && request.getContentType() != null
+                && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))) {
+            byte[] head = request.getInputStream().readNBytes(MAX_BODY + 1);
+            target = new ReplayingRequest(request, head);
+            if (head.length <= MAX_BODY) {
+                email = readEmail(head);
+            }
+        }
+        long wait = authRateLimiter.acquire(path(request), ClientIpResolver.resolve(request, trustedProxies), normalize(email));
+        if (wait > 0) {
+            response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((wait + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            objectMapper.writeValue(response.getOutputStream(), GeneralResponse.error("Too many requests! Try again later!"));
+            return;
+        }
+        filterChain.doFilter(target, response);
+    }
+
+    private String readEmail(byte[] body) {
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            return node == null ? null : node.path("email").textValue();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String normalize(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class ReplayingRequest extends HttpServletRequestWrapper {
+
+        private final ReplayingInputStream body;
+
+        private ReplayingRequest(HttpServletRequest request, byte[] head) throws IOException {
+            super(request);
+            this.body = new ReplayingInputStream(new ByteArrayInputStream(head), request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+    private static class ReplayingInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream head;
+        private final ServletInputStream rest;
+
+        private ReplayingInputStream(ByteArrayInputStream head, ServletInputStream rest) {
+            this.head = head;
+            this.rest = rest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return head.available() > 0 ? head.read() : rest.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (head.available() > 0) {
+                return head.read(buffer, offset, length);
+            }
+            return rest.read(buffer, offset, length);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return head.available() > 0 ? head.available() : rest.available();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return head.available() == 0 && rest.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return head.available() > 0 || rest.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            rest.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    readListener.onDataAvailable();
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    if (head.available() > 0) {
+                        readListener.onDataAvailable();
+                    }
+                    readListener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    readListener.onError(throwable);
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            rest.close();
+        }
+    }
+}
@@ -14,6 +14,7 @@ public interface AccountMapper {
 
     AccountResponse toResponse(AccountsEntity entity);
 
+    @Mapping(target = "balance", ignore = true)
     @Mapping(source = "userId", target = "user.id", qualifiedByName = "stringToUUID")
     AccountsEntity toEntity(AccountCreateRequest request);
 
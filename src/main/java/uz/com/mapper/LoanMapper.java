@@ -14,6 +14,7 @@ public interface LoanMapper {
 
     LoanResponse toResponse(LoansEntity entity);
 
+    @Mapping(target = "amount", ignore = true)
     @Mapping(source = "userId", target = "user.id", qualifiedByName = "stringToUUID")
     LoansEntity toEntity(LoanCreateRequest request);
 
@@ -15,6 +15,7 @@ public interface TransactionMapper {
 
     TransactionResponse toResponse(TransactionEntity entity);
 
+    @Mapping(target = "amount", ignore = true)
     @Mapping(source = "accountId", target = "account.id", qualifiedByName = "stringToUUID1")
     TransactionEntity toEntity(TransactionCreateRequest request);
 
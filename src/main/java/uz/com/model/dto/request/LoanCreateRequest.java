@@ -2,6 +2,7 @@ package uz.com.model.dto.request;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import uz.com.model.enums.AmortizationType;
 
 import java.math.BigDecimal;
 
@@ -16,6 +17,7 @@ public class LoanCreateRequest {
     BigDecimal amount;
     Double interestRate;
     Integer months;
+    AmortizationType amortizationType;
     String userId;
 
 }
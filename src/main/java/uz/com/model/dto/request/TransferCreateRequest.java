@@ -0,0 +1,20 @@
+package uz.com.model.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TransferCreateRequest {
+
+    BigDecimal amount;
+    String fromAccountId;
+    String toAccountId;
+
+}
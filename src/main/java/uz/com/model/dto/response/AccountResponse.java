@@ -3,8 +3,8 @@ package uz.com.model.dto.response;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import uz.com.model.enums.AccountType;
+import uz.com.model.money.Money;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 @AllArgsConstructor
@@ -17,7 +17,7 @@ public class AccountResponse {
 
     UUID id;
 
-    BigDecimal balance;
+    Money balance;
 
     AccountType type;
 
@@ -0,0 +1,21 @@
+package uz.com.model.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import uz.com.model.enums.DeleteStatus;
+
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkDeleteResponse {
+
+    int requested;
+    int deleted;
+    int failed;
+    Map<String, DeleteStatus> results;
+}
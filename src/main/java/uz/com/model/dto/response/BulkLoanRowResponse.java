@@ -0,0 +1,29 @@
+package uz.com.model.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import uz.com.model.enums.BulkRowStatus;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkLoanRowResponse {
+
+    int row;
+    BulkRowStatus status;
+    UUID loanId;
+    String message;
+
+    public static BulkLoanRowResponse created(int row, UUID loanId) {
+        return new BulkLoanRowResponse(row, BulkRowStatus.CREATED, loanId, "Loan created!");
+    }
+
+    public static BulkLoanRowResponse rejected(int row, String message) {
+        return new BulkLoanRowResponse(row, BulkRowStatus.REJECTED, null, message);
+    }
+}
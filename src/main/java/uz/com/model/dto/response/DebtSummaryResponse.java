@@ -0,0 +1,25 @@
+package uz.com.model.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class DebtSummaryResponse {
+
+    UUID userId;
+    BigDecimal totalPrincipal;
+    BigDecimal outstanding;
+    BigDecimal paidToDate;
+    long activeCount;
+    long freezeCount;
+    long completedCount;
+    long overdueCount;
+}
@@ -0,0 +1,23 @@
+package uz.com.model.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import uz.com.model.money.Money;
+
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LoanInstallmentResponse {
+
+    int number;
+    LocalDate dueDate;
+    Money principal;
+    Money interest;
+    Money payment;
+    Money remainingPrincipal;
+}
@@ -3,8 +3,8 @@ package uz.com.model.dto.response;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import uz.com.model.enums.LoanStatus;
+import uz.com.model.money.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -17,7 +17,7 @@ import java.util.UUID;
 public class LoanResponse {
 
     UUID id;
-    BigDecimal amount;
+    Money amount;
     Double interestRate;
     LoanStatus status;
     LocalDate dueDate;
@@ -1,19 +1,26 @@
 package uz.com.model.dto.response;
 
 import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
 import java.util.List;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class PageResponse<T> {
 
     List<T> response;
     int pageCount;
+    Long totalCount;
+    Boolean estimated;
+    String nextCursor;
 
 
     public static <T> PageResponse<T> ok(int pageCount, List<T> response) {
@@ -22,4 +29,20 @@ public class PageResponse<T> {
                 .response(response)
                 .build();
     }
+
+    public static <T> PageResponse<T> ok(int pageCount, long totalCount, boolean estimated, List<T> response) {
+        return PageResponse.<T>builder()
+                .pageCount(pageCount)
+                .totalCount(totalCount)
+                .estimated(estimated)
+                .response(response)
+                .build();
+    }
+
+    public static <T> PageResponse<T> ok(List<T> response, String nextCursor) {
+        return PageResponse.<T>builder()
+                .response(response)
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
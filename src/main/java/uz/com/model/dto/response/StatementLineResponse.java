@@ -0,0 +1,25 @@
+package uz.com.model.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import uz.com.model.enums.EntryDirection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class StatementLineResponse {
+
+    LocalDateTime date;
+    UUID transactionId;
+    String type;
+    EntryDirection direction;
+    BigDecimal amount;
+    BigDecimal balance;
+}
@@ -0,0 +1,30 @@
+package uz.com.model.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import uz.com.model.entity.TransactionImportEntity;
+import uz.com.model.enums.ImportFormat;
+import uz.com.model.enums.ImportStatus;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TransactionImportResponse {
+
+    UUID importId;
+    ImportFormat format;
+    ImportStatus status;
+    long linesProcessed;
+    long accepted;
+    long rejected;
+
+    public static TransactionImportResponse of(TransactionImportEntity job) {
+        return new TransactionImportResponse(job.getId(), job.getFormat(), job.getStatus(),
+                job.getLinesProcessed(), job.getAccepted(), job.getRejected());
+    }
+}
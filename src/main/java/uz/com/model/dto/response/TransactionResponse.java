@@ -2,9 +2,10 @@ package uz.com.model.dto.response;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import uz.com.model.enums.EntryDirection;
 import uz.com.model.enums.TransactionType;
+import uz.com.model.money.Money;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 @AllArgsConstructor
@@ -16,7 +17,8 @@ import java.util.UUID;
 public class TransactionResponse {
 
     UUID id;
-    BigDecimal amount;
+    Money amount;
     TransactionType type;
+    EntryDirection direction;
     AccountResponse account;
 }
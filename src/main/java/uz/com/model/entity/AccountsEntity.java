@@ -5,10 +5,15 @@ import lombok.*;
 import lombok.experimental.FieldDefaults;
 import uz.com.model.BaseModel;
 import uz.com.model.enums.AccountType;
+import uz.com.model.money.Money;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 
 @Entity(name = "accounts")
+@Table(indexes = {
+        @Index(name = "idx_accounts_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_accounts_type_created_id", columnList = "type, created_at, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -16,7 +21,7 @@ import java.math.BigDecimal;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class AccountsEntity extends BaseModel {
 
-    BigDecimal balance;
+    Money balance;
 
     @Enumerated(value = EnumType.STRING)
     @Column(nullable = false)
@@ -25,6 +30,10 @@ public class AccountsEntity extends BaseModel {
     @Column(nullable = false)
     Integer interestRate;
 
+    Money accruedInterest;
+
+    LocalDate lastAccruedOn;
+
     @ManyToOne
     UserEntity user;
 }
@@ -0,0 +1,42 @@
+package uz.com.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity(name = "accrual_checkpoints")
+@Table(indexes = @Index(name = "idx_accrual_checkpoints_book_run_date", columnList = "book, run_date"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AccrualCheckpointEntity {
+
+    @Id
+    @Column(length = 64)
+    String id;
+
+    @Column(nullable = false)
+    String book;
+
+    @Column(nullable = false)
+    LocalDate runDate;
+
+    @Column(nullable = false)
+    int partitionNo;
+
+    UUID lastId;
+
+    long processed;
+
+    boolean completed;
+
+    @Column(nullable = false)
+    LocalDateTime updatedAt;
+}
@@ -9,6 +9,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity(name = "audit_logs")
+@Table(indexes = {
+        @Index(name = "idx_audit_logs_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_audit_logs_method_created_id", columnList = "http_method, created_at, id"),
+        @Index(name = "idx_audit_logs_url_created_id", columnList = "url, created_at, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -0,0 +1,46 @@
+package uz.com.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+import uz.com.model.money.Money;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity(name = "balance_snapshots")
+@Table(indexes = {
+        @Index(name = "idx_balance_snapshots_account_as_of", columnList = "account_id, as_of"),
+        @Index(name = "idx_balance_snapshots_account_run", columnList = "account_id, run")
+})
+@Immutable
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BalanceSnapshotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_snapshots_seq")
+    @SequenceGenerator(name = "balance_snapshots_seq", sequenceName = "balance_snapshots_seq", allocationSize = 50)
+    Long id;
+
+    @Column(nullable = false)
+    UUID accountId;
+
+    @Column(nullable = false)
+    Money balance;
+
+    @Column(nullable = false)
+    LocalDateTime asOf;
+
+    @Column(nullable = false)
+    Long run;
+
+    @CreationTimestamp
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,45 @@
+package uz.com.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity(name = "debt_summaries")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class DebtSummaryEntity {
+
+    @Id
+    UUID userId;
+
+    @Column(nullable = false)
+    BigDecimal totalPrincipal;
+
+    @Column(nullable = false)
+    BigDecimal outstanding;
+
+    @Column(nullable = false)
+    BigDecimal paidToDate;
+
+    @Column(nullable = false)
+    long activeCount;
+
+    @Column(nullable = false)
+    long freezeCount;
+
+    @Column(nullable = false)
+    long completedCount;
+
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    long overdueCount;
+
+    LocalDateTime updatedAt;
+}
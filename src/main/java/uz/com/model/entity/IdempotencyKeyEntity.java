@@ -0,0 +1,34 @@
+package uz.com.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@Entity(name = "idempotency_keys")
+@Table(indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class IdempotencyKeyEntity {
+
+    @Id
+    @Column(length = 512)
+    String id;
+
+    @Column(nullable = false)
+    String requestHash;
+
+    @Column(columnDefinition = "TEXT")
+    String response;
+
+    @Column(nullable = false)
+    LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    LocalDateTime expiresAt;
+}
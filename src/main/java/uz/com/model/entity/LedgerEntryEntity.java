@@ -0,0 +1,50 @@
+package uz.com.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Immutable;
+import uz.com.model.enums.EntryDirection;
+import uz.com.model.money.Money;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity(name = "ledger_entries")
+@Table(indexes = {
+        @Index(name = "idx_ledger_entries_account_created", columnList = "account_id, created_at"),
+        @Index(name = "idx_ledger_entries_snapshot_run", columnList = "snapshot_run")
+})
+@Immutable
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LedgerEntryEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entries_seq")
+    @SequenceGenerator(name = "ledger_entries_seq", sequenceName = "ledger_entries_seq", allocationSize = 50)
+    Long id;
+
+    @Column(nullable = false)
+    UUID accountId;
+
+    UUID transactionId;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(nullable = false)
+    EntryDirection direction;
+
+    @Column(nullable = false)
+    Money amount;
+
+    @Column(nullable = false)
+    LocalDateTime createdAt;
+
+    UUID createdBy;
+
+    Long snapshotRun;
+}
@@ -0,0 +1,46 @@
+package uz.com.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import uz.com.model.money.Money;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity(name = "loan_installments")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_loan_installments_loan_number", columnNames = {"loan_id", "number"}))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LoanInstallmentEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_installments_seq")
+    @SequenceGenerator(name = "loan_installments_seq", sequenceName = "loan_installments_seq", allocationSize = 50)
+    Long id;
+
+    @Column(nullable = false)
+    UUID loanId;
+
+    @Column(nullable = false)
+    int number;
+
+    @Column(nullable = false)
+    LocalDate dueDate;
+
+    @Column(nullable = false)
+    Money principal;
+
+    @Column(nullable = false)
+    Money interest;
+
+    @Column(nullable = false)
+    Money payment;
+
+    @Column(nullable = false)
+    Money remainingPrincipal;
+}
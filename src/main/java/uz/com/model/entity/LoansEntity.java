@@ -5,13 +5,19 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import uz.com.model.BaseModel;
+import uz.com.model.enums.AmortizationType;
 import uz.com.model.enums.LoanStatus;
+import uz.com.model.money.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity(name = "loans")
+@Table(indexes = {
+        @Index(name = "idx_loans_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_loans_status_created_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_loans_status_due_date", columnList = "status, due_date")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -20,7 +26,7 @@ import java.util.UUID;
 public class LoansEntity extends BaseModel {
 
     @Column(nullable = false)
-    BigDecimal amount;
+    Money amount;
 
     @Column(nullable = false)
     Double interestRate;
@@ -33,11 +39,20 @@ public class LoansEntity extends BaseModel {
 
     UUID changeStatusBy;
 
-    BigDecimal payPerMonth;
+    Integer months;
 
-    BigDecimal paidEver;
+    @Enumerated(value = EnumType.STRING)
+    AmortizationType amortizationType;
+
+    Money payPerMonth;
+
+    Money paidEver;
+
+    Money mustBePay;
+
+    Money accruedInterest;
 
-    BigDecimal mustBePay;
+    LocalDate lastAccruedOn;
 
     @ManyToOne
     UserEntity user;
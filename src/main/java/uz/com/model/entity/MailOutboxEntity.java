@@ -0,0 +1,51 @@
+package uz.com.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import uz.com.model.enums.MailStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity(name = "mail_outbox")
+@Table(indexes = @Index(name = "idx_mail_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MailOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    UUID id;
+
+    @Column(nullable = false)
+    String recipient;
+
+    String subject;
+
+    @Column(nullable = false, columnDefinition = "text")
+    String body;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(nullable = false)
+    MailStatus status;
+
+    int attempts;
+
+    @Column(nullable = false)
+    LocalDateTime nextAttemptAt;
+
+    LocalDateTime leasedUntil;
+
+    @Column(length = 1000)
+    String lastError;
+
+    @Column(nullable = false)
+    LocalDateTime createdAt;
+
+    LocalDateTime sentAt;
+}
@@ -4,11 +4,16 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import uz.com.model.BaseModel;
+import uz.com.model.enums.EntryDirection;
 import uz.com.model.enums.TransactionType;
-
-import java.math.BigDecimal;
+import uz.com.model.money.Money;
 
 @Entity(name = "transactions")
+@Table(indexes = {
+        @Index(name = "idx_transactions_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_transactions_account_created_id", columnList = "account_id, created_at, id"),
+        @Index(name = "idx_transactions_type_created_id", columnList = "type, created_at, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -17,12 +22,15 @@ import java.math.BigDecimal;
 public class TransactionEntity extends BaseModel {
 
     @Column(nullable = false)
-    BigDecimal amount;
+    Money amount;
 
     @Enumerated(value = EnumType.STRING)
     @Column(nullable = false)
     TransactionType type;
 
+    @Enumerated(value = EnumType.STRING)
+    EntryDirection direction;
+
     @ManyToOne
     AccountsEntity account;
 }
@@ -0,0 +1,45 @@
+package uz.com.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import uz.com.model.enums.ImportFormat;
+import uz.com.model.enums.ImportStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity(name = "transaction_imports")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TransactionImportEntity {
+
+    @Id
+    UUID id;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(nullable = false)
+    ImportFormat format;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(nullable = false)
+    ImportStatus status;
+
+    long linesProcessed;
+
+    long accepted;
+
+    long rejected;
+
+    UUID createdBy;
+
+    @Column(nullable = false)
+    LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    LocalDateTime updatedAt;
+}
@@ -17,6 +17,7 @@ import uz.com.model.enums.UserStep;
 import java.util.*;
 
 @Entity(name = "users")
+@Table(indexes = @Index(name = "idx_users_created_id", columnList = "created_at, id"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -61,6 +62,7 @@ public class UserEntity extends BaseModel implements UserDetails {
     UUID changeRoleBy;
 
     @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
     UserStep step;
 
     @Override
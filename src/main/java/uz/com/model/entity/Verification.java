@@ -26,4 +26,9 @@ public class Verification {
 
     Integer code;
 
+    LocalDateTime expiresAt;
+
+    @Column(columnDefinition = "integer default 0")
+    int attempts;
+
 }
@@ -0,0 +1,6 @@
+package uz.com.model.enums;
+
+public enum AmortizationType {
+    ANNUITY,
+    EQUAL_PRINCIPAL
+}
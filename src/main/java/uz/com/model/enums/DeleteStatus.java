@@ -0,0 +1,8 @@
+package uz.com.model.enums;
+
+public enum DeleteStatus {
+    DELETED,
+    NOT_FOUND,
+    NOT_ACCEPTABLE,
+    INVALID_ID
+}
@@ -0,0 +1,7 @@
+package uz.com.model.enums;
+
+public enum ImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -3,5 +3,6 @@ package uz.com.model.enums;
 public enum LoanStatus {
     ACTIVE,
     COMPLETED,
-    FREEZE
+    FREEZE,
+    OVERDUE
 }
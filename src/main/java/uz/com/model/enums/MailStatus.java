@@ -0,0 +1,7 @@
+package uz.com.model.enums;
+
+public enum MailStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
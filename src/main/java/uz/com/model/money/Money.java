@@ -0,0 +1,165 @@
+package uz.com.model.money;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+
+public final class Money implements Comparable<Money>, Serializable {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    private final long minor;
+
+    private Money(long minor) {
+        this.minor = minor;
+    }
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        return of(amount, RoundingMode.UNNECESSARY);
+    }
+
+    public static Money of(BigDecimal amount, RoundingMode rounding) {
+        return ofMinor(amount.setScale(SCALE, rounding).unscaledValue().longValueExact());
+    }
+
+    public static Optional<Money> parse(BigDecimal amount) {
+        if (amount == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(of(amount));
+        } catch (ArithmeticException e) {
+            return Optional.empty();
+        }
+    }
+
+    public long minor() {
+        return minor;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minor, other.minor));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minor));
+    }
+
+    public Money times(long factor) {
+        return ofMinor(Math.multiplyExact(minor, factor));
+    }
+
+    public Money divide(long divisor, RoundingMode rounding) {
+        return ofMinor(divide(minor, divisor, rounding));
+    }
+
+    public Money percent(double percent, RoundingMode rounding) {
+        return ofMinor(percent(minor, percent, 1, rounding));
+    }
+
+    public int signum() {
+        return Long.signum(minor);
+    }
+
+    public boolean isZero() {
+        return minor == 0;
+    }
+
+    public boolean isNegative() {
+        return minor < 0;
+    }
+
+    public boolean isPositive() {
+        return minor > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minor < other.minor;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return minor > other.minor;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public static long percent(long minor, double percent, long periods, RoundingMode rounding) {
+        BigDecimal rate = BigDecimal.valueOf(percent);
+        long numerator = rate.unscaledValue().longValueExact();
+        int scale = rate.scale();
+        if (scale < 0) {
+            numerator = Math.multiplyExact(numerator, POWERS_OF_TEN[-scale]);
+            scale = 0;
+        }
+        if (scale >= POWERS_OF_TEN.length) {
+            return rate.multiply(BigDecimal.valueOf(minor))
+                    .divide(BigDecimal.valueOf(Math.multiplyExact(100, periods)), 0, rounding)
+                    .longValueExact();
+        }
+        long denominator = Math.multiplyExact(Math.multiplyExact(100, periods), POWERS_OF_TEN[scale]);
+        return divide(Math.multiplyExact(minor, numerator), denominator, rounding);
+    }
+
+    public static long divide(long dividend, long divisor, RoundingMode rounding) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = Long.signum(dividend) * Long.signum(divisor);
+        long absRemainder = Math.abs(remainder);
+        long complement = Math.abs(divisor) - absRemainder;
+        return switch (rounding) {
+            case DOWN -> quotient;
+            case UP -> quotient + sign;
+            case FLOOR -> sign < 0 ? quotient - 1 : quotient;
+            case CEILING -> sign > 0 ? quotient + 1 : quotient;
+            case HALF_UP -> absRemainder >= complement ? quotient + sign : quotient;
+            case HALF_DOWN -> absRemainder > complement ? quotient + sign : quotient;
+            case HALF_EVEN -> absRemainder > complement || (absRemainder == complement && (quotient & 1) != 0)
+                    ? quotient + sign : quotient;
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && other.minor == minor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -1,14 +1,21 @@
 package uz.com.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import uz.com.model.entity.AccountsEntity;
 import uz.com.model.entity.UserEntity;
 import uz.com.model.enums.AccountType;
+import uz.com.model.money.Money;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,9 +31,34 @@ public interface AccountRepository extends JpaRepository<AccountsEntity, UUID> {
     @Query("select a from accounts as a where a.isDeleted=false and a.type=?1")
     Page<AccountsEntity> findAllByTypeAndDeletedIsFalse(AccountType type, Pageable pageable);
 
-    @Query("select a from accounts as a where a.isDeleted=false and a.user=?1")
-    Page<AccountsEntity> findAccountsEntityByUser(UserEntity user, Pageable pageable);
+    @Query("select a from accounts as a where a.isDeleted=false and a.createdAt <= ?1 and (a.createdAt < ?1 or a.id < ?2) order by a.createdAt desc, a.id desc")
+    List<AccountsEntity> findPage(LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query("select a from accounts as a where a.isDeleted=false and a.type=?3 and a.createdAt <= ?1 and (a.createdAt < ?1 or a.id < ?2) order by a.createdAt desc, a.id desc")
+    List<AccountsEntity> findPageByType(LocalDateTime createdAt, UUID id, AccountType type, Limit limit);
+
+    @Query("select a from accounts as a where a.isDeleted=false and a.user.id=?1")
+    Page<AccountsEntity> findAccountsEntityByUserId(UUID userId, Pageable pageable);
 
     @Query("select a from accounts as a where a.isDeleted=false and a.user=?1")
     List<AccountsEntity> findAllByUserAndDeletedIsFalse(UserEntity user);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from accounts as a where a.isDeleted=false and a.id in ?1 order by a.id")
+    List<AccountsEntity> findAllByIdInOrderByIdForUpdate(Collection<UUID> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update accounts a set a.balance = a.balance - ?2, a.updatedAt = current_timestamp " +
+            "where a.id = ?1 and a.isDeleted = false and a.balance >= ?2")
+    int debitBalance(UUID id, Money amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update accounts a set a.balance = a.balance - ?3, a.updatedAt = current_timestamp " +
+            "where a.id = ?1 and a.user.id = ?2 and a.isDeleted = false and a.balance >= ?3")
+    int debitOwnedBalance(UUID id, UUID userId, Money amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update accounts a set a.balance = a.balance + ?2, a.updatedAt = current_timestamp " +
+            "where a.id = ?1 and a.isDeleted = false")
+    int creditBalance(UUID id, Money amount);
 }
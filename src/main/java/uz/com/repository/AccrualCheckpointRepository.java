@@ -0,0 +1,30 @@
+package uz.com.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import uz.com.model.entity.AccrualCheckpointEntity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AccrualCheckpointRepository extends JpaRepository<AccrualCheckpointEntity, String> {
+
+    List<AccrualCheckpointEntity> findAllByBookAndRunDate(String book, LocalDate runDate);
+
+    @Query("select max(c.updatedAt) from accrual_checkpoints as c where not exists " +
+            "(select x from accrual_checkpoints as x where x.runDate = c.runDate and x.completed = false)")
+    LocalDateTime findLastCompletedAt();
+
+    @Modifying
+    @Query(value = "insert into accrual_checkpoints (id, book, run_date, partition_no, last_id, processed, completed, updated_at) " +
+            "values (?1, ?2, ?3, ?4, ?5, ?6, ?7, ?8) on conflict (id) do update set " +
+            "last_id = excluded.last_id, processed = excluded.processed, " +
+            "completed = excluded.completed, updated_at = excluded.updated_at", nativeQuery = true)
+    int upsert(String id, String book, LocalDate runDate, int partitionNo, UUID lastId,
+               long processed, boolean completed, LocalDateTime updatedAt);
+}
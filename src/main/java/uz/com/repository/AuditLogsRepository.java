@@ -1,11 +1,15 @@
 package uz.com.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import uz.com.model.entity.AuditLogsEntity;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -15,5 +19,13 @@ public interface AuditLogsRepository extends JpaRepository<AuditLogsEntity, UUID
 
     Page<AuditLogsEntity> findAuditLogsEntityByUrl(String url, Pageable pageable);
 
+    @Query("select a from audit_logs as a where a.createdAt <= ?1 and (a.createdAt < ?1 or a.id < ?2) order by a.createdAt desc, a.id desc")
+    List<AuditLogsEntity> findPage(LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query("select a from audit_logs as a where a.httpMethod=?3 and a.createdAt <= ?1 and (a.createdAt < ?1 or a.id < ?2) order by a.createdAt desc, a.id desc")
+    List<AuditLogsEntity> findPageByHttpMethod(LocalDateTime createdAt, UUID id, String method, Limit limit);
+
+    @Query("select a from audit_logs as a where a.url=?3 and a.createdAt <= ?1 and (a.createdAt < ?1 or a.id < ?2) order by a.createdAt desc, a.id desc")
+    List<AuditLogsEntity> findPageByUrl(LocalDateTime createdAt, UUID id, String url, Limit limit);
 
 }
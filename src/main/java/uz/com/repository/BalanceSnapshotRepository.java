@@ -0,0 +1,44 @@
+package uz.com.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uz.com.model.entity.BalanceSnapshotEntity;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshotEntity, Long> {
+
+    Optional<BalanceSnapshotEntity> findFirstByAccountIdOrderByRunDesc(UUID accountId);
+
+    Optional<BalanceSnapshotEntity> findFirstByAccountIdAndAsOfLessThanEqualOrderByRunDesc(UUID accountId, LocalDateTime asOf);
+
+    @Query(value = "select nextval('balance_snapshots_seq')", nativeQuery = true)
+    long nextRun();
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into balance_snapshots (id, account_id, balance, as_of, run, created_at) " +
+            "select nextval('balance_snapshots_seq'), a.id, a.balance - coalesce((select sum(case when e.direction = 'DEBIT' " +
+            "then -e.amount else e.amount end) from ledger_entries e where e.account_id = a.id), 0), ?1, 0, now() " +
+            "from accounts a where a.balance is not null and not exists (select 1 from balance_snapshots s where s.account_id = a.id)",
+            nativeQuery = true)
+    int seedOpeningSnapshots(LocalDateTime asOf);
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into balance_snapshots (id, account_id, balance, as_of, run, created_at) " +
+            "select nextval('balance_snapshots_seq'), e.account_id, coalesce(s.balance, 0) + sum(case when e.direction = 'DEBIT' " +
+            "then -e.amount else e.amount end), ?2, ?1, localtimestamp " +
+            "from ledger_entries e left join balance_snapshots s on s.account_id = e.account_id " +
+            "and s.run = (select max(p.run) from balance_snapshots p where p.account_id = e.account_id) " +
+            "where e.snapshot_run = ?1 " +
+            "group by e.account_id, s.balance",
+            nativeQuery = true)
+    int snapshotRun(long run, LocalDateTime asOf);
+}
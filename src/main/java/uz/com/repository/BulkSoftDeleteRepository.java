@@ -0,0 +1,64 @@
+package uz.com.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import uz.com.model.enums.SoftDeleteGuard;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class BulkSoftDeleteRepository {
+
+    private static final Set<String> TABLES = Set.of("users", "accounts", "loans", "transactions");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Set<UUID> softDelete(String table, List<UUID> ids, UUID deletedBy, LocalDateTime deletedAt, SoftDeleteGuard guard) {
+        String sql = "update " + checked(table) + " set is_deleted = true, deleted_at = ?, deleted_by = ?, updated_at = ? " +
+                "where id = any(?) and is_deleted = false" + predicate(table, guard) + " returning id";
+        return new HashSet<>(jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setTimestamp(1, Timestamp.valueOf(deletedAt));
+            statement.setObject(2, deletedBy);
+            statement.setTimestamp(3, Timestamp.valueOf(deletedAt));
+            statement.setArray(4, connection.createArrayOf("uuid", ids.toArray()));
+            return statement;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class)));
+    }
+
+    public Set<UUID> findExisting(String table, List<UUID> ids) {
+        String sql = "select id from " + checked(table) + " where id = any(?) and is_deleted = false";
+        return new HashSet<>(jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+            return statement;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class)));
+    }
+
+    private static String predicate(String table, SoftDeleteGuard guard) {
+        return switch (guard) {
+            case NONE -> "";
+            case LOAN_NOT_RUNNING -> {
+                if (!"loans".equals(table)) {
+                    throw new IllegalArgumentException(guard + " is not supported for " + table);
+                }
+                yield " and status not in ('ACTIVE', 'FREEZE', 'OVERDUE')";
+            }
+        };
+    }
+
+    private static String checked(String table) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Soft delete is not supported for " + table);
+        }
+        return table;
+    }
+}
@@ -0,0 +1,94 @@
+package uz.com.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import uz.com.model.entity.DebtSummaryEntity;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DebtSummaryRepository extends JpaRepository<DebtSummaryEntity, UUID> {
+
+    String SUMS = "select l.user_id as user_id, " +
+            "coalesce(sum(case when l.status in ('ACTIVE', 'FREEZE', 'OVERDUE') then l.amount end), 0) as total_principal, " +
+            "coalesce(sum(case when l.status in ('ACTIVE', 'FREEZE', 'OVERDUE') then l.must_be_pay end), 0) as outstanding, " +
+            "coalesce(sum(l.paid_ever), 0) as paid_to_date, " +
+            "count(*) filter (where l.status = 'ACTIVE') as active_count, " +
+            "count(*) filter (where l.status = 'FREEZE') as freeze_count, " +
+            "count(*) filter (where l.status = 'COMPLETED') as completed_count, " +
+            "count(*) filter (where l.status = 'OVERDUE') as overdue_count " +
+            "from loans l ";
+
+    String COLUMNS = "user_id, total_principal, outstanding, paid_to_date, active_count, freeze_count, completed_count, overdue_count, updated_at";
+
+    @Modifying
+    @Query(value = "insert into debt_summaries (" + COLUMNS + ") " +
+            "select cast(?1 as uuid), coalesce(max(a.total_principal), 0), coalesce(max(a.outstanding), 0), " +
+            "coalesce(max(a.paid_to_date), 0), coalesce(max(a.active_count), 0), coalesce(max(a.freeze_count), 0), " +
+            "coalesce(max(a.completed_count), 0), coalesce(max(a.overdue_count), 0), now() " +
+            "from (" + SUMS + "where l.is_deleted = false and l.user_id = ?1 group by l.user_id) a " +
+            "on conflict (user_id) do nothing", nativeQuery = true)
+    int seed(UUID userId);
+
+    @Modifying
+    @Query(value = "insert into debt_summaries (" + COLUMNS + ") " +
+            "select a.*, now() from (" + SUMS + "where l.is_deleted = false and l.user_id in " +
+            "(select o.user_id from loans o where o.id in ?1) group by l.user_id) a " +
+            "on conflict (user_id) do nothing", nativeQuery = true)
+    int seedOwnersOf(Collection<UUID> loanIds);
+
+    @Modifying
+    @Query(value = "insert into debt_summaries (" + COLUMNS + ") " +
+            "select a.*, now() from (" + SUMS + "where l.is_deleted = false " +
+            "and not exists (select 1 from debt_summaries s where s.user_id = l.user_id) group by l.user_id) a " +
+            "on conflict (user_id) do nothing", nativeQuery = true)
+    int seedMissing();
+
+    @Modifying
+    @Query(value = "update debt_summaries set total_principal = total_principal + ?2, outstanding = outstanding + ?3, " +
+            "paid_to_date = paid_to_date + ?4, active_count = active_count + ?5, freeze_count = freeze_count + ?6, " +
+            "completed_count = completed_count + ?7, overdue_count = overdue_count + ?8, updated_at = now() " +
+            "where user_id = ?1", nativeQuery = true)
+    int applyDelta(UUID userId, BigDecimal principal, BigDecimal outstanding, BigDecimal paid,
+                   long active, long freeze, long completed, long overdue);
+
+    @Modifying
+    @Query(value = "update debt_summaries s set total_principal = s.total_principal - d.total_principal, " +
+            "outstanding = s.outstanding - d.outstanding, paid_to_date = s.paid_to_date - d.paid_to_date, " +
+            "active_count = s.active_count - d.active_count, freeze_count = s.freeze_count - d.freeze_count, " +
+            "completed_count = s.completed_count - d.completed_count, overdue_count = s.overdue_count - d.overdue_count, " +
+            "updated_at = now() " +
+            "from (" + SUMS + "where l.id in ?1 group by l.user_id) d where s.user_id = d.user_id", nativeQuery = true)
+    int subtractLoans(Collection<UUID> loanIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from debt_summaries as s where s.userId = ?1")
+    Optional<DebtSummaryEntity> findForUpdate(UUID userId);
+
+    @Modifying
+    @Query(value = "update debt_summaries s set total_principal = coalesce(a.total_principal, 0), " +
+            "outstanding = coalesce(a.outstanding, 0), paid_to_date = coalesce(a.paid_to_date, 0), " +
+            "active_count = coalesce(a.active_count, 0), freeze_count = coalesce(a.freeze_count, 0), " +
+            "completed_count = coalesce(a.completed_count, 0), overdue_count = coalesce(a.overdue_count, 0), " +
+            "updated_at = now() " +
+            "from (select 1) x left join (" + SUMS + "where l.is_deleted = false and l.user_id = ?1 group by l.user_id) a on true " +
+            "where s.user_id = ?1", nativeQuery = true)
+    int rebuild(UUID userId);
+
+    @Query(value = "select s.user_id from debt_summaries s left join (" + SUMS + "where l.is_deleted = false group by l.user_id) a " +
+            "on a.user_id = s.user_id " +
+            "where s.total_principal <> coalesce(a.total_principal, 0) or s.outstanding <> coalesce(a.outstanding, 0) " +
+            "or s.paid_to_date <> coalesce(a.paid_to_date, 0) or s.active_count <> coalesce(a.active_count, 0) " +
+            "or s.freeze_count <> coalesce(a.freeze_count, 0) or s.completed_count <> coalesce(a.completed_count, 0) " +
+            "or s.overdue_count <> coalesce(a.overdue_count, 0)",
+            nativeQuery = true)
+    List<UUID> findDrifted();
+}
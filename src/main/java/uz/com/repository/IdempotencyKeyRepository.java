@@ -0,0 +1,34 @@
+package uz.com.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uz.com.model.entity.IdempotencyKeyEntity;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    @Modifying
+    @Query(value = "insert into idempotency_keys (id, request_hash, created_at, expires_at) " +
+            "values (?1, ?2, ?3, ?4) on conflict (id) do update set request_hash = excluded.request_hash, response = null, " +
+            "created_at = excluded.created_at, expires_at = excluded.expires_at " +
+            "where idempotency_keys.expires_at <= excluded.created_at", nativeQuery = true)
+    int reserve(String id, String requestHash, LocalDateTime createdAt, LocalDateTime expiresAt);
+
+    @Query("select k from idempotency_keys as k where k.id = ?1 and k.expiresAt > ?2")
+    Optional<IdempotencyKeyEntity> findLive(String id, LocalDateTime now);
+
+    @Modifying
+    @Query("update idempotency_keys k set k.response = ?2 where k.id = ?1")
+    int complete(String id, String response);
+
+    @Transactional
+    @Modifying
+    @Query("delete from idempotency_keys k where k.expiresAt < ?1")
+    int deleteExpired(LocalDateTime now);
+}
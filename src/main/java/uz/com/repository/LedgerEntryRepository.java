@@ -0,0 +1,33 @@
+package uz.com.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uz.com.model.entity.LedgerEntryEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntryEntity, Long> {
+
+    @Query("select coalesce(sum(case when e.direction = uz.com.model.enums.EntryDirection.DEBIT then -e.amount else e.amount end), 0) " +
+            "from ledger_entries as e where e.accountId=?1 and (e.snapshotRun is null or e.snapshotRun>?2) and e.createdAt<=?3")
+    BigDecimal sumOutsideRunUpTo(UUID accountId, long run, LocalDateTime upTo);
+
+    @Query("select coalesce(sum(case when e.direction = uz.com.model.enums.EntryDirection.DEBIT then -e.amount else e.amount end), 0) " +
+            "from ledger_entries as e where e.accountId=?1 and (e.snapshotRun is null or e.snapshotRun>?2)")
+    BigDecimal sumOutsideRun(UUID accountId, long run);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update ledger_entries set snapshot_run = ?1 where snapshot_run is null and created_at <= ?2",
+            nativeQuery = true)
+    int claimForRun(long run, LocalDateTime upTo);
+
+    @Query(value = "select localtimestamp", nativeQuery = true)
+    LocalDateTime currentTimestamp();
+}
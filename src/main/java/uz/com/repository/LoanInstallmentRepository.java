@@ -0,0 +1,14 @@
+package uz.com.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import uz.com.model.entity.LoanInstallmentEntity;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LoanInstallmentRepository extends JpaRepository<LoanInstallmentEntity, Long> {
+
+    List<LoanInstallmentEntity> findAllByLoanIdOrderByNumber(UUID loanId);
+}
@@ -1,14 +1,21 @@
 package uz.com.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import uz.com.model.entity.LoansEntity;
-import uz.com.model.entity.UserEntity;
 import uz.com.model.enums.LoanStatus;
+import uz.com.model.money.Money;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,18 +25,45 @@ public interface LoansRepository extends JpaRepository<LoansEntity, UUID> {
     @Query("select l from loans as l where l.isDeleted=false and l.id=?1")
     LoansEntity findLoansEntityByIdAndDeletedFalse(UUID id);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from loans as l where l.isDeleted=false and l.id=?1")
+    LoansEntity findForUpdate(UUID id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update loans l set l.mustBePay = ?4, l.paidEver = ?5, l.status = ?6, l.updatedAt = current_timestamp " +
+            "where l.id = ?1 and l.isDeleted = false and l.mustBePay = ?2 and l.status = ?3")
+    int compareAndPay(UUID id, Money expectedMustBePay, LoanStatus expectedStatus,
+                      Money mustBePay, Money paidEver, LoanStatus status);
+
     @Query("select l from loans as l where l.isDeleted=false")
     Page<LoansEntity> findAllLoansEntity(Pageable pageable);
 
-    @Query("select l from loans as l where l.isDeleted=false and l.user=?1")
-    Page<LoansEntity> findAllByUserAndDeletedIsFalse(UserEntity user, Pageable pageable);
+    @Query("select l from loans as l where l.isDeleted=false and l.createdAt <= ?1 and (l.createdAt < ?1 or l.id < ?2) order by l.createdAt desc, l.id desc")
+    List<LoansEntity> findPage(LocalDateTime createdAt, UUID id, Limit limit);
 
-    @Query("select l from loans as l where l.isDeleted=false and l.status=?1")
-    List<LoansEntity> findLoansEntityByStatusAndDeletedIsFalse(LoanStatus status);
+    @Query("select l from loans as l where l.isDeleted=false and l.user.id=?1")
+    Page<LoansEntity> findAllByUserIdAndDeletedIsFalse(UUID userId, Pageable pageable);
 
-    @Query("select l from loans as l where l.isDeleted=false and l.user=?1 and (l.status='ACTIVE' OR l.status='FREEZE')")
-    List<LoansEntity> findAllLoanEntityByUserAndStatus(UserEntity user);
+    @EntityGraph(attributePaths = "user")
+    @Query(value = "select l from loans as l where l.isDeleted=false and l.status=?1 order by l.createdAt desc, l.id desc",
+            countQuery = "select count(l) from loans as l where l.isDeleted=false and l.status=?1")
+    Page<LoansEntity> findAllByStatusAndDeletedIsFalse(LoanStatus status, Pageable pageable);
 
-    @Query("select l from loans as l where l.isDeleted=false")
-    List<LoansEntity> findAllLoanEntityList();
+    @EntityGraph(attributePaths = "user")
+    @Query("select l from loans as l where l.isDeleted=false and l.status=?3 and l.createdAt <= ?1 and (l.createdAt < ?1 or l.id < ?2) order by l.createdAt desc, l.id desc")
+    List<LoansEntity> findPageByStatus(LocalDateTime createdAt, UUID id, LoanStatus status, Limit limit);
+
+    @Query("select count(l) from loans as l where l.isDeleted=false")
+    long countAllByDeletedFalse();
+
+    @Query("select l.id as id, l.dueDate as dueDate from loans as l where l.isDeleted=false and l.status=?1 and l.dueDate < ?2 " +
+            "and (l.dueDate > ?3 or (l.dueDate = ?3 and l.id > ?4)) order by l.dueDate, l.id")
+    List<LoanDueDate> findDueBefore(LoanStatus status, LocalDate before, LocalDate afterDueDate, UUID afterId, Limit limit);
+
+    interface LoanDueDate {
+
+        UUID getId();
+
+        LocalDate getDueDate();
+    }
 }
@@ -0,0 +1,43 @@
+package uz.com.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uz.com.model.entity.MailOutboxEntity;
+import uz.com.model.enums.MailStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutboxEntity, UUID> {
+
+    @Query(value = "select * from mail_outbox where status = 'PENDING' and next_attempt_at <= ?1 " +
+            "order by next_attempt_at limit ?2 for update skip locked", nativeQuery = true)
+    List<MailOutboxEntity> findDueForUpdate(LocalDateTime now, int limit);
+
+    @Modifying
+    @Query("update mail_outbox m set m.attempts = m.attempts + 1, m.nextAttemptAt = ?2, m.leasedUntil = ?2 where m.id in ?1")
+    int lease(Collection<UUID> ids, LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("update mail_outbox m set m.status = uz.com.model.enums.MailStatus.SENT, m.sentAt = ?2, m.lastError = null, " +
+            "m.leasedUntil = null where m.id in ?1")
+    int markSent(Collection<UUID> ids, LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("update mail_outbox m set m.status = ?2, m.nextAttemptAt = ?3, m.lastError = ?4, m.leasedUntil = null " +
+            "where m.id = ?1")
+    int reschedule(UUID id, MailStatus status, LocalDateTime nextAttemptAt, String lastError);
+
+    @Transactional
+    @Modifying
+    @Query("delete from mail_outbox m where m.status in ?1 and m.nextAttemptAt < ?2")
+    int deleteFinishedBefore(Collection<MailStatus> statuses, LocalDateTime before);
+}
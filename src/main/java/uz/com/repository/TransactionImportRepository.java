@@ -0,0 +1,27 @@
+package uz.com.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import uz.com.model.entity.TransactionImportEntity;
+import uz.com.model.enums.ImportStatus;
+
+import java.util.UUID;
+
+@Repository
+public interface TransactionImportRepository extends JpaRepository<TransactionImportEntity, UUID> {
+
+    @Transactional
+    @Modifying
+    @Query("update transaction_imports i set i.linesProcessed = ?3, i.accepted = i.accepted + ?4, " +
+            "i.rejected = i.rejected + ?5, i.updatedAt = current_timestamp " +
+            "where i.id = ?1 and i.linesProcessed = ?2 and i.status = uz.com.model.enums.ImportStatus.RUNNING")
+    int advance(UUID id, long expectedLines, long lines, long accepted, long rejected);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update transaction_imports i set i.status = ?2, i.updatedAt = current_timestamp where i.id = ?1")
+    int updateStatus(UUID id, ImportStatus status);
+}
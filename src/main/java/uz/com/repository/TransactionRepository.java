@@ -1,5 +1,6 @@
 package uz.com.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,8 @@ import uz.com.model.entity.AccountsEntity;
 import uz.com.model.entity.TransactionEntity;
 import uz.com.model.enums.TransactionType;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -25,4 +28,13 @@ public interface TransactionRepository extends JpaRepository<TransactionEntity,
 
     @Query("select t from transactions as t where t.isDeleted=false and t.type=?1")
     Page<TransactionEntity> findAllByTypeAndDeletedIsFalse(Pageable pageable, TransactionType type);
+
+    @Query("select t from transactions as t where t.isDeleted=false and t.createdAt <= ?1 and (t.createdAt < ?1 or t.id < ?2) order by t.createdAt desc, t.id desc")
+    List<TransactionEntity> findPage(LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query("select t from transactions as t where t.isDeleted=false and t.account.id=?3 and t.createdAt <= ?1 and (t.createdAt < ?1 or t.id < ?2) order by t.createdAt desc, t.id desc")
+    List<TransactionEntity> findPageByAccountId(LocalDateTime createdAt, UUID id, UUID accountId, Limit limit);
+
+    @Query("select t from transactions as t where t.isDeleted=false and t.type=?3 and t.createdAt <= ?1 and (t.createdAt < ?1 or t.id < ?2) order by t.createdAt desc, t.id desc")
+    List<TransactionEntity> findPageByType(LocalDateTime createdAt, UUID id, TransactionType type, Limit limit);
 }
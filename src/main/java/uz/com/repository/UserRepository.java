@@ -1,13 +1,19 @@
 package uz.com.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import uz.com.model.entity.UserEntity;
 import uz.com.model.enums.UserRole;
+import uz.com.model.enums.UserStep;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,13 +32,24 @@ public interface UserRepository extends JpaRepository<UserEntity, UUID> {
     @Query("select u from users as u where u.isDeleted=false")
     Page<UserEntity> findAllByDeletedFalse(Pageable pageable);
 
+    @Query("select u from users as u where u.isDeleted=false and u.createdAt <= ?1 and (u.createdAt < ?1 or u.id < ?2) order by u.createdAt desc, u.id desc")
+    List<UserEntity> findPage(LocalDateTime createdAt, UUID id, Limit limit);
+
     @Query("SELECT u FROM users u WHERE u.isDeleted = false AND :role MEMBER OF u.role")
     Page<UserEntity> findAllByRole(UserRole role, Pageable pageable);
 
     @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM users u WHERE u.email = :email AND u.phone = :phone AND u.isDeleted = false")
     Boolean existsUserEntityByEmailAndPhoneAndDeletedIsFalse(String email, String phone);
 
-    @Query("SELECT u FROM users u WHERE u.isDeleted = false")
-    List<UserEntity> findAllUsersList();
+    @Query("select u.id from users as u where u.isDeleted=false and u.id in ?1 and ?2 member of u.role")
+    List<UUID> findIdsByRole(Collection<UUID> ids, UserRole role);
+
+    @Query("select count(u) from users as u where u.isDeleted=false")
+    long countAllByDeletedFalse();
+
+    @Transactional
+    @Modifying
+    @Query("update users u set u.step = ?2 where u.id in ?1 and (u.step is null or u.step <> ?2)")
+    int updateSteps(Collection<UUID> ids, UserStep step);
 
 }
@@ -1,10 +1,13 @@
 package uz.com.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import uz.com.model.entity.Verification;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Repository
@@ -13,6 +16,18 @@ public interface VerificationRepository extends JpaRepository<Verification, UUID
     @Query("select u from verifications as u where u.to_to=?1")
     Verification findVerificationByTo(UUID to);
 
-    @Query("select u from verifications as u where u.to_to=?1 and u.code=?2 ")
-    Verification findByUserEmailAndCode(UUID id, Integer code);
+    @Transactional
+    @Modifying
+    @Query("delete from verifications v where v.to_to = ?1 and v.code = ?2 and v.expiresAt > ?3 and v.attempts < ?4")
+    int consume(UUID to, Integer code, LocalDateTime now, int maxAttempts);
+
+    @Transactional
+    @Modifying
+    @Query("update verifications v set v.attempts = v.attempts + 1 where v.to_to = ?1")
+    int countAttempt(UUID to);
+
+    @Transactional
+    @Modifying
+    @Query("delete from verifications v where v.expiresAt is null or v.expiresAt <= ?1 or v.attempts >= ?2")
+    int deleteSpent(LocalDateTime now, int maxAttempts);
 }
@@ -4,21 +4,30 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import uz.com.exception.DataHasAlreadyExistsException;
 import uz.com.exception.DataNotAcceptableException;
 import uz.com.exception.DataNotFoundException;
 import uz.com.mapper.AccountMapper;
 import uz.com.model.dto.request.AccountCreateRequest;
 import uz.com.model.dto.response.AccountResponse;
+import uz.com.model.dto.response.BulkDeleteResponse;
 import uz.com.model.dto.response.GeneralResponse;
 import uz.com.model.dto.response.PageResponse;
 import uz.com.model.entity.AccountsEntity;
 import uz.com.model.entity.UserEntity;
 import uz.com.model.enums.AccountType;
+import uz.com.model.enums.EntryDirection;
 import uz.com.model.enums.UserRole;
 import uz.com.model.enums.UserStep;
+import uz.com.model.money.Money;
 import uz.com.repository.AccountRepository;
 import uz.com.repository.UserRepository;
+import uz.com.service.auth.CurrentUserService;
+import uz.com.service.bulk.BulkDeleteService;
+import uz.com.service.ledger.LedgerService;
+import uz.com.service.paging.PageCursor;
+import uz.com.service.step.UserStepTracker;
 
 import java.math.BigDecimal;
 import java.security.Principal;
@@ -34,8 +43,13 @@ public class AccountService {
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final AccountMapper accountMapper;
+    private final CurrentUserService currentUserService;
+    private final LedgerService ledgerService;
+    private final BulkDeleteService bulkDeleteService;
+    private final UserStepTracker userStepTracker;
 
 
+    @Transactional
     public GeneralResponse<AccountResponse> saveAccountForClients(AccountCreateRequest request, Principal principal) {
         AccountType type = AccountType.valueOf(request.getType().toUpperCase());
         AccountsEntity accounts = accountMapper.toEntity(request);
@@ -47,7 +61,6 @@ public class AccountService {
                     throw new DataHasAlreadyExistsException("This type account has already exists in this user!");
             }
         }
-        UserEntity principalUser = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
         if (user == null || !user.getRole().contains(UserRole.CLIENT)) {
             throw new DataNotAcceptableException("Bad request! Something error! Try again later! This user is not client!");
         }
@@ -61,14 +74,17 @@ public class AccountService {
             throw new DataNotAcceptableException("Wrong account type!");
         }
         accounts.setUser(user);
-        user.setStep(UserStep.ACCOUNT_CREATE);
-        userRepository.save(user);
-        accounts.setCreatedBy(principalUser.getId());
-        if (request.getBalance().compareTo(BigDecimal.ZERO) < 0) {
-            throw new DataNotAcceptableException("Invalid balance!");
-        }
-        accounts.setBalance(request.getBalance());
+        accounts.setCreatedBy(currentUserService.getUserId(principal));
+        Money balance = Money.parse(request.getBalance())
+                .filter(value -> !value.isNegative())
+                .orElseThrow(() -> new DataNotAcceptableException("Invalid balance!"));
+        accounts.setBalance(balance);
         AccountsEntity save = accountRepository.save(accounts);
+        if (save.getBalance().isPositive()) {
+            ledgerService.append(List.of(LedgerService.entry(save.getId(), null, EntryDirection.CREDIT,
+                    save.getBalance(), save.getCreatedBy())));
+        }
+        userStepTracker.record(user.getId(), UserStep.ACCOUNT_CREATE);
         AccountResponse accountResponse = accountMapper.toResponse(save);
 
         return GeneralResponse.ok("Account created!", accountResponse);
@@ -86,51 +102,62 @@ public class AccountService {
     }
 
 
-    public GeneralResponse<AccountResponse> fillAccountBalance(UUID accountId, BigDecimal amount) {
+    @Transactional
+    public GeneralResponse<AccountResponse> fillAccountBalance(UUID accountId, BigDecimal amount, Principal principal) {
+        Money credit = Money.parse(amount)
+                .filter(Money::isPositive)
+                .orElseThrow(() -> new DataNotAcceptableException("Invalid amount!"));
+        if (accountRepository.creditBalance(accountId, credit) == 0) throw new DataNotFoundException("Account not found!");
+        ledgerService.append(List.of(LedgerService.entry(accountId, null, EntryDirection.CREDIT, credit,
+                currentUserService.getUserId(principal))));
         AccountsEntity accounts = accountRepository.findAccountsEntityByIdAndDeletedFalse(accountId);
-        if (accounts == null) throw new DataNotFoundException("Account not found!");
-        if (amount.compareTo(BigDecimal.ZERO) < 0) throw new DataNotAcceptableException("Invalid amount!");
-        accounts.setBalance(accounts.getBalance().add(amount));
-        accountRepository.save(accounts);
         AccountResponse response = accountMapper.toResponse(accounts);
 
         return GeneralResponse.ok("Balance filled!", response);
     }
 
 
+    public GeneralResponse<BigDecimal> getBalanceAt(UUID accountId, LocalDateTime at, Principal principal) {
+        AccountsEntity account = accountRepository.findAccountsEntityByIdAndDeletedFalse(accountId);
+        if (account == null || (!currentUserService.isStaff(principal)
+                && (account.getUser() == null || !currentUserService.getUserId(principal).equals(account.getUser().getId())))) {
+            throw new DataNotFoundException("Account not found!");
+        }
+        BigDecimal balance = at == null ? ledgerService.balanceOf(accountId) : ledgerService.balanceAt(accountId, at);
+
+        return GeneralResponse.ok("This is account balance!", balance);
+    }
+
+
     public GeneralResponse<String> deleteAccountById(UUID id, Principal principal) {
         AccountsEntity accounts = accountRepository.findAccountsEntityByIdAndDeletedFalse(id);
-        UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
         if (accounts == null) {
             throw new DataNotFoundException("Account did not find!");
         }
         accounts.setDeleted(true);
         accounts.setDeletedAt(LocalDateTime.now());
-        accounts.setDeletedBy(user.getId());
+        accounts.setDeletedBy(currentUserService.getUserId(principal));
         accountRepository.save(accounts);
 
         return GeneralResponse.ok("Account deleted!", "DELETED");
     }
 
 
-    public GeneralResponse<String> multiDeleteAccount(List<String> ids, Principal principal) {
-        UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
-        for (String id : ids) {
-            AccountsEntity accounts = accountRepository.findAccountsEntityByIdAndDeletedFalse(UUID.fromString(id));
-            if (accounts == null) {
-                throw new DataNotFoundException("Account not found!");
-            }
-            accounts.setDeleted(true);
-            accounts.setDeletedAt(LocalDateTime.now());
-            accounts.setDeletedBy(user.getId());
-            accountRepository.save(accounts);
-        }
-
-        return GeneralResponse.ok("Accounts deleted!", "DELETED");
+    public GeneralResponse<BulkDeleteResponse> multiDeleteAccount(List<String> ids, Principal principal) {
+        BulkDeleteResponse response = bulkDeleteService.softDelete("accounts", ids, currentUserService.getUserId(principal));
+        return GeneralResponse.ok("Accounts deleted!", response);
     }
 
 
-    public GeneralResponse<PageResponse<AccountResponse>> getAllAccount(int page, int size, String accType) {
+    public GeneralResponse<PageResponse<AccountResponse>> getAllAccount(int page, int size, String accType, String cursor) {
+        if (cursor != null) {
+            PageCursor after = PageCursor.decode(cursor);
+            List<AccountsEntity> accountsEntities = accType == null
+                    ? accountRepository.findPage(after.createdAt(), after.id(), PageCursor.limit(size))
+                    : accountRepository.findPageByType(after.createdAt(), after.id(), AccountType.valueOf(accType.toUpperCase()), PageCursor.limit(size));
+            return GeneralResponse.ok("These are accounts", PageCursor.page(accountsEntities, size,
+                    AccountsEntity::getCreatedAt, AccountsEntity::getId, accountMapper::toResponse));
+        }
         Pageable pageable = PageRequest.of(page, size);
         List<AccountsEntity> accountsEntities = accountRepository.findAllAccountEntityAndDeletedFalse(pageable).getContent();
         if (accType == null) {
@@ -169,13 +196,13 @@ public class AccountService {
     public GeneralResponse<PageResponse<AccountResponse>> getUserAccount(Principal principal, UUID userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         if (userId != null) {
-            return getAllAccountByUserId(userRepository.findUserEntityByIdAndDeletedFalse(userId), pageable, size);
+            return getAllAccountByUserId(userId, pageable, size);
         }
-        return getAllAccountByUserId(userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName()), pageable, size);
+        return getAllAccountByUserId(currentUserService.getUserId(principal), pageable, size);
     }
 
-    private GeneralResponse<PageResponse<AccountResponse>> getAllAccountByUserId(UserEntity userRepository, Pageable pageable, int size) {
-        List<AccountsEntity> accounts = accountRepository.findAccountsEntityByUser(userRepository, pageable).getContent();
+    private GeneralResponse<PageResponse<AccountResponse>> getAllAccountByUserId(UUID userId, Pageable pageable, int size) {
+        List<AccountsEntity> accounts = accountRepository.findAccountsEntityByUserId(userId, pageable).getContent();
         if (accounts == null) throw new DataNotFoundException("Account not found!");
         int accCount = accounts.size();
         int pageCount = accCount / size;
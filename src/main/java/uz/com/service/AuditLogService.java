@@ -9,6 +9,7 @@ import uz.com.model.dto.response.GeneralResponse;
 import uz.com.model.dto.response.PageResponse;
 import uz.com.model.entity.AuditLogsEntity;
 import uz.com.repository.AuditLogsRepository;
+import uz.com.service.paging.PageCursor;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -23,7 +24,12 @@ public class AuditLogService {
     private final AuditLogsRepository auditLogsRepository;
 
 
-    public GeneralResponse<PageResponse<AuditLogsEntity>> getAuditByHttpMethod(String method, int page, int size) {
+    public GeneralResponse<PageResponse<AuditLogsEntity>> getAuditByHttpMethod(String method, int page, int size, String cursor) {
+        if (cursor != null) {
+            PageCursor after = PageCursor.decode(cursor);
+            List<AuditLogsEntity> auditLogsEntities = auditLogsRepository.findPageByHttpMethod(after.createdAt(), after.id(), method, PageCursor.limit(size));
+            return GeneralResponse.ok("This is audits", page(auditLogsEntities, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         List<AuditLogsEntity> auditLogsEntities = auditLogsRepository.findAuditLogsEntityByHttpMethod(method, pageable).getContent();
         if (auditLogsEntities == null) throw new DataNotFoundException("AuditLogs not found!");
@@ -35,7 +41,12 @@ public class AuditLogService {
     }
 
 
-    public GeneralResponse<PageResponse<AuditLogsEntity>> getAuditsByUrl(String url, int page, int size) {
+    public GeneralResponse<PageResponse<AuditLogsEntity>> getAuditsByUrl(String url, int page, int size, String cursor) {
+        if (cursor != null) {
+            PageCursor after = PageCursor.decode(cursor);
+            List<AuditLogsEntity> auditLogsEntities = auditLogsRepository.findPageByUrl(after.createdAt(), after.id(), url, PageCursor.limit(size));
+            return GeneralResponse.ok("This is audits", page(auditLogsEntities, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         List<AuditLogsEntity> auditLogsEntities = auditLogsRepository.findAuditLogsEntityByUrl(url, pageable).getContent();
         if (auditLogsEntities == null) throw new DataNotFoundException("AuditLogs not found!");
@@ -57,7 +68,12 @@ public class AuditLogService {
     }
 
 
-    public GeneralResponse<PageResponse<AuditLogsEntity>> getAllAudits(int page, int size) {
+    public GeneralResponse<PageResponse<AuditLogsEntity>> getAllAudits(int page, int size, String cursor) {
+        if (cursor != null) {
+            PageCursor after = PageCursor.decode(cursor);
+            List<AuditLogsEntity> auditLogsEntities = auditLogsRepository.findPage(after.createdAt(), after.id(), PageCursor.limit(size));
+            return GeneralResponse.ok("This is audits", page(auditLogsEntities, size));
+        }
         Pageable pageable = PageRequest.of(page, size);
         List<AuditLogsEntity> auditLogsEntities = auditLogsRepository.findAll(pageable).getContent();
         if (auditLogsEntities == null) throw new DataNotFoundException("AuditLogs not found!");
@@ -68,4 +84,8 @@ public class AuditLogService {
         return GeneralResponse.ok("This is audits", PageResponse.ok(pageCount, auditLogsEntityList));
     }
 
+
+    private static PageResponse<AuditLogsEntity> page(List<AuditLogsEntity> auditLogsEntities, int size) {
+        return PageCursor.page(auditLogsEntities, size, AuditLogsEntity::getCreatedAt, AuditLogsEntity::getId, auditLogs -> auditLogs);
+    }
 }
@@ -1,23 +1,45 @@
 package uz.com.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import uz.com.exception.DataNotAcceptableException;
 import uz.com.exception.DataNotFoundException;
 import uz.com.mapper.LoanMapper;
 import uz.com.model.dto.request.LoanCreateRequest;
+import uz.com.model.dto.response.BulkDeleteResponse;
+import uz.com.model.dto.response.DebtSummaryResponse;
 import uz.com.model.dto.response.GeneralResponse;
+import uz.com.model.dto.response.LoanInstallmentResponse;
 import uz.com.model.dto.response.LoanResponse;
 import uz.com.model.dto.response.PageResponse;
+import uz.com.model.entity.DebtSummaryEntity;
+import uz.com.model.entity.LoanInstallmentEntity;
 import uz.com.model.entity.LoansEntity;
 import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.AmortizationType;
+import uz.com.model.enums.DeleteStatus;
 import uz.com.model.enums.LoanStatus;
+import uz.com.model.enums.SoftDeleteGuard;
 import uz.com.model.enums.UserRole;
 import uz.com.model.enums.UserStep;
+import uz.com.model.money.Money;
 import uz.com.repository.LoansRepository;
 import uz.com.repository.UserRepository;
+import uz.com.service.amortization.AmortizationSchedule;
+import uz.com.service.amortization.LoanScheduleService;
+import uz.com.service.auth.CurrentUserService;
+import uz.com.service.bulk.BulkDeleteService;
+import uz.com.service.debt.DebtContribution;
+import uz.com.service.debt.DebtSummaryService;
+import uz.com.service.lifecycle.LoanLifecycleService;
+import uz.com.service.paging.CountService;
+import uz.com.service.paging.PageCursor;
+import uz.com.service.repayment.LoanRepaymentService;
+import uz.com.service.step.UserStepTracker;
 
 import java.math.BigDecimal;
 import java.security.Principal;
@@ -34,10 +56,18 @@ public class LoanService {
     private final LoansRepository loansRepository;
     private final UserRepository userRepository;
     private final LoanMapper loanMapper;
+    private final CurrentUserService currentUserService;
+    private final BulkDeleteService bulkDeleteService;
+    private final CountService countService;
+    private final DebtSummaryService debtSummaryService;
+    private final LoanScheduleService loanScheduleService;
+    private final LoanLifecycleService loanLifecycleService;
+    private final LoanRepaymentService loanRepaymentService;
+    private final UserStepTracker userStepTracker;
 
 
+    @Transactional
     public GeneralResponse<LoanResponse> saveLoan(LoanCreateRequest request, Principal principal) {
-        UserEntity principalUser = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
         LoansEntity loans = loanMapper.toEntity(request);
         UserEntity user = userRepository.findUserEntityByIdAndDeletedFalse(UUID.fromString(request.getUserId()));
         if (user == null) {
@@ -46,33 +76,37 @@ public class LoanService {
         if (!user.getRole().contains(UserRole.CLIENT)) {
             throw new DataNotAcceptableException("Invalid user! User is not client!");
         }
-        if (request.getAmount().compareTo(BigDecimal.ZERO) < 0) {
-            throw new DataNotAcceptableException("Invalid amount!");
-        }
-        loans.setAmount(request.getAmount());
+        Money amount = Money.parse(request.getAmount())
+                .filter(Money::isPositive)
+                .orElseThrow(() -> new DataNotAcceptableException("Invalid amount!"));
+        loans.setAmount(amount);
         loans.setUser(user);
-        user.setStep(UserStep.LOAN_CREATE);
-        userRepository.save(user);
-        loans.setCreatedBy(principalUser.getId());
+        loans.setCreatedBy(currentUserService.getUserId(principal));
         loans.setStatus(LoanStatus.ACTIVE);
         if (request.getInterestRate() < 0 || request.getInterestRate() > 100) {
             throw new DataNotAcceptableException("Invalid interest rate!");
         }
         loans.setInterestRate(request.getInterestRate());
-        LocalDate localDate = LocalDate.now().plusMonths(request.getMonths());
-        if (localDate.isBefore(LocalDate.now())) {
+        if (request.getMonths() == null || request.getMonths() <= 0) {
             throw new DataNotAcceptableException("Invalid due date time!");
         }
-        loans.setDueDate(localDate);
-
-        BigDecimal allMustBePay = request.getAmount().add((request.getAmount().multiply(BigDecimal.valueOf(request.getInterestRate() / 100)))
-                .multiply(BigDecimal.valueOf(request.getMonths() / 12)));
-
-        BigDecimal payPerMonth = BigDecimal.valueOf(allMustBePay.intValue() / (request.getMonths()));
-        loans.setPayPerMonth(payPerMonth);
-        loans.setMustBePay(allMustBePay);
-        loans.setPaidEver(BigDecimal.ZERO);
-        LoansEntity save = loansRepository.save(loans);
+        LocalDate start = LocalDate.now();
+        loans.setDueDate(start.plusMonths(request.getMonths()));
+        loans.setMonths(request.getMonths());
+        loans.setAmortizationType(request.getAmortizationType() != null ? request.getAmortizationType() : AmortizationType.ANNUITY);
+
+        AmortizationSchedule schedule = loanScheduleService.generate(amount, request.getInterestRate(),
+                request.getMonths(), loans.getAmortizationType());
+        loans.setPayPerMonth(Money.ofMinor(schedule.payment(0)));
+        loans.setMustBePay(amount.plus(Money.ofMinor(schedule.totalInterest())));
+        loans.setPaidEver(Money.ZERO);
+        DebtContribution before = debtSummaryService.prepare(user.getId(), null);
+        LoansEntity save = loansRepository.saveAndFlush(loans);
+        loanScheduleService.save(save.getId(), schedule, start);
+        debtSummaryService.apply(user.getId(), before, save);
+        loanLifecycleService.track(save);
+        userStepTracker.record(user.getId(), UserStep.LOAN_CREATE);
+        countService.invalidate("loans");
         LoanResponse loanResponse = loanMapper.toResponse(save);
 
         return GeneralResponse.ok("Loan created!", loanResponse);
@@ -90,17 +124,13 @@ public class LoanService {
     }
 
 
-    public GeneralResponse<LoanResponse> payForLoanById(UUID id, BigDecimal amount) {
-        LoansEntity loans = loansRepository.findLoansEntityByIdAndDeletedFalse(id);
-        if (loans == null) {
-            throw new DataNotFoundException("Loan not found!");
-        }
-        if (loans.getMustBePay().compareTo(amount) < 0 || amount.compareTo(BigDecimal.ZERO) < 0) {
-            throw new DataNotAcceptableException("Invalid amount!");
-        }
-        loans.setPaidEver(loans.getPaidEver().add(amount));
-        loans.setMustBePay(loans.getMustBePay().subtract(amount));
-        loansRepository.save(loans);
+    public GeneralResponse<LoanResponse> payForLoanById(UUID id, UUID accountId, BigDecimal amount, Principal principal) {
+        Money payment = Money.parse(amount)
+                .filter(Money::isPositive)
+                .orElseThrow(() -> new DataNotAcceptableException("Invalid amount!"));
+        LoansEntity loans = loanRepaymentService.repay(id, accountId, payment, currentUserService.getUserId(principal),
+                currentUserService.isStaff(principal));
+        loanLifecycleService.track(loans);
 
         LoanResponse loanResponse = loanMapper.toResponse(loans);
         return GeneralResponse.ok("Paid for loan!", loanResponse);
@@ -108,99 +138,115 @@ public class LoanService {
     }
 
 
+    @Transactional
     public GeneralResponse<String> deleteLoanById(UUID id, Principal principal) {
         LoansEntity loans = loansRepository.findLoansEntityByIdAndDeletedFalse(id);
-        UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
         if (loans == null) {
             throw new DataNotFoundException("Loan not found!");
         }
-        if (loans.getStatus().equals(LoanStatus.ACTIVE) || loans.getStatus().equals(LoanStatus.FREEZE)) {
+        if (loans.getStatus().equals(LoanStatus.ACTIVE) || loans.getStatus().equals(LoanStatus.FREEZE)
+                || loans.getStatus().equals(LoanStatus.OVERDUE)) {
             throw new DataNotAcceptableException("Can not delete loan! Because loan is not COMPLETED!");
         }
+        DebtContribution before = debtSummaryService.prepare(loans.getUser().getId(), loans);
         loans.setDeleted(true);
         loans.setDeletedAt(LocalDateTime.now());
-        loans.setDeletedBy(user.getId());
-        loansRepository.save(loans);
+        loans.setDeletedBy(currentUserService.getUserId(principal));
+        loansRepository.saveAndFlush(loans);
+        debtSummaryService.apply(loans.getUser().getId(), before, loans);
+        countService.invalidate("loans");
 
         return GeneralResponse.ok("Loan deleted!", "DELETED");
     }
 
 
+    @Transactional
     public GeneralResponse<LoanResponse> changeLoanStatus(UUID id, Principal principal, String status) {
         LoansEntity loans = loansRepository.findLoansEntityByIdAndDeletedFalse(id);
-        UserEntity principalUser = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
         if (loans == null) {
             throw new DataNotFoundException("Loan not found!");
         }
-        loans.setChangeStatusBy(principalUser.getId());
+        LoanStatus loanStatus;
         try {
-            loans.setStatus(LoanStatus.valueOf(status.toUpperCase()));
+            loanStatus = LoanStatus.valueOf(status.toUpperCase());
         } catch (Exception e) {
             throw new DataNotAcceptableException("Invalid status!");
         }
+        DebtContribution before = debtSummaryService.prepare(loans.getUser().getId(), loans);
+        loans.setChangeStatusBy(currentUserService.getUserId(principal));
+        loans.setStatus(loanStatus);
+        loansRepository.saveAndFlush(loans);
+        debtSummaryService.apply(loans.getUser().getId(), before, loans);
+        loanLifecycleService.track(loans);
 
         LoanResponse response = loanMapper.toResponse(loans);
         return GeneralResponse.ok("Status changed!", response);
     }
 
 
-    public GeneralResponse<String> multiDeleteLoan(List<String> ids, Principal principal) {
-        UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
+    @Transactional
+    public GeneralResponse<BulkDeleteResponse> multiDeleteLoan(List<String> ids, Principal principal) {
+        List<UUID> loanIds = new ArrayList<>();
         for (String id : ids) {
-            LoansEntity loans = loansRepository.findLoansEntityByIdAndDeletedFalse(UUID.fromString(id));
-            if (loans == null) {
-                throw new DataNotFoundException("Loan not found!");
+            try {
+                loanIds.add(UUID.fromString(id));
+            } catch (IllegalArgumentException | NullPointerException ignored) {
             }
-            if (loans.getStatus().equals(LoanStatus.ACTIVE) || loans.getStatus().equals(LoanStatus.FREEZE)) {
-                throw new DataNotAcceptableException("Can not delete loans! Because loans are not COMPLETED!");
-            }
-            loans.setDeleted(true);
-            loans.setDeletedBy(user.getId());
-            loans.setDeletedAt(LocalDateTime.now());
-            loansRepository.save(loans);
         }
-        return GeneralResponse.ok("Loans deleted!", "DELETED");
+        debtSummaryService.prepareDelete(loanIds);
+        BulkDeleteResponse response = bulkDeleteService.softDelete("loans", ids, currentUserService.getUserId(principal),
+                SoftDeleteGuard.LOAN_NOT_RUNNING);
+        List<UUID> deleted = new ArrayList<>();
+        response.getResults().forEach((id, result) -> {
+            if (result == DeleteStatus.DELETED) deleted.add(UUID.fromString(id));
+        });
+        debtSummaryService.applyDeleted(deleted);
+        return GeneralResponse.ok("Loans deleted!", response);
     }
 
 
-    public GeneralResponse<PageResponse<LoanResponse>> getAllLoans(int page, int size, String status) {
+    public GeneralResponse<PageResponse<LoanResponse>> getAllLoans(int page, int size, String status, String cursor) {
+        if (cursor != null) {
+            PageCursor after = PageCursor.decode(cursor);
+            List<LoansEntity> loansEntities = status == null
+                    ? loansRepository.findPage(after.createdAt(), after.id(), PageCursor.limit(size))
+                    : loansRepository.findPageByStatus(after.createdAt(), after.id(), LoanStatus.valueOf(status.toUpperCase()), PageCursor.limit(size));
+            return GeneralResponse.ok("These are loans", PageCursor.page(loansEntities, size,
+                    LoansEntity::getCreatedAt, LoansEntity::getId, loanMapper::toResponse));
+        }
         Pageable pageable = PageRequest.of(page, size);
         if (status == null) {
             List<LoansEntity> loansEntities = loansRepository.findAllLoansEntity(pageable).getContent();
             if (loansEntities == null) throw new DataNotFoundException("Loans not found!");
-            int loanCount = loansRepository.findAllLoanEntityList().size();
-            int pageCount = loanCount / size;
-            if (loanCount % size != 0) pageCount++;
+            CountService.TableCount loanCount = countService.count("loans", loansRepository::countAllByDeletedFalse);
             List<LoanResponse> loanResponse = new ArrayList<>();
             for (LoansEntity loans : loansEntities) {
                 LoanResponse response = loanMapper.toResponse(loans);
                 loanResponse.add(response);
             }
-            return GeneralResponse.ok("These are loans", PageResponse.ok(pageCount, loanResponse));
+            return GeneralResponse.ok("These are loans", PageResponse.ok(loanCount.pageCount(size), loanCount.total(),
+                    loanCount.estimated(), loanResponse));
         }
-        return getAllLoansByStatus(size, status);
+        return getAllLoansByStatus(status, pageable);
     }
 
-    private GeneralResponse<PageResponse<LoanResponse>> getAllLoansByStatus(int size, String status) {
+    private GeneralResponse<PageResponse<LoanResponse>> getAllLoansByStatus(String status, Pageable pageable) {
         LoanStatus loanStatus = LoanStatus.valueOf(status.toUpperCase());
-        List<LoansEntity> loansEntities = loansRepository.findLoansEntityByStatusAndDeletedIsFalse(loanStatus);
-        if (loansEntities == null) throw new DataNotFoundException("Loans not found!");
-        int loanCount = loansEntities.size();
-        int pageCount = loanCount / size;
-        if (loanCount % size != 0) pageCount++;
+        Page<LoansEntity> loansEntities = loansRepository.findAllByStatusAndDeletedIsFalse(loanStatus, pageable);
         List<LoanResponse> loanResponse = new ArrayList<>();
-        for (LoansEntity loans : loansEntities) {
+        for (LoansEntity loans : loansEntities.getContent()) {
             LoanResponse response = loanMapper.toResponse(loans);
             loanResponse.add(response);
         }
-        return GeneralResponse.ok("These are loans", PageResponse.ok(pageCount, loanResponse));
+        return GeneralResponse.ok("These are loans", PageResponse.ok(loansEntities.getTotalPages(),
+                loansEntities.getTotalElements(), false, loanResponse));
     }
 
 
     public GeneralResponse<PageResponse<LoanResponse>> getMyLoans(int page, int size, Principal principal) {
         Pageable pageable = PageRequest.of(page, size);
-        UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
-        List<LoansEntity> loansEntities = loansRepository.findAllByUserAndDeletedIsFalse(user, pageable).getContent();
+        UUID userId = currentUserService.getUserId(principal);
+        List<LoansEntity> loansEntities = loansRepository.findAllByUserIdAndDeletedIsFalse(userId, pageable).getContent();
         if (loansEntities == null) throw new DataNotFoundException("Loans not found!");
         int loanCount = loansEntities.size();
         int pageCount = loanCount / size;
@@ -215,15 +261,48 @@ public class LoanService {
 
 
     public GeneralResponse<BigDecimal> getMyAllActiveAndFreezeLoansAmount(Principal principal) {
-        UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
-        if (user == null) throw new DataNotFoundException("User not found!");
-        List<LoansEntity> loansEntities = loansRepository.findAllLoanEntityByUserAndStatus(user);
-        if (loansEntities == null) throw new DataNotFoundException("Loans not found!");
-        BigDecimal amount = BigDecimal.ZERO;
-        for (LoansEntity loans : loansEntities) {
-            amount=amount.add(loans.getAmount());
+        DebtSummaryEntity summary = debtSummaryService.getSummary(currentUserService.getUserId(principal));
+        return GeneralResponse.ok("This is all my loans' amount!", summary.getTotalPrincipal());
+    }
+
+
+    public GeneralResponse<List<LoanInstallmentResponse>> getLoanSchedule(UUID id) {
+        LoansEntity loans = loansRepository.findLoansEntityByIdAndDeletedFalse(id);
+        if (loans == null) {
+            throw new DataNotFoundException("Loan not found!");
+        }
+        List<LoanInstallmentResponse> installments = new ArrayList<>();
+        for (LoanInstallmentEntity installment : loanScheduleService.getSchedule(id)) {
+            installments.add(LoanInstallmentResponse.builder()
+                    .number(installment.getNumber())
+                    .dueDate(installment.getDueDate())
+                    .principal(installment.getPrincipal())
+                    .interest(installment.getInterest())
+                    .payment(installment.getPayment())
+                    .remainingPrincipal(installment.getRemainingPrincipal())
+                    .build());
         }
+        return GeneralResponse.ok("This is loan schedule!", installments);
+    }
+
+
+    public GeneralResponse<Integer> recomputeSchedules() {
+        return GeneralResponse.ok("Schedules recomputed!", loanScheduleService.recomputeAll());
+    }
+
 
-        return GeneralResponse.ok("This is all my loans' amount!",amount);
+    public GeneralResponse<DebtSummaryResponse> getMyDebtSummary(Principal principal) {
+        DebtSummaryEntity summary = debtSummaryService.getSummary(currentUserService.getUserId(principal));
+        DebtSummaryResponse response = DebtSummaryResponse.builder()
+                .userId(summary.getUserId())
+                .totalPrincipal(summary.getTotalPrincipal())
+                .outstanding(summary.getOutstanding())
+                .paidToDate(summary.getPaidToDate())
+                .activeCount(summary.getActiveCount())
+                .freezeCount(summary.getFreezeCount())
+                .completedCount(summary.getCompletedCount())
+                .overdueCount(summary.getOverdueCount())
+                .build();
+        return GeneralResponse.ok("This is my debt summary!", response);
     }
 }
@@ -1,32 +1,31 @@
 package uz.com.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import uz.com.exception.DataNotAcceptableException;
 import uz.com.model.dto.response.GeneralResponse;
 import uz.com.model.entity.UserEntity;
-import uz.com.model.entity.Verification;
 import uz.com.repository.UserRepository;
-import uz.com.repository.VerificationRepository;
+import uz.com.service.mail.MailOutboxService;
+import uz.com.service.verification.VerificationCodeStore;
 
-import java.time.LocalDateTime;
 import java.util.Random;
 
 @Service
 @RequiredArgsConstructor
 public class MailSendingService {
 
-    private final JavaMailSender javaMailSender;
+    private static final String SUBJECT = "Verification code";
+    private static final String TEXT = "Do not give to others this code. Your verification code: ";
+
     private final UserRepository userRepository;
-    private final VerificationRepository verificationRepository;
+    private final VerificationCodeStore verificationCodeStore;
+    private final MailOutboxService mailOutboxService;
 
-    @Value("${spring.mail.username}")
-    private String sender;
     Random random = new Random();
 
+    @Transactional
     public GeneralResponse<String> sendMessage(String email) {
 
         int message = 10000000 + random.nextInt(90000000);
@@ -34,23 +33,8 @@ public class MailSendingService {
         if (userEntity == null) {
             throw new DataNotAcceptableException("Wrong! Did not sign up use this email!");
         }
-        SimpleMailMessage simpleMailMessage = new SimpleMailMessage();
-        simpleMailMessage.setFrom(sender);
-        simpleMailMessage.setTo(email);
-        simpleMailMessage.setText("Do not give to others this code. Your verification code: " + message);
-        Verification verificationEntity = verificationRepository.findVerificationByTo(userEntity.getId());
-        if (verificationEntity == null) {
-            Verification verification = new Verification();
-            verification.setTo_to(userEntity.getId());
-            verification.setCode(message);
-            verificationRepository.save(verification);
-            return GeneralResponse.ok("Verification code sent", "SENT");
-        }
-        verificationEntity.setCode(message);
-        verificationEntity.setCreatedAt(LocalDateTime.now());
-        verificationRepository.save(verificationEntity);
-
-        javaMailSender.send(simpleMailMessage);
+        verificationCodeStore.put(userEntity.getId(), message);
+        mailOutboxService.enqueue(email, SUBJECT, TEXT + message);
         return GeneralResponse.ok("verification code sent", "SENT");
     }
 }
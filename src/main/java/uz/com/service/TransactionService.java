@@ -4,24 +4,31 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import uz.com.exception.DataNotAcceptableException;
 import uz.com.exception.DataNotFoundException;
 import uz.com.mapper.TransactionMapper;
 import uz.com.model.dto.request.TransactionCreateRequest;
+import uz.com.model.dto.request.TransferCreateRequest;
+import uz.com.model.dto.response.BulkDeleteResponse;
 import uz.com.model.dto.response.GeneralResponse;
 import uz.com.model.dto.response.PageResponse;
 import uz.com.model.dto.response.TransactionResponse;
 import uz.com.model.entity.AccountsEntity;
 import uz.com.model.entity.TransactionEntity;
-import uz.com.model.entity.UserEntity;
 import uz.com.model.enums.AccountType;
+import uz.com.model.enums.EntryDirection;
 import uz.com.model.enums.TransactionType;
 import uz.com.model.enums.UserStep;
+import uz.com.model.money.Money;
 import uz.com.repository.AccountRepository;
 import uz.com.repository.TransactionRepository;
-import uz.com.repository.UserRepository;
+import uz.com.service.auth.CurrentUserService;
+import uz.com.service.bulk.BulkDeleteService;
+import uz.com.service.ledger.LedgerService;
+import uz.com.service.paging.PageCursor;
+import uz.com.service.step.UserStepTracker;
 
-import java.math.BigDecimal;
 import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -34,15 +41,17 @@ public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
-    private final UserRepository userRepository;
+    private final UserStepTracker userStepTracker;
     private final TransactionMapper transactionMapper;
+    private final CurrentUserService currentUserService;
+    private final LedgerService ledgerService;
+    private final BulkDeleteService bulkDeleteService;
 
 
+    @Transactional
     public GeneralResponse<TransactionResponse> saveTransaction(TransactionCreateRequest request, Principal principal) {
         TransactionType type = TransactionType.valueOf(request.getType().toUpperCase());
-        UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
-        user.setStep(UserStep.TRANSACTION_CREATE);
-        userRepository.save(user);
+        UUID userId = currentUserService.getUserId(principal);
         TransactionEntity transactionEntity = transactionMapper.toEntity(request);
         AccountsEntity accounts = accountRepository.findAccountsEntityByIdAndDeletedFalse(UUID.fromString(request.getAccountId()));
         if (accounts == null) {
@@ -54,30 +63,74 @@ public class TransactionService {
         } catch (Exception e) {
             throw new DataNotAcceptableException("Invalid transaction type!");
         }
-        if (type == TransactionType.LOAN && accounts.getType() != AccountType.LOAN) {
-            throw new DataNotAcceptableException("Transaction and account types not suitable!");
+        checkAccountType(type, accounts.getType());
+        Money amount = Money.parse(request.getAmount())
+                .filter(Money::isPositive)
+                .orElseThrow(() -> new DataNotAcceptableException("Bad request! Action not acceptable! Invalid amount!"));
+        if (accountRepository.debitBalance(accounts.getId(), amount) == 0) {
+            throw new DataNotAcceptableException("Has no enough balance in account! Try again later!");
         }
-        if (type == TransactionType.DEPOSIT && accounts.getType() != AccountType.DEPOSIT) {
-            throw new DataNotAcceptableException("Transaction and account types not suitable!");
+        accounts.setBalance(accounts.getBalance().minus(amount));
+        transactionEntity.setAmount(amount);
+        transactionEntity.setDirection(EntryDirection.DEBIT);
+        userStepTracker.record(userId, UserStep.TRANSACTION_CREATE);
+        transactionEntity.setCreatedBy(userId);
+        TransactionEntity save = transactionRepository.save(transactionEntity);
+        ledgerService.record(save);
+        TransactionResponse response = transactionMapper.toResponse(save);
+
+        return GeneralResponse.ok("Transaction created!", response);
+    }
+
+
+    @Transactional
+    public GeneralResponse<List<TransactionResponse>> transfer(TransferCreateRequest request, Principal principal) {
+        Money amount = Money.parse(request.getAmount())
+                .filter(Money::isPositive)
+                .orElseThrow(() -> new DataNotAcceptableException("Bad request! Action not acceptable! Invalid amount!"));
+        UUID fromId = UUID.fromString(request.getFromAccountId());
+        UUID toId = UUID.fromString(request.getToAccountId());
+        if (fromId.equals(toId)) {
+            throw new DataNotAcceptableException("Can not transfer to the same account!");
         }
-        if ((type == TransactionType.LOAN || type == TransactionType.DEPOSIT) && accounts.getType() == AccountType.MAIN) {
-            throw new DataNotAcceptableException("Can not create LOAN or DEPOSIT transaction from MAIN account!");
+        UUID userId = currentUserService.getUserId(principal);
+        List<AccountsEntity> locked = accountRepository.findAllByIdInOrderByIdForUpdate(List.of(fromId, toId));
+        if (locked.size() != 2) {
+            throw new DataNotFoundException("Account not found!");
         }
-        if (request.getAmount().compareTo(BigDecimal.ZERO) < 0) {
-            throw new DataNotAcceptableException("Bad request! Action not acceptable! Invalid amount!");
+        AccountsEntity from = locked.get(0).getId().equals(fromId) ? locked.get(0) : locked.get(1);
+        AccountsEntity to = from == locked.get(0) ? locked.get(1) : locked.get(0);
+        if (!currentUserService.isStaff(principal) && (from.getUser() == null || !userId.equals(from.getUser().getId()))) {
+            throw new DataNotFoundException("Account not found!");
         }
-        BigDecimal transactionAmount = accounts.getBalance().subtract(request.getAmount());
-        if (transactionAmount.compareTo(BigDecimal.ZERO) < 0) {
+        Money fromBalance = from.getBalance();
+        if (fromBalance.isLessThan(amount)) {
             throw new DataNotAcceptableException("Has no enough balance in account! Try again later!");
         }
-        transactionEntity.setAmount(request.getAmount());
-        accounts.setBalance(transactionAmount);
-        accountRepository.save(accounts);
-        transactionEntity.setCreatedBy(user.getId());
-        TransactionEntity save = transactionRepository.save(transactionEntity);
-        TransactionResponse response = transactionMapper.toResponse(save);
+        from.setBalance(fromBalance.minus(amount));
+        to.setBalance(to.getBalance().plus(amount));
+
+        TransactionEntity debit = transferLeg(from, amount, EntryDirection.DEBIT, userId);
+        TransactionEntity credit = transferLeg(to, amount, EntryDirection.CREDIT, userId);
+        List<TransactionEntity> legs = transactionRepository.saveAll(List.of(debit, credit));
+        ledgerService.record(legs);
+        userStepTracker.record(userId, UserStep.TRANSACTION_CREATE);
+        List<TransactionResponse> responses = new ArrayList<>();
+        for (TransactionEntity leg : legs) {
+            responses.add(transactionMapper.toResponse(leg));
+        }
 
-        return GeneralResponse.ok("Transaction created!", response);
+        return GeneralResponse.ok("Transfer completed!", responses);
+    }
+
+    private static TransactionEntity transferLeg(AccountsEntity account, Money amount, EntryDirection direction, UUID userId) {
+        TransactionEntity leg = new TransactionEntity();
+        leg.setAccount(account);
+        leg.setAmount(amount);
+        leg.setType(TransactionType.TRANSFER);
+        leg.setDirection(direction);
+        leg.setCreatedBy(userId);
+        return leg;
     }
 
 
@@ -93,37 +146,28 @@ public class TransactionService {
 
     public GeneralResponse<String> deleteTransactionById(UUID id, Principal principal) {
         TransactionEntity transaction = transactionRepository.findTransactionEntityByIdAndDeletedFalse(id);
-        UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
         if (transaction == null) {
             throw new DataNotFoundException("Transaction not found!");
         }
         transaction.setDeleted(true);
         transaction.setDeletedAt(LocalDateTime.now());
-        transaction.setDeletedBy(user.getId());
+        transaction.setDeletedBy(currentUserService.getUserId(principal));
         transactionRepository.save(transaction);
 
         return GeneralResponse.ok("Transaction deleted!", "DELETED");
     }
 
 
-    public GeneralResponse<String> multiDeleteTransaction(List<String> ids, Principal principal) {
-        UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
-        for (String id : ids) {
-            TransactionEntity transaction = transactionRepository.findTransactionEntityByIdAndDeletedFalse(UUID.fromString(id));
-            if (transaction == null) {
-                throw new DataNotFoundException("Transaction not found!");
-            }
-            transaction.setDeleted(true);
-            transaction.setDeletedAt(LocalDateTime.now());
-            transaction.setDeletedBy(user.getId());
-            transactionRepository.save(transaction);
-        }
-
-        return GeneralResponse.ok("Transactions deleted!", "DELETED");
+    public GeneralResponse<BulkDeleteResponse> multiDeleteTransaction(List<String> ids, Principal principal) {
+        BulkDeleteResponse response = bulkDeleteService.softDelete("transactions", ids, currentUserService.getUserId(principal));
+        return GeneralResponse.ok("Transactions deleted!", response);
     }
 
 
-    public GeneralResponse<PageResponse<TransactionResponse>> getAllTransaction(int page, int size, UUID accountId, String type) {
+    public GeneralResponse<PageResponse<TransactionResponse>> getAllTransaction(int page, int size, UUID accountId, String type, String cursor) {
+        if (cursor != null) {
+            return getTransactionPage(size, accountId, type, PageCursor.decode(cursor));
+        }
         Pageable pageable = PageRequest.of(page, size);
         if (accountId == null && type == null) {
             List<TransactionEntity> transactionEntities = transactionRepository.findAllByDeletedIsFalse(pageable).getContent();
@@ -145,6 +189,20 @@ public class TransactionService {
         return getAllTransactionByAccountId(size, accountId, pageable);
     }
 
+    private GeneralResponse<PageResponse<TransactionResponse>> getTransactionPage(int size, UUID accountId, String type, PageCursor cursor) {
+        List<TransactionEntity> transactionEntities;
+        if (accountId != null) {
+            transactionEntities = transactionRepository.findPageByAccountId(cursor.createdAt(), cursor.id(), accountId, PageCursor.limit(size));
+        } else if (type != null) {
+            TransactionType transactionType = TransactionType.valueOf(type.toUpperCase());
+            transactionEntities = transactionRepository.findPageByType(cursor.createdAt(), cursor.id(), transactionType, PageCursor.limit(size));
+        } else {
+            transactionEntities = transactionRepository.findPage(cursor.createdAt(), cursor.id(), PageCursor.limit(size));
+        }
+        return GeneralResponse.ok("These are transactions", PageCursor.page(transactionEntities, size,
+                TransactionEntity::getCreatedAt, TransactionEntity::getId, transactionMapper::toResponse));
+    }
+
     private GeneralResponse<PageResponse<TransactionResponse>> getAllTransactionsByTransactionType(int size, String type, Pageable pageable) {
         TransactionType transactionType = TransactionType.valueOf(type.toUpperCase());
         List<TransactionEntity> transactionEntities = transactionRepository.findAllByTypeAndDeletedIsFalse(pageable, transactionType).getContent();
@@ -176,4 +234,17 @@ public class TransactionService {
 
         return GeneralResponse.ok("These are transactions", PageResponse.ok(pageCount, transactionResponses));
     }
+
+
+    public static void checkAccountType(TransactionType type, AccountType accountType) {
+        if (type == TransactionType.LOAN && accountType != AccountType.LOAN) {
+            throw new DataNotAcceptableException("Transaction and account types not suitable!");
+        }
+        if (type == TransactionType.DEPOSIT && accountType != AccountType.DEPOSIT) {
+            throw new DataNotAcceptableException("Transaction and account types not suitable!");
+        }
+        if ((type == TransactionType.LOAN || type == TransactionType.DEPOSIT) && accountType == AccountType.MAIN) {
+            throw new DataNotAcceptableException("Can not create LOAN or DEPOSIT transaction from MAIN account!");
+        }
+    }
 }
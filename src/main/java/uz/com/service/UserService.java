@@ -4,7 +4,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import uz.com.exception.DataHasAlreadyExistsException;
 import uz.com.exception.DataNotAcceptableException;
@@ -13,18 +12,23 @@ import uz.com.mapper.UserMapper;
 import uz.com.model.dto.request.ForgotPasswordRequest;
 import uz.com.model.dto.request.LoginRequest;
 import uz.com.model.dto.request.UserCreateRequest;
+import uz.com.model.dto.response.BulkDeleteResponse;
 import uz.com.model.dto.response.GeneralResponse;
 import uz.com.model.dto.response.JwtResponse;
+import uz.com.model.dto.response.PageResponse;
 import uz.com.model.dto.response.UserResponse;
 import uz.com.model.entity.UserEntity;
-import uz.com.model.entity.Verification;
 import uz.com.model.enums.Gender;
 import uz.com.model.enums.UserRole;
-import uz.com.model.dto.response.PageResponse;
 import uz.com.model.enums.UserStep;
 import uz.com.repository.UserRepository;
-import uz.com.repository.VerificationRepository;
+import uz.com.service.auth.CurrentUserService;
 import uz.com.service.auth.JwtService;
+import uz.com.service.auth.PasswordHashingService;
+import uz.com.service.bulk.BulkDeleteService;
+import uz.com.service.paging.CountService;
+import uz.com.service.paging.PageCursor;
+import uz.com.service.verification.VerificationCodeStore;
 
 import java.security.Principal;
 import java.time.LocalDateTime;
@@ -32,25 +36,28 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final VerificationRepository verificationRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final VerificationCodeStore verificationCodeStore;
     private final JwtService jwtService;
     private final UserMapper userMapper;
+    private final CurrentUserService currentUserService;
+    private final BulkDeleteService bulkDeleteService;
+    private final CountService countService;
 
-    public GeneralResponse<JwtResponse> save(UserCreateRequest request) {
+    public CompletableFuture<GeneralResponse<JwtResponse>> save(UserCreateRequest request) {
         boolean b = userRepository.existsUserEntityByEmailAndPhoneAndDeletedIsFalse(request.getEmail(), request.getPhone());
         if (b) {
             throw new DataHasAlreadyExistsException("User has already exists!");
         }
         UserEntity user = userMapper.toEntity(request);
         user.setRole(Set.of(UserRole.USER));
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setEmail(request.getEmail());
         user.setAddress(request.getAddress());
         user.setPhone(request.getPhone());
@@ -61,44 +68,48 @@ public class UserService {
         } catch (Exception e) {
             throw new DataNotAcceptableException("Wrong input!");
         }
-        userRepository.save(user);
-        UserResponse userResponse = userMapper.toResponse(user);
-        String accessToken = jwtService.generateAccessToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
-        JwtResponse jwtResponse = JwtResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .userResponse(userResponse)
-                .build();
-        return GeneralResponse.ok("User registered!", jwtResponse);
-
+        return passwordHashingService.encode(request.getPassword()).thenApply(password -> {
+            user.setPassword(password);
+            userRepository.save(user);
+            countService.invalidate("users");
+            UserResponse userResponse = userMapper.toResponse(user);
+            String accessToken = jwtService.generateAccessToken(user);
+            String refreshToken = jwtService.generateRefreshToken(user);
+            JwtResponse jwtResponse = JwtResponse.builder()
+                    .accessToken(accessToken)
+                    .refreshToken(refreshToken)
+                    .userResponse(userResponse)
+                    .build();
+            return GeneralResponse.ok("User registered!", jwtResponse);
+        });
     }
 
 
-    public GeneralResponse<JwtResponse> login(LoginRequest request) {
+    public CompletableFuture<GeneralResponse<JwtResponse>> login(LoginRequest request) {
         UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(request.getEmail());
         if (user == null) {
             throw new DataNotFoundException("User did not find!");
         }
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new DataNotAcceptableException("Wrong username or password! Try again!");
-        }
-        UserResponse userResponse = userMapper.toResponse(user);
-        String accessToken = jwtService.generateAccessToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
-        JwtResponse jwtResponse = JwtResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .userResponse(userResponse)
-                .build();
-        return GeneralResponse.ok("User signed!", jwtResponse);
+        return passwordHashingService.matches(request.getPassword(), user.getPassword()).thenApply(matches -> {
+            if (!matches) {
+                throw new DataNotAcceptableException("Wrong username or password! Try again!");
+            }
+            UserResponse userResponse = userMapper.toResponse(user);
+            String accessToken = jwtService.generateAccessToken(user);
+            String refreshToken = jwtService.generateRefreshToken(user);
+            JwtResponse jwtResponse = JwtResponse.builder()
+                    .accessToken(accessToken)
+                    .refreshToken(refreshToken)
+                    .userResponse(userResponse)
+                    .build();
+            return GeneralResponse.ok("User signed!", jwtResponse);
+        });
     }
 
 
     public GeneralResponse<UserResponse> changeRoleTo(UUID userId, String role, Principal principal) {
         UserRole setRole = UserRole.valueOf(role.toUpperCase());
         UserEntity user = userRepository.findUserEntityByIdAndDeletedFalse(userId);
-        UserEntity principalUser = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
         if (user == null) {
             throw new DataNotFoundException("User did not find!");
         }
@@ -106,9 +117,10 @@ public class UserService {
             throw new DataHasAlreadyExistsException("This role set before!");
         }
         user.getRole().add(setRole);
-        user.setChangeRoleBy(principalUser.getId());
+        UUID principalId = currentUserService.getUserId(principal);
+        user.setChangeRoleBy(principalId);
         user.setUpdatedAt(LocalDateTime.now());
-        user.setCreatedBy(principalUser.getId());
+        user.setCreatedBy(principalId);
         UserEntity save = userRepository.save(user);
         UserResponse userResponse = userMapper.toResponse(save);
 
@@ -119,7 +131,6 @@ public class UserService {
     public GeneralResponse<UserResponse> removeRole(UUID userId, String role, Principal principal) {
         UserRole removeRole = UserRole.valueOf(role.toUpperCase());
         UserEntity user = userRepository.findUserEntityByIdAndDeletedFalse(userId);
-        UserEntity principalUser = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
         if (user == null) {
             throw new DataNotFoundException("User did not found!");
         }
@@ -127,9 +138,10 @@ public class UserService {
             throw new DataNotAcceptableException("Role has no this user!");
         }
         user.getRole().remove(removeRole);
-        user.setChangeRoleBy(principalUser.getId());
+        UUID principalId = currentUserService.getUserId(principal);
+        user.setChangeRoleBy(principalId);
         user.setUpdatedAt(LocalDateTime.now());
-        user.setCreatedBy(principalUser.getId());
+        user.setCreatedBy(principalId);
         UserEntity save = userRepository.save(user);
         UserResponse userResponse = userMapper.toResponse(save);
 
@@ -137,19 +149,21 @@ public class UserService {
     }
 
 
-    public GeneralResponse<String> forgotPassword(ForgotPasswordRequest request) {
-        UserEntity userEntity = userRepository.findUserEntityByEmailAndDeletedFalse(request.getEmail());
-        Verification verification = verificationRepository.findByUserEmailAndCode(userEntity.getId(), request.getCode());
-        if (!verification.getCode().equals(request.getCode()) ||
-                verification.getCreatedAt().plusMinutes(5).isBefore(LocalDateTime.now())) {
-            verificationRepository.delete(verification);
+    public CompletableFuture<GeneralResponse<String>> forgotPassword(ForgotPasswordRequest request) {
+        UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(request.getEmail());
+        if (user == null) {
             throw new DataNotAcceptableException("Verification code is incorrect or expired! Please, try again later!");
         }
-        UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        verificationRepository.delete(verification);
-        userRepository.save(user);
-        return GeneralResponse.ok("User password changed!", "CHANGED");
+        CompletableFuture<String> encoded = passwordHashingService.encode(request.getNewPassword());
+        if (!verificationCodeStore.consume(user.getId(), request.getCode())) {
+            encoded.cancel(false);
+            throw new DataNotAcceptableException("Verification code is incorrect or expired! Please, try again later!");
+        }
+        return encoded.thenApply(password -> {
+            user.setPassword(password);
+            userRepository.save(user);
+            return GeneralResponse.ok("User password changed!", "CHANGED");
+        });
     }
 
 
@@ -165,14 +179,14 @@ public class UserService {
 
     public GeneralResponse<String> deleteUserById(UUID id, Principal principal) {
         UserEntity user = userRepository.findUserEntityByIdAndDeletedFalse(id);
-        UserEntity principalUser = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
         if (user == null) {
             throw new DataNotFoundException("user did not found!");
         }
         user.setDeleted(true);
         user.setDeletedAt(LocalDateTime.now());
-        user.setDeletedBy(principalUser.getId());
+        user.setDeletedBy(currentUserService.getUserId(principal));
         userRepository.save(user);
+        countService.invalidate("users");
 
         return GeneralResponse.ok("User deleted!", "DELETED");
     }
@@ -187,20 +201,9 @@ public class UserService {
     }
 
 
-    public GeneralResponse<String> multiDeleteUser(List<String> ids, Principal principal) {
-        UserEntity principalUser = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
-        for (String id : ids) {
-            UserEntity user = userRepository.findUserEntityByIdAndDeletedFalse(UUID.fromString(id));
-            if (user == null) {
-                throw new DataNotFoundException("User not found!");
-            }
-            user.setDeleted(true);
-            user.setDeletedAt(LocalDateTime.now());
-            user.setDeletedBy(principalUser.getId());
-            userRepository.save(user);
-        }
-
-        return GeneralResponse.ok("Users deleted!", "DELETED");
+    public GeneralResponse<BulkDeleteResponse> multiDeleteUser(List<String> ids, Principal principal) {
+        BulkDeleteResponse response = bulkDeleteService.softDelete("users", ids, currentUserService.getUserId(principal));
+        return GeneralResponse.ok("Users deleted!", response);
     }
 
 
@@ -214,7 +217,7 @@ public class UserService {
     }
 
 
-    public GeneralResponse<UserResponse> updateUserProfile(UUID id, UserCreateRequest request) {
+    public CompletableFuture<GeneralResponse<UserResponse>> updateUserProfile(UUID id, UserCreateRequest request) {
         UserEntity userEntity = userRepository.findUserEntityByEmailAndDeletedFalse(request.getEmail());
         UserEntity userByPhone = userRepository.findUserEntityByPhone(request.getPhone());
         UserEntity user = userRepository.findUserEntityByIdAndDeletedFalse(id);
@@ -225,34 +228,43 @@ public class UserService {
             throw new DataHasAlreadyExistsException("Phone has already exists!");
         }
         if (user == null) throw new DataNotFoundException("User not found!");
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setEmail(request.getEmail());
-        user.setAddress(request.getAddress());
-        user.setPhone(request.getPhone());
-        user.setFullName(request.getFullName());
+        Gender gender;
         try {
-            user.setGender(Gender.valueOf(request.getGender().toUpperCase()));
+            gender = Gender.valueOf(request.getGender().toUpperCase());
         } catch (Exception e) {
             throw new DataNotAcceptableException("Wrong input!");
         }
-        UserEntity save = userRepository.save(user);
-        UserResponse response = userMapper.toResponse(save);
-
-        return GeneralResponse.ok("User updated!", response);
+        return passwordHashingService.encode(request.getPassword()).thenApply(password -> {
+            user.setPassword(password);
+            user.setEmail(request.getEmail());
+            user.setAddress(request.getAddress());
+            user.setPhone(request.getPhone());
+            user.setFullName(request.getFullName());
+            user.setGender(gender);
+            UserEntity save = userRepository.save(user);
+            UserResponse response = userMapper.toResponse(save);
+
+            return GeneralResponse.ok("User updated!", response);
+        });
     }
 
 
-    public GeneralResponse<PageResponse<UserResponse>> getAllUsers(int page, int size) {
+    public GeneralResponse<PageResponse<UserResponse>> getAllUsers(int page, int size, String cursor) {
+        if (cursor != null) {
+            PageCursor after = PageCursor.decode(cursor);
+            List<UserEntity> userEntities = userRepository.findPage(after.createdAt(), after.id(), PageCursor.limit(size));
+            return GeneralResponse.ok("These are users", PageCursor.page(userEntities, size,
+                    UserEntity::getCreatedAt, UserEntity::getId, userMapper::toResponse));
+        }
         Pageable pageable = PageRequest.of(page, size);
         List<UserEntity> userEntities = userRepository.findAllByDeletedFalse(pageable).getContent();
-        int userCount = userRepository.findAllUsersList().size();
-        int pageCount = userCount / size;
-        if (userCount % size != 0) pageCount++;
+        CountService.TableCount userCount = countService.count("users", userRepository::countAllByDeletedFalse);
         List<UserResponse> userResponses = new ArrayList<>();
         for (UserEntity user : userEntities) {
             UserResponse response = userMapper.toResponse(user);
             userResponses.add(response);
         }
-        return GeneralResponse.ok("These are users", PageResponse.ok(pageCount, userResponses));
+        return GeneralResponse.ok("These are users", PageResponse.ok(userCount.pageCount(size), userCount.total(),
+                userCount.estimated(), userResponses));
     }
 }
@@ -0,0 +1,320 @@
+package uz.com.service.accrual;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.com.model.entity.AccrualCheckpointEntity;
+import uz.com.model.entity.LedgerEntryEntity;
+import uz.com.model.enums.EntryDirection;
+import uz.com.model.money.Money;
+import uz.com.repository.AccrualCheckpointRepository;
+import uz.com.service.ledger.LedgerService;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class InterestAccrualService {
+
+    private static final List<Book> BOOKS = List.of(
+            new Book("loans",
+                    "with chunk as (select l.id, l.last_accrued_on, l.created_at " +
+                            "from loans l where l.is_deleted = false and l.status in ('ACTIVE', 'OVERDUE') " +
+                            "and l.id > :after and l.id <= :upper " +
+                            "and (l.last_accrued_on is null or l.last_accrued_on < :runDate) " +
+                            "order by l.id limit :limit), " +
+                            "schedule as (select i.loan_id, i.interest, i.due_date, " +
+                            "lag(i.due_date) over (partition by i.loan_id order by i.number) as period_start " +
+                            "from loan_installments i where i.loan_id in (select id from chunk)) " +
+                            "select c.id, s.interest as basis, 0 as rate, " +
+                            "coalesce(c.last_accrued_on, cast(c.created_at as date)) as accrued_from, " +
+                            "coalesce(s.period_start, cast(c.created_at as date)) as period_start, s.due_date as period_end " +
+                            "from chunk c left join schedule s on s.loan_id = c.id " +
+                            "and s.due_date > coalesce(c.last_accrued_on, cast(c.created_at as date)) " +
+                            "and coalesce(s.period_start, cast(c.created_at as date)) < :runDate " +
+                            "order by c.id, s.due_date",
+                    "update loans set accrued_interest = coalesce(accrued_interest, 0) + :interest, last_accrued_on = :runDate " +
+                            "where id = :id and (last_accrued_on is null or last_accrued_on < :runDate)",
+                    false),
+            new Book("deposits",
+                    "select a.id, a.balance as basis, a.interest_rate as rate, " +
+                            "coalesce(a.last_accrued_on, cast(a.created_at as date)) as accrued_from, " +
+                            "cast(null as date) as period_start, cast(null as date) as period_end " +
+                            "from accounts a where a.is_deleted = false and a.type = 'DEPOSIT' " +
+                            "and a.id > :after and a.id <= :upper " +
+                            "and (a.last_accrued_on is null or a.last_accrued_on < :runDate) " +
+                            "order by a.id limit :limit",
+                    "update accounts set balance = coalesce(balance, 0) + :interest, " +
+                            "accrued_interest = coalesce(accrued_interest, 0) + :interest, last_accrued_on = :runDate, " +
+                            "updated_at = localtimestamp " +
+                            "where id = :id and (last_accrued_on is null or last_accrued_on < :runDate)",
+                    true)
+    );
+
+    private static final RowMapper<AccrualRow> ROW_MAPPER = (rs, rowNum) -> new AccrualRow(
+            rs.getObject("id", UUID.class),
+            rs.getBigDecimal("basis"),
+            rs.getDouble("rate"),
+            rs.getObject("accrued_from", LocalDate.class),
+            rs.getObject("period_start", LocalDate.class),
+            rs.getObject("period_end", LocalDate.class));
+
+    private final AccrualCheckpointRepository accrualCheckpointRepository;
+    private final LedgerService ledgerService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int partitions;
+    private final int chunkSize;
+    private final int dayCount;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong rowsPerSecond = new AtomicLong();
+    private final AtomicLong lastCompletedAt = new AtomicLong();
+    private final Map<String, Counter> rows = new HashMap<>();
+    private final Timer runTimer;
+
+    public InterestAccrualService(AccrualCheckpointRepository accrualCheckpointRepository,
+                                  LedgerService ledgerService,
+                                  NamedParameterJdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${accrual.partitions:0}") int partitions,
+                                  @Value("${accrual.chunk-size:5000}") int chunkSize,
+                                  @Value("${accrual.day-count:365}") int dayCount) {
+        this.accrualCheckpointRepository = accrualCheckpointRepository;
+        this.ledgerService = ledgerService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitions = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+        this.dayCount = dayCount;
+        this.executor = Executors.newFixedThreadPool(this.partitions, runnable -> {
+            Thread thread = new Thread(runnable, "accrual-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Book book : BOOKS) {
+            rows.put(book.name(), meterRegistry.counter("accrual.rows", "book", book.name()));
+        }
+        this.runTimer = meterRegistry.timer("accrual.run");
+        Gauge.builder("accrual.rows.per.second", rowsPerSecond, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("accrual.lag.seconds", lastCompletedAt,
+                completedAt -> completedAt.get() > 0 ? (System.currentTimeMillis() - completedAt.get()) / 1000.0 : Double.NaN)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreLag() {
+        LocalDateTime completedAt = accrualCheckpointRepository.findLastCompletedAt();
+        if (completedAt != null) {
+            lastCompletedAt.compareAndSet(0, completedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    @Scheduled(cron = "${accrual.cron:0 30 1 * * *}")
+    public void nightly() {
+        accrue(LocalDate.now());
+    }
+
+    public long accrue(LocalDate runDate) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Interest accrual for {} skipped, a run is already in progress", runDate);
+            return 0;
+        }
+        try {
+            long started = System.nanoTime();
+            long accrued = 0;
+            for (Book book : BOOKS) {
+                accrued += accrue(book, runDate);
+            }
+            long elapsed = System.nanoTime() - started;
+            runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            rowsPerSecond.set(elapsed > 0 ? accrued * 1_000_000_000L / elapsed : accrued);
+            lastCompletedAt.set(System.currentTimeMillis());
+            log.info("Accrued interest on {} rows for {} in {} ms", accrued, runDate, elapsed / 1_000_000);
+            return accrued;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private long accrue(Book book, LocalDate runDate) {
+        Map<String, AccrualCheckpointEntity> checkpoints = new HashMap<>();
+        for (AccrualCheckpointEntity checkpoint : accrualCheckpointRepository.findAllByBookAndRunDate(book.name(), runDate)) {
+            checkpoints.put(checkpoint.getId(), checkpoint);
+        }
+        UUID[] bounds = bounds(partitions);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            String id = book.name() + ":" + runDate + ":" + partition + "/" + partitions;
+            AccrualCheckpointEntity checkpoint = checkpoints.get(id);
+            if (checkpoint != null && checkpoint.isCompleted()) {
+                continue;
+            }
+            int partitionNo = partition;
+            UUID after = checkpoint != null && checkpoint.getLastId() != null ? checkpoint.getLastId() : bounds[partition];
+            long processed = checkpoint != null ? checkpoint.getProcessed() : 0;
+            futures.add(executor.submit(() ->
+                    accruePartition(book, runDate, id, partitionNo, after, bounds[partitionNo + 1], processed)));
+        }
+        long accrued = 0;
+        try {
+            for (Future<Long> future : futures) {
+                accrued += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interest accrual interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Interest accrual failed", e.getCause());
+        }
+        return accrued;
+    }
+
+    private long accruePartition(Book book, LocalDate runDate, String checkpointId, int partition,
+                                 UUID after, UUID upper, long processed) {
+        long accrued = 0;
+        while (true) {
+            List<AccrualRow> chunk = jdbcTemplate.query(book.select(), new MapSqlParameterSource()
+                    .addValue("runDate", runDate)
+                    .addValue("after", after)
+                    .addValue("upper", upper)
+                    .addValue("limit", chunkSize), ROW_MAPPER);
+            Map<UUID, Long> interests = new LinkedHashMap<>();
+            for (AccrualRow row : chunk) {
+                interests.merge(row.id(), interestOf(row, runDate, dayCount), Long::sum);
+            }
+            List<UUID> ids = new ArrayList<>();
+            List<SqlParameterSource> updates = new ArrayList<>(interests.size());
+            for (AccrualRow row : chunk) {
+                Long interest = interests.remove(row.id());
+                if (interest == null || row.accruedFrom() == null || !row.accruedFrom().isBefore(runDate)) {
+                    continue;
+                }
+                ids.add(row.id());
+                updates.add(new MapSqlParameterSource()
+                        .addValue("interest", Money.ofMinor(interest).toBigDecimal())
+                        .addValue("runDate", runDate)
+                        .addValue("id", row.id()));
+            }
+            UUID last = chunk.isEmpty() ? after : chunk.get(chunk.size() - 1).id();
+            boolean completed = chunk.stream().map(AccrualRow::id).distinct().count() < chunkSize;
+            long done = processed + updates.size();
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!updates.isEmpty()) {
+                    int[] updated = jdbcTemplate.batchUpdate(book.update(), updates.toArray(SqlParameterSource[]::new));
+                    if (book.posted()) {
+                        post(ids, updates, updated);
+                    }
+                }
+                accrualCheckpointRepository.upsert(checkpointId, book.name(), runDate, partition, last,
+                        done, completed, LocalDateTime.now());
+            });
+            rows.get(book.name()).increment(updates.size());
+            accrued += updates.size();
+            processed = done;
+            after = last;
+            if (completed) {
+                return accrued;
+            }
+        }
+    }
+
+    private void post(List<UUID> ids, List<SqlParameterSource> updates, int[] updated) {
+        List<LedgerEntryEntity> entries = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            Money interest = Money.of((BigDecimal) updates.get(i).getValue("interest"));
+            if (updated[i] != 0 && interest.isPositive()) {
+                entries.add(LedgerService.entry(ids.get(i), null, EntryDirection.CREDIT, interest, null));
+            }
+        }
+        if (!entries.isEmpty()) {
+            ledgerService.append(entries);
+        }
+    }
+
+    static long interestOf(AccrualRow row, LocalDate runDate, int dayCount) {
+        if (row.basis() == null || row.accruedFrom() == null) {
+            return 0;
+        }
+        if (row.periodEnd() == null) {
+            long days = ChronoUnit.DAYS.between(row.accruedFrom(), runDate);
+            return days > 0 ? interestOf(row.basis(), row.rate(), days, dayCount) : 0;
+        }
+        return earnedOf(row.basis(), row.periodStart(), row.periodEnd(), runDate)
+                - earnedOf(row.basis(), row.periodStart(), row.periodEnd(), row.accruedFrom());
+    }
+
+    static long earnedOf(BigDecimal interest, LocalDate periodStart, LocalDate periodEnd, LocalDate on) {
+        long minor = Money.of(interest, RoundingMode.HALF_EVEN).minor();
+        long period = ChronoUnit.DAYS.between(periodStart, periodEnd);
+        long elapsed = Math.min(Math.max(ChronoUnit.DAYS.between(periodStart, on), 0), period);
+        if (period <= 0 || elapsed == period) {
+            return on.isBefore(periodEnd) ? 0 : minor;
+        }
+        return BigDecimal.valueOf(minor).multiply(BigDecimal.valueOf(elapsed))
+                .divide(BigDecimal.valueOf(period), 0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    static long interestOf(BigDecimal basis, double rate, long days, int dayCount) {
+        long minor = Money.of(basis, RoundingMode.HALF_EVEN).minor();
+        return Money.percent(Math.multiplyExact(minor, days), rate, dayCount, RoundingMode.HALF_EVEN);
+    }
+
+    static UUID[] bounds(int partitions) {
+        UUID[] bounds = new UUID[partitions + 1];
+        bounds[0] = new UUID(0L, 0L);
+        bounds[partitions] = new UUID(-1L, -1L);
+        BigInteger span = BigInteger.ONE.shiftLeft(64);
+        for (int i = 1; i < partitions; i++) {
+            long high = span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(partitions)).longValue();
+            bounds[i] = new UUID(high, -1L);
+        }
+        return bounds;
+    }
+
+    private record Book(String name, String select, String update, boolean posted) {
+    }
+
+    record AccrualRow(UUID id, BigDecimal basis, double rate, LocalDate accruedFrom,
+                      LocalDate periodStart, LocalDate periodEnd) {
+    }
+}
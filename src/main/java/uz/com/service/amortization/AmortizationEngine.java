@@ -0,0 +1,68 @@
+package uz.com.service.amortization;
+
+import uz.com.model.enums.AmortizationType;
+import uz.com.model.money.Money;
+
+import java.math.RoundingMode;
+
+public final class AmortizationEngine {
+
+    private AmortizationEngine() {
+    }
+
+    public static AmortizationSchedule generate(long principalMinor, double annualRatePercent, int months, AmortizationType type) {
+        AmortizationSchedule schedule = new AmortizationSchedule(months);
+        generate(principalMinor, annualRatePercent, months, type, schedule);
+        return schedule;
+    }
+
+    public static void generate(long principalMinor,
+                                double annualRatePercent,
+                                int months,
+                                AmortizationType type,
+                                AmortizationSchedule into) {
+        if (principalMinor < 0 || months <= 0 || annualRatePercent < 0) {
+            throw new IllegalArgumentException("Invalid loan terms");
+        }
+        into.reset(months);
+        double monthlyRate = annualRatePercent / 100 / 12;
+        if (type == AmortizationType.EQUAL_PRINCIPAL) {
+            equalPrincipal(principalMinor, annualRatePercent, months, into);
+        } else {
+            annuity(principalMinor, annualRatePercent, monthlyRate, months, into);
+        }
+    }
+
+    private static void annuity(long principalMinor, double annualRatePercent, double monthlyRate, int months, AmortizationSchedule into) {
+        long payment = monthlyRate == 0
+                ? ceilDiv(principalMinor, months)
+                : Math.round(principalMinor * monthlyRate / (1 - Math.pow(1 + monthlyRate, -months)));
+        long balance = principalMinor;
+        for (int i = 1; i <= months; i++) {
+            long interest = monthlyInterest(balance, annualRatePercent);
+            long principal = i == months ? balance : Math.min(balance, Math.max(0, payment - interest));
+            balance -= principal;
+            into.add(principal, interest, balance);
+        }
+    }
+
+    private static void equalPrincipal(long principalMinor, double annualRatePercent, int months, AmortizationSchedule into) {
+        long base = principalMinor / months;
+        long remainder = principalMinor % months;
+        long balance = principalMinor;
+        for (int i = 0; i < months; i++) {
+            long interest = monthlyInterest(balance, annualRatePercent);
+            long principal = i < remainder ? base + 1 : base;
+            balance -= principal;
+            into.add(principal, interest, balance);
+        }
+    }
+
+    private static long monthlyInterest(long balance, double annualRatePercent) {
+        return Money.percent(balance, annualRatePercent, 12, RoundingMode.HALF_UP);
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+}
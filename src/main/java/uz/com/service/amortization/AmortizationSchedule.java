@@ -0,0 +1,65 @@
+package uz.com.service.amortization;
+
+import java.util.Arrays;
+
+public final class AmortizationSchedule {
+
+    private long[] principal;
+    private long[] interest;
+    private long[] balance;
+    private int size;
+
+    public AmortizationSchedule() {
+        this(12);
+    }
+
+    public AmortizationSchedule(int capacity) {
+        principal = new long[capacity];
+        interest = new long[capacity];
+        balance = new long[capacity];
+    }
+
+    void reset(int months) {
+        if (principal.length < months) {
+            principal = Arrays.copyOf(principal, months);
+            interest = Arrays.copyOf(interest, months);
+            balance = Arrays.copyOf(balance, months);
+        }
+        size = 0;
+    }
+
+    void add(long principalMinor, long interestMinor, long balanceMinor) {
+        principal[size] = principalMinor;
+        interest[size] = interestMinor;
+        balance[size] = balanceMinor;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long principal(int i) {
+        return principal[i];
+    }
+
+    public long interest(int i) {
+        return interest[i];
+    }
+
+    public long payment(int i) {
+        return principal[i] + interest[i];
+    }
+
+    public long balance(int i) {
+        return balance[i];
+    }
+
+    public long totalInterest() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += interest[i];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,259 @@
+package uz.com.service.amortization;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.com.model.entity.LoanInstallmentEntity;
+import uz.com.model.entity.LoansEntity;
+import uz.com.model.enums.AmortizationType;
+import uz.com.model.money.Money;
+import uz.com.repository.LoanInstallmentRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Slf4j
+@Service
+public class LoanScheduleService {
+
+    private static final String INSERT = "insert into loan_installments " +
+            "(id, loan_id, number, due_date, principal, interest, payment, remaining_principal) " +
+            "values (nextval('loan_installments_seq'), ?, ?, ?, ?, ?, ?, ?)";
+
+    private final LoanInstallmentRepository loanInstallmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int chunkSize;
+    private final ThreadLocal<AmortizationSchedule> buffers = ThreadLocal.withInitial(() -> new AmortizationSchedule(360));
+    private final ThreadLocal<AmortizationSchedule> remainders = ThreadLocal.withInitial(() -> new AmortizationSchedule(360));
+
+    public LoanScheduleService(LoanInstallmentRepository loanInstallmentRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${amortization.recompute.parallelism:4}") int parallelism,
+                               @Value("${amortization.recompute.chunk-size:1000}") int chunkSize) {
+        this.loanInstallmentRepository = loanInstallmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "amortization-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public AmortizationSchedule generate(Money amount, double annualRatePercent, int months, AmortizationType type) {
+        return AmortizationEngine.generate(amount.minor(), annualRatePercent, months, typeOf(type));
+    }
+
+    public List<LoanInstallmentEntity> save(UUID loanId, AmortizationSchedule schedule, LocalDate start) {
+        List<LoanInstallmentEntity> installments = new ArrayList<>(schedule.size());
+        for (int i = 0; i < schedule.size(); i++) {
+            installments.add(LoanInstallmentEntity.builder()
+                    .loanId(loanId)
+                    .number(i + 1)
+                    .dueDate(start.plusMonths(i + 1))
+                    .principal(Money.ofMinor(schedule.principal(i)))
+                    .interest(Money.ofMinor(schedule.interest(i)))
+                    .payment(Money.ofMinor(schedule.payment(i)))
+                    .remainingPrincipal(Money.ofMinor(schedule.balance(i)))
+                    .build());
+        }
+        return loanInstallmentRepository.saveAll(installments);
+    }
+
+    public List<LoanInstallmentEntity> getSchedule(UUID loanId) {
+        return loanInstallmentRepository.findAllByLoanIdOrderByNumber(loanId);
+    }
+
+    public int recomputeAll() {
+        int recomputed = 0;
+        UUID after = new UUID(0L, 0L);
+        while (true) {
+            List<LoanTerms> chunk = jdbcTemplate.query(
+                    "select id, amount, interest_rate, months, amortization_type, created_at, due_date, " +
+                            "coalesce(paid_ever, 0) as paid_ever from loans " +
+                            "where is_deleted = false and status in ('ACTIVE', 'FREEZE', 'OVERDUE') and id > ? order by id limit ?",
+                    (rs, rowNum) -> new LoanTerms(
+                            rs.getObject("id", UUID.class),
+                            rs.getBigDecimal("amount"),
+                            rs.getDouble("interest_rate"),
+                            (Integer) rs.getObject("months"),
+                            rs.getString("amortization_type"),
+                            rs.getTimestamp("created_at"),
+                            rs.getDate("due_date"),
+                            rs.getBigDecimal("paid_ever")),
+                    after, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<RecomputedLoan> loans = compute(chunk);
+            recomputed += transactionTemplate.execute(status -> store(loans));
+            after = chunk.get(chunk.size() - 1).id();
+        }
+        log.info("Recomputed amortization schedules of {} loans", recomputed);
+        return recomputed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private int store(List<RecomputedLoan> loans) {
+        if (loans.isEmpty()) {
+            return 0;
+        }
+        int[] updated = jdbcTemplate.batchUpdate(
+                "update loans set pay_per_month = ?, must_be_pay = ? " +
+                        "where id = ? and coalesce(paid_ever, 0) = ? and is_deleted = false",
+                loans.stream().map(loan -> new Object[]{
+                        toMajor(loan.payPerMonth()), toMajor(loan.mustBePay()), loan.id(), toMajor(loan.paidEver())
+                }).toList());
+        List<UUID> loanIds = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] != 0) {
+                loanIds.add(loans.get(i).id());
+                rows.addAll(loans.get(i).rows());
+            }
+        }
+        if (loanIds.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("delete from loan_installments where loan_id = any(?)");
+            statement.setArray(1, connection.createArrayOf("uuid", loanIds.toArray()));
+            return statement;
+        });
+        insertRows(rows);
+        return loanIds.size();
+    }
+
+    private List<RecomputedLoan> compute(List<LoanTerms> chunk) {
+        int slice = Math.max(1, (chunk.size() + parallelism - 1) / parallelism);
+        List<Future<List<RecomputedLoan>>> futures = new ArrayList<>();
+        for (int from = 0; from < chunk.size(); from += slice) {
+            List<LoanTerms> part = chunk.subList(from, Math.min(from + slice, chunk.size()));
+            futures.add(executor.submit(() -> rowsOf(part)));
+        }
+        List<RecomputedLoan> loans = new ArrayList<>();
+        try {
+            for (Future<List<RecomputedLoan>> future : futures) {
+                loans.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Schedule recompute interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Schedule recompute failed", e.getCause());
+        }
+        return loans;
+    }
+
+    private List<RecomputedLoan> rowsOf(List<LoanTerms> loans) {
+        AmortizationSchedule schedule = buffers.get();
+        AmortizationSchedule remainder = remainders.get();
+        List<RecomputedLoan> recomputed = new ArrayList<>();
+        for (LoanTerms loan : loans) {
+            LocalDate start = loan.createdAt().toLocalDateTime().toLocalDate();
+            int months = loan.months() != null ? loan.months()
+                    : loan.dueDate() != null ? (int) ChronoUnit.MONTHS.between(start, loan.dueDate().toLocalDate()) : 0;
+            if (months <= 0 || loan.amount() == null) {
+                continue;
+            }
+            AmortizationType type = loan.type() != null ? AmortizationType.valueOf(loan.type()) : AmortizationType.ANNUITY;
+            long paidEver = toMinor(loan.paidEver());
+            AmortizationEngine.generate(toMinor(loan.amount()), loan.interestRate(), months, type, schedule);
+
+            int paidInstallments = 0;
+            long credit = paidEver;
+            while (paidInstallments < schedule.size() && credit >= schedule.payment(paidInstallments)) {
+                credit -= schedule.payment(paidInstallments++);
+            }
+            long outstanding = paidInstallments > 0 ? schedule.balance(paidInstallments - 1) : toMinor(loan.amount());
+            long interestPaid = 0;
+            if (paidInstallments < schedule.size()) {
+                interestPaid = Math.min(credit, schedule.interest(paidInstallments));
+                outstanding -= credit - interestPaid;
+            }
+
+            List<Object[]> rows = new ArrayList<>();
+            addRows(rows, loan.id(), schedule, start, 0, paidInstallments);
+            long payPerMonth = 0;
+            long mustBePay = 0;
+            if (outstanding > 0 && paidInstallments < schedule.size()) {
+                AmortizationEngine.generate(outstanding, loan.interestRate(), schedule.size() - paidInstallments, type, remainder);
+                addRows(rows, loan.id(), remainder, start.plusMonths(paidInstallments), paidInstallments, remainder.size());
+                payPerMonth = remainder.payment(0);
+                mustBePay = Math.max(0, outstanding + remainder.totalInterest() - interestPaid);
+            }
+            recomputed.add(new RecomputedLoan(loan.id(), paidEver, payPerMonth, mustBePay, rows));
+        }
+        return recomputed;
+    }
+
+    private static void addRows(List<Object[]> rows, UUID loanId, AmortizationSchedule schedule, LocalDate start,
+                                int firstNumber, int count) {
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{
+                    loanId, firstNumber + i + 1, Date.valueOf(start.plusMonths(i + 1)),
+                    toMajor(schedule.principal(i)), toMajor(schedule.interest(i)),
+                    toMajor(schedule.payment(i)), toMajor(schedule.balance(i))
+            });
+        }
+    }
+
+    public static void addRows(List<Object[]> rows, UUID loanId, AmortizationSchedule schedule, LocalDate start) {
+        addRows(rows, loanId, schedule, start, 0, schedule.size());
+    }
+
+    public void insertRows(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    private static AmortizationType typeOf(AmortizationType type) {
+        return type != null ? type : AmortizationType.ANNUITY;
+    }
+
+    private static long toMinor(BigDecimal amount) {
+        return Money.of(amount, RoundingMode.HALF_UP).minor();
+    }
+
+    private static BigDecimal toMajor(long minor) {
+        return Money.ofMinor(minor).toBigDecimal();
+    }
+
+    private record LoanTerms(UUID id,
+                             BigDecimal amount,
+                             double interestRate,
+                             Integer months,
+                             String type,
+                             Timestamp createdAt,
+                             Date dueDate,
+                             BigDecimal paidEver) {
+    }
+
+    private record RecomputedLoan(UUID id, long paidEver, long payPerMonth, long mustBePay, List<Object[]> rows) {
+    }
+}
@@ -0,0 +1,289 @@
+package uz.com.service.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import uz.com.model.entity.AuditLogsEntity;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.AuditOverflowPolicy;
+import uz.com.repository.AuditLogsRepository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "audit.sink", havingValue = "async", matchIfMissing = true)
+public class AsyncAuditLogSink implements AuditLogSink {
+
+    private final AuditLogsRepository auditLogsRepository;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AuditLogsEntity> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long drainTimeoutMillis;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final Path spillFile;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncAuditLogSink(AuditLogsRepository auditLogsRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${audit.queue-capacity:10000}") int queueCapacity,
+                             @Value("${audit.batch-size:200}") int batchSize,
+                             @Value("${audit.flush-interval:1000}") long flushIntervalMillis,
+                             @Value("${audit.drain-timeout:10000}") long drainTimeoutMillis,
+                             @Value("${audit.overflow-policy:BLOCK}") AuditOverflowPolicy overflowPolicy,
+                             @Value("${audit.spill-file:audit-spill.log}") String spillFile) {
+        this.auditLogsRepository = auditLogsRepository;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile = Path.of(spillFile);
+        this.writer = new Thread(this::runWriter, "audit-log-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    @Override
+    public void submit(AuditLogsEntity auditLog) {
+        if (!running) {
+            flush(List.of(auditLog));
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(auditLog);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    spill(List.of(auditLog));
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(auditLog)) {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+            }
+            case SPILL -> {
+                if (!queue.offer(auditLog)) {
+                    spill(List.of(auditLog));
+                }
+            }
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(drainTimeoutMillis);
+        List<AuditLogsEntity> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            spill(rest);
+        }
+    }
+
+    public int replaySpill() {
+        if (!Files.exists(spillFile)) {
+            return 0;
+        }
+        Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replaying");
+        int replayed = 0;
+        try {
+            synchronized (this) {
+                if (!Files.exists(replaying)) {
+                    Files.move(spillFile, replaying, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            List<AuditLogsEntity> batch = new ArrayList<>(batchSize);
+            try (BufferedReader in = Files.newBufferedReader(replaying, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    AuditLogsEntity auditLog = fromSpillRecord(line);
+                    if (auditLog == null) {
+                        dropped.incrementAndGet();
+                        continue;
+                    }
+                    batch.add(auditLog);
+                    if (batch.size() == batchSize) {
+                        replayed += replay(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            replayed += replay(batch);
+            Files.delete(replaying);
+        } catch (IOException e) {
+            log.error("Could not replay spilled audit logs from {}", replaying, e);
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} spilled audit logs from {}", replayed, spillFile);
+        }
+        return replayed;
+    }
+
+    private void runWriter() {
+        replaySpill();
+        List<AuditLogsEntity> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLogsEntity first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(List<AuditLogsEntity> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            AuditLogsEntity next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<AuditLogsEntity> batch) {
+        try {
+            auditLogsRepository.saveAll(batch);
+        } catch (Exception e) {
+            log.error("Could not write {} audit logs, spilling them to {}", batch.size(), spillFile, e);
+            spill(batch);
+        }
+    }
+
+    private int replay(List<AuditLogsEntity> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            auditLogsRepository.saveAll(batch);
+            return batch.size();
+        } catch (Exception e) {
+            log.error("Could not replay {} spilled audit logs, keeping them in {}", batch.size(), spillFile, e);
+            spill(batch);
+            return 0;
+        }
+    }
+
+    private synchronized void spill(List<AuditLogsEntity> auditLogs) {
+        try (BufferedWriter out = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (AuditLogsEntity auditLog : auditLogs) {
+                out.write(objectMapper.writeValueAsString(toSpillRecord(auditLog)));
+                out.newLine();
+            }
+            spilled.addAndGet(auditLogs.size());
+        } catch (IOException e) {
+            dropped.addAndGet(auditLogs.size());
+            log.error("Could not spill {} audit logs to {}", auditLogs.size(), spillFile, e);
+        }
+    }
+
+    private static Map<String, Object> toSpillRecord(AuditLogsEntity auditLog) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("spilledAt", LocalDateTime.now().toString());
+        record.put("httpMethod", auditLog.getHttpMethod());
+        record.put("url", auditLog.getUrl());
+        record.put("userId", userIdOf(auditLog.getUser()));
+        record.put("fromIpAddress", auditLog.getFromIpAddress());
+        record.put("request", auditLog.getRequest());
+        record.put("response", auditLog.getResponse());
+        return record;
+    }
+
+    private AuditLogsEntity fromSpillRecord(String line) {
+        try {
+            JsonNode record = objectMapper.readTree(line);
+            UserEntity user = null;
+            if (record.hasNonNull("userId")) {
+                user = new UserEntity();
+                user.setId(UUID.fromString(record.get("userId").asText()));
+            }
+            return AuditLogsEntity.builder()
+                    .httpMethod(record.path("httpMethod").textValue())
+                    .url(record.path("url").textValue())
+                    .user(user)
+                    .fromIpAddress(record.path("fromIpAddress").textValue())
+                    .request(record.path("request").textValue())
+                    .response(record.path("response").textValue())
+                    .build();
+        } catch (IOException | RuntimeException e) {
+            log.error("Skipping malformed spilled audit log: {}", line, e);
+            return null;
+        }
+    }
+
+    private static UUID userIdOf(UserEntity user) {
+        if (user instanceof HibernateProxy proxy) {
+            return (UUID) proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+        return user != null ? user.getId() : null;
+    }
+}
@@ -0,0 +1,8 @@
+package uz.com.service.audit;
+
+import uz.com.model.entity.AuditLogsEntity;
+
+public interface AuditLogSink {
+
+    void submit(AuditLogsEntity auditLog);
+}
@@ -0,0 +1,20 @@
+package uz.com.service.audit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import uz.com.model.entity.AuditLogsEntity;
+import uz.com.repository.AuditLogsRepository;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "audit.sink", havingValue = "direct")
+public class DirectAuditLogSink implements AuditLogSink {
+
+    private final AuditLogsRepository auditLogsRepository;
+
+    @Override
+    public void submit(AuditLogsEntity auditLog) {
+        auditLogsRepository.save(auditLog);
+    }
+}
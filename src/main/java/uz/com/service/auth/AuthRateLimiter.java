@@ -0,0 +1,124 @@
+package uz.com.service.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class AuthRateLimiter {
+
+    private static final String OVERFLOW = "*";
+
+    private final Limit ip;
+    private final Limit email;
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+
+    public AuthRateLimiter(MeterRegistry meterRegistry,
+                           @Value("${rate-limit.ip.capacity:20}") int ipCapacity,
+                           @Value("${rate-limit.ip.period:60000}") long ipPeriodMillis,
+                           @Value("${rate-limit.email.capacity:5}") int emailCapacity,
+                           @Value("${rate-limit.email.period:300000}") long emailPeriodMillis,
+                           @Value("${rate-limit.max-keys:100000}") int maxKeys) {
+        this.ip = new Limit(ipCapacity, ipPeriodMillis, maxKeys);
+        this.email = new Limit(emailCapacity, emailPeriodMillis, maxKeys);
+        this.ipRejected = meterRegistry.counter("auth.rate.limit.rejected", "key", "ip");
+        this.emailRejected = meterRegistry.counter("auth.rate.limit.rejected", "key", "email");
+        Gauge.builder("auth.rate.limit.buckets", this, AuthRateLimiter::getBucketCount).register(meterRegistry);
+    }
+
+    public long acquire(String endpoint, String clientIp, String clientEmail) {
+        return acquire(endpoint, clientIp, clientEmail, System.nanoTime());
+    }
+
+    public int getBucketCount() {
+        return ip.buckets.size() + email.buckets.size();
+    }
+
+    @Scheduled(initialDelayString = "${rate-limit.sweep-interval:60000}", fixedDelayString = "${rate-limit.sweep-interval:60000}")
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    long acquire(String endpoint, String clientIp, String clientEmail, long now) {
+        if (clientIp != null) {
+            long wait = ip.acquire(endpoint, clientIp, now);
+            if (wait > 0) {
+                ipRejected.increment();
+                return wait;
+            }
+        }
+        if (clientEmail != null) {
+            long wait = email.acquire(endpoint, clientEmail, now);
+            if (wait > 0) {
+                emailRejected.increment();
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    void evictIdle(long now) {
+        ip.evictIdle(now);
+        email.evictIdle(now);
+    }
+
+    private static final class Limit {
+
+        private final long interval;
+        private final long burst;
+        private final int maxKeys;
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong lastEviction = new AtomicLong(Long.MIN_VALUE);
+
+        private Limit(int capacity, long periodMillis, int maxKeys) {
+            this.interval = TimeUnit.MILLISECONDS.toNanos(periodMillis) / capacity;
+            this.burst = interval * capacity;
+            this.maxKeys = maxKeys;
+        }
+
+        private long acquire(String endpoint, String client, long now) {
+            AtomicLong arrival = bucket(endpoint, endpoint + '|' + client, now);
+            while (true) {
+                long current = arrival.get();
+                long next = Math.max(current, now) + interval;
+                long wait = next - burst - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (arrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        private AtomicLong bucket(String endpoint, String key, long now) {
+            AtomicLong arrival = buckets.get(key);
+            if (arrival != null) {
+                return arrival;
+            }
+            if (buckets.size() >= maxKeys) {
+                long last = lastEviction.get();
+                if ((last == Long.MIN_VALUE || now - last >= interval) && lastEviction.compareAndSet(last, now)) {
+                    evictIdle(now);
+                }
+                if (buckets.size() >= maxKeys) {
+                    key = endpoint + '|' + OVERFLOW;
+                }
+            }
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        private void evictIdle(long now) {
+            buckets.values().removeIf(arrival -> arrival.get() <= now);
+        }
+    }
+}
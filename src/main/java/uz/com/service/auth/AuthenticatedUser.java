@@ -0,0 +1,56 @@
+package uz.com.service.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import uz.com.model.enums.UserRole;
+
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements Principal, Serializable {
+
+    private final UUID id;
+    private final String email;
+    private final Set<UserRole> roles;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public static AuthenticatedUser from(Principal principal) {
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser;
+        }
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser;
+        }
+        return null;
+    }
+
+    public static Set<UserRole> rolesOf(List<String> authorities) {
+        Set<UserRole> roles = EnumSet.noneOf(UserRole.class);
+        if (authorities == null) {
+            return roles;
+        }
+        for (String authority : authorities) {
+            String role = authority.startsWith("ROLE_") ? authority.substring(5) : authority;
+            try {
+                roles.add(UserRole.valueOf(role));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring unknown role {} in access token", authority);
+            }
+        }
+        return roles;
+    }
+}
@@ -1,6 +1,5 @@
 package uz.com.service.auth;
 
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -12,20 +11,21 @@ import java.util.List;
 
 @Service
 public class AuthenticationService {
-    public void authenticate(Claims claims, HttpServletRequest request) {
-        List<String> authorities = (List<String>) claims.get("authorities");
-        String username = claims.getSubject();
+    public void authenticate(VerifiedToken token, HttpServletRequest request) {
         UsernamePasswordAuthenticationToken authenticationToken =
                 new UsernamePasswordAuthenticationToken(
-                        username,
+                        token.getPrincipal(),
                         null,
-                        getAuthorities(authorities)
+                        token.getAuthorities()
                 );
         authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(authenticationToken);
     }
 
     public static List<SimpleGrantedAuthority> getAuthorities(List<String> roles) {
+        if (roles == null) {
+            return List.of();
+        }
         return roles.stream()
                 .map(SimpleGrantedAuthority::new)
                 .toList();
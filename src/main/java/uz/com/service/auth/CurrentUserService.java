@@ -0,0 +1,54 @@
+package uz.com.service.auth;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import uz.com.exception.DataNotFoundException;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.UserRole;
+import uz.com.repository.UserRepository;
+
+import java.security.Principal;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class CurrentUserService {
+
+    private static final Set<String> STAFF_AUTHORITIES = Set.of("ROLE_ADMIN", "ROLE_MANAGER");
+
+    private final UserRepository userRepository;
+
+    public UUID getUserId(Principal principal) {
+        AuthenticatedUser authenticatedUser = AuthenticatedUser.from(principal);
+        if (authenticatedUser != null && authenticatedUser.getId() != null) {
+            return authenticatedUser.getId();
+        }
+        return getUser(principal).getId();
+    }
+
+    public boolean isStaff(Principal principal) {
+        if (principal instanceof Authentication authentication) {
+            return authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .anyMatch(authority -> STAFF_AUTHORITIES.contains(authority));
+        }
+        AuthenticatedUser authenticatedUser = AuthenticatedUser.from(principal);
+        Set<UserRole> roles = authenticatedUser != null ? authenticatedUser.getRoles() : getUser(principal).getRole();
+        return roles.contains(UserRole.ADMIN) || roles.contains(UserRole.MANAGER);
+    }
+
+    public UserEntity getReference(Principal principal) {
+        return userRepository.getReferenceById(getUserId(principal));
+    }
+
+    public UserEntity getUser(Principal principal) {
+        UserEntity user = userRepository.findUserEntityByEmailAndDeletedFalse(principal.getName());
+        if (user == null) {
+            throw new DataNotFoundException("User not found!");
+        }
+        return user;
+    }
+}
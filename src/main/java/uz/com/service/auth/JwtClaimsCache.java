@@ -0,0 +1,156 @@
+package uz.com.service.auth;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class JwtClaimsCache {
+
+    private final JwtService jwtService;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public JwtClaimsCache(JwtService jwtService,
+                          MeterRegistry meterRegistry,
+                          @Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.jwtService = jwtService;
+        this.maxSize = maxSize;
+        this.hits = meterRegistry.counter("jwt.claims.cache", "result", "hit");
+        this.misses = meterRegistry.counter("jwt.claims.cache", "result", "miss");
+        this.evictions = meterRegistry.counter("jwt.claims.cache.evictions");
+        Gauge.builder("jwt.claims.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public VerifiedToken get(String token) {
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+        Entry cached = entries.get(key);
+        if (cached != null) {
+            if (!cached.token.isExpired(now)) {
+                cached.lastAccess = clock.incrementAndGet();
+                hits.increment();
+                return cached.token;
+            }
+            if (entries.remove(key, cached)) {
+                evictions.increment();
+            }
+        }
+        misses.increment();
+
+        Claims claims = jwtService.extractToken(token).getBody();
+        List<String> authorities = authoritiesOf(claims);
+        String userId = claims.get("id", String.class);
+        AuthenticatedUser principal = new AuthenticatedUser(
+                userId != null ? UUID.fromString(userId) : null,
+                claims.getSubject(),
+                AuthenticatedUser.rolesOf(authorities)
+        );
+        VerifiedToken verified = new VerifiedToken(
+                claims,
+                principal,
+                AuthenticationService.getAuthorities(authorities),
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : now
+        );
+        if (!verified.isExpired(now)) {
+            if (entries.size() >= maxSize) {
+                evict(now);
+            }
+            entries.put(key, new Entry(verified, clock.incrementAndGet()));
+        }
+        return verified;
+    }
+
+    public void invalidate(String token) {
+        if (entries.remove(digest(token)) != null) {
+            evictions.increment();
+        }
+    }
+
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.entrySet().removeIf(entry -> {
+                boolean expired = entry.getValue().token.isExpired(now);
+                if (expired) evictions.increment();
+                return expired;
+            });
+            int target = maxSize - Math.max(1, maxSize / 10);
+            int excess = entries.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<String, Entry>> byAccess = new ArrayList<>(entries.entrySet());
+            byAccess.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+            for (Map.Entry<String, Entry> entry : byAccess.subList(0, Math.min(excess, byAccess.size()))) {
+                if (entries.remove(entry.getKey(), entry.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    static List<String> authoritiesOf(Claims claims) {
+        Object value = claims.get("authorities");
+        if (value == null) {
+            return List.of();
+        }
+        if (!(value instanceof List<?> list)) {
+            throw new MalformedJwtException("Token authorities claim is not a list!");
+        }
+        List<String> authorities = new ArrayList<>(list.size());
+        for (Object authority : list) {
+            if (!(authority instanceof String name)) {
+                throw new MalformedJwtException("Token authorities claim must contain only strings!");
+            }
+            authorities.add(name);
+        }
+        return authorities;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final VerifiedToken token;
+        private volatile long lastAccess;
+
+        private Entry(VerifiedToken token, long lastAccess) {
+            this.token = token;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -34,7 +34,10 @@ public class JwtService {
                 .setSubject(userEntity.getUsername())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(new Date().getTime() + accessTokenExpiry))
-                .addClaims(Map.of("authorities", getAuthorities(userEntity.getAuthorities())))
+                .addClaims(Map.of(
+                        "authorities", getAuthorities(userEntity.getAuthorities()),
+                        "id", userEntity.getId().toString()
+                ))
                 .compact();
     }
 
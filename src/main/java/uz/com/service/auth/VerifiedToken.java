@@ -0,0 +1,22 @@
+package uz.com.service.auth;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+    private final Claims claims;
+    private final AuthenticatedUser principal;
+    private final List<SimpleGrantedAuthority> authorities;
+    private final long expiresAt;
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
@@ -0,0 +1,82 @@
+package uz.com.service.bulk;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uz.com.model.dto.response.BulkDeleteResponse;
+import uz.com.model.enums.DeleteStatus;
+import uz.com.model.enums.SoftDeleteGuard;
+import uz.com.repository.BulkSoftDeleteRepository;
+import uz.com.service.paging.CountService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+public class BulkDeleteService {
+
+    private final BulkSoftDeleteRepository bulkSoftDeleteRepository;
+    private final CountService countService;
+    private final int chunkSize;
+
+    public BulkDeleteService(BulkSoftDeleteRepository bulkSoftDeleteRepository,
+                             CountService countService,
+                             @Value("${bulk-delete.chunk-size:1000}") int chunkSize) {
+        this.bulkSoftDeleteRepository = bulkSoftDeleteRepository;
+        this.countService = countService;
+        this.chunkSize = chunkSize;
+    }
+
+    @Transactional
+    public BulkDeleteResponse softDelete(String table, List<String> ids, UUID deletedBy) {
+        return softDelete(table, ids, deletedBy, SoftDeleteGuard.NONE);
+    }
+
+    @Transactional
+    public BulkDeleteResponse softDelete(String table, List<String> ids, UUID deletedBy, SoftDeleteGuard guard) {
+        Map<String, DeleteStatus> results = new LinkedHashMap<>();
+        Map<UUID, String> requested = new LinkedHashMap<>();
+        for (String id : ids) {
+            try {
+                requested.putIfAbsent(UUID.fromString(id), id);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                results.put(id, DeleteStatus.INVALID_ID);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> all = new ArrayList<>(requested.keySet());
+        for (int from = 0; from < all.size(); from += chunkSize) {
+            List<UUID> chunk = all.subList(from, Math.min(from + chunkSize, all.size()));
+            Set<UUID> deleted = bulkSoftDeleteRepository.softDelete(table, chunk, deletedBy, now, guard);
+            Set<UUID> missed = new LinkedHashSet<>(chunk);
+            missed.removeAll(deleted);
+            Set<UUID> blocked = guard != SoftDeleteGuard.NONE && !missed.isEmpty()
+                    ? bulkSoftDeleteRepository.findExisting(table, new ArrayList<>(missed))
+                    : Set.of();
+            for (UUID id : chunk) {
+                DeleteStatus status = deleted.contains(id) ? DeleteStatus.DELETED
+                        : blocked.contains(id) ? DeleteStatus.NOT_ACCEPTABLE
+                        : DeleteStatus.NOT_FOUND;
+                results.put(requested.get(id), status);
+            }
+        }
+
+        int deletedCount = (int) results.values().stream().filter(DeleteStatus.DELETED::equals).count();
+        if (deletedCount > 0) {
+            countService.invalidate(table);
+        }
+        return BulkDeleteResponse.builder()
+                .requested(ids.size())
+                .deleted(deletedCount)
+                .failed(results.size() - deletedCount)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,282 @@
+package uz.com.service.bulk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.com.model.dto.request.LoanCreateRequest;
+import uz.com.model.dto.response.BulkLoanRowResponse;
+import uz.com.model.enums.AmortizationType;
+import uz.com.model.enums.LoanStatus;
+import uz.com.model.enums.UserRole;
+import uz.com.model.enums.UserStep;
+import uz.com.model.money.Money;
+import uz.com.repository.UserRepository;
+import uz.com.service.amortization.AmortizationEngine;
+import uz.com.service.amortization.AmortizationSchedule;
+import uz.com.service.amortization.LoanScheduleService;
+import uz.com.service.debt.DebtContribution;
+import uz.com.service.debt.DebtSummaryService;
+import uz.com.service.paging.CountService;
+import uz.com.service.step.UserStepTracker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Slf4j
+@Service
+public class BulkLoanService {
+
+    private static final String INSERT = "insert into loans " +
+            "(id, created_at, created_by, updated_at, is_deleted, amount, interest_rate, status, due_date, months, " +
+            "amortization_type, pay_per_month, paid_ever, must_be_pay, user_id) " +
+            "values (?, ?, ?, ?, false, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    private final LoanScheduleService loanScheduleService;
+    private final DebtSummaryService debtSummaryService;
+    private final CountService countService;
+    private final UserStepTracker userStepTracker;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public BulkLoanService(ObjectMapper objectMapper,
+                           UserRepository userRepository,
+                           LoanScheduleService loanScheduleService,
+                           DebtSummaryService debtSummaryService,
+                           CountService countService,
+                           UserStepTracker userStepTracker,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${bulk-loan.parallelism:4}") int parallelism,
+                           @Value("${bulk-loan.chunk-size:1000}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.userRepository = userRepository;
+        this.loanScheduleService = loanScheduleService;
+        this.debtSummaryService = debtSummaryService;
+        this.countService = countService;
+        this.userStepTracker = userStepTracker;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-loan-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void originate(InputStream in, OutputStream out, UUID createdBy) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(in);
+             SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            int row = 0;
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    token = parser.nextToken();
+                }
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    JsonNode node = parser.readValueAsTree();
+                    chunk.add(new Row(++row, node));
+                    if (chunk.size() == chunkSize) {
+                        write(writer, process(chunk, createdBy));
+                        chunk.clear();
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                write(writer, process(chunk, createdBy));
+                chunk.clear();
+                writer.write(BulkLoanRowResponse.rejected(row + 1, "Malformed JSON! " + e.getOriginalMessage()));
+            }
+            write(writer, process(chunk, createdBy));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void write(SequenceWriter writer, List<BulkLoanRowResponse> results) throws IOException {
+        for (BulkLoanRowResponse result : results) {
+            writer.write(result);
+        }
+        writer.flush();
+    }
+
+    private List<BulkLoanRowResponse> process(List<Row> chunk, UUID createdBy) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        BulkLoanRowResponse[] results = new BulkLoanRowResponse[chunk.size()];
+        Terms[] terms = new Terms[chunk.size()];
+        Set<UUID> userIds = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Row row = chunk.get(i);
+            try {
+                LoanCreateRequest request = objectMapper.treeToValue(row.node(), LoanCreateRequest.class);
+                terms[i] = validate(request);
+                userIds.add(terms[i].userId());
+            } catch (InvalidRow e) {
+                results[i] = BulkLoanRowResponse.rejected(row.number(), e.getMessage());
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                results[i] = BulkLoanRowResponse.rejected(row.number(), "Invalid loan request!");
+            }
+        }
+
+        Set<UUID> clients = userIds.isEmpty() ? Set.of() : new HashSet<>(userRepository.findIdsByRole(userIds, UserRole.CLIENT));
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (terms[i] == null) {
+                continue;
+            }
+            if (!clients.contains(terms[i].userId())) {
+                results[i] = BulkLoanRowResponse.rejected(chunk.get(i).number(), "Invalid user! User not found or is not client!");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        AmortizationSchedule[] schedules = schedule(terms, accepted);
+        try {
+            persist(terms, schedules, accepted, createdBy);
+            for (int i : accepted) {
+                results[i] = BulkLoanRowResponse.created(chunk.get(i).number(), terms[i].loanId());
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not save a chunk of {} bulk loans", accepted.size(), e);
+            for (int i : accepted) {
+                results[i] = BulkLoanRowResponse.rejected(chunk.get(i).number(), "Could not save loan! Try again later!");
+            }
+        }
+        return List.of(results);
+    }
+
+    private Terms validate(LoanCreateRequest request) {
+        UUID userId;
+        try {
+            userId = UUID.fromString(request.getUserId());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidRow("User not found!");
+        }
+        Money amount = Money.parse(request.getAmount())
+                .filter(Money::isPositive)
+                .orElseThrow(() -> new InvalidRow("Invalid amount!"));
+        if (request.getInterestRate() == null || request.getInterestRate() < 0 || request.getInterestRate() > 100) {
+            throw new InvalidRow("Invalid interest rate!");
+        }
+        if (request.getMonths() == null || request.getMonths() <= 0) {
+            throw new InvalidRow("Invalid due date time!");
+        }
+        AmortizationType type = request.getAmortizationType() != null ? request.getAmortizationType() : AmortizationType.ANNUITY;
+        return new Terms(UUID.randomUUID(), userId, amount, request.getInterestRate(), request.getMonths(), type);
+    }
+
+    private AmortizationSchedule[] schedule(Terms[] terms, List<Integer> accepted) {
+        AmortizationSchedule[] schedules = new AmortizationSchedule[terms.length];
+        int slice = Math.max(1, (accepted.size() + parallelism - 1) / parallelism);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < accepted.size(); from += slice) {
+            List<Integer> part = accepted.subList(from, Math.min(from + slice, accepted.size()));
+            futures.add(executor.submit(() -> {
+                for (int i : part) {
+                    Terms loan = terms[i];
+                    schedules[i] = AmortizationEngine.generate(loan.amount().minor(), loan.interestRate(), loan.months(), loan.type());
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bulk loan scheduling interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Bulk loan scheduling failed", e.getCause());
+        }
+        return schedules;
+    }
+
+    private void persist(Terms[] terms, AmortizationSchedule[] schedules, List<Integer> accepted, UUID createdBy) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+        LocalDate start = LocalDate.now();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> loanRows = new ArrayList<>(accepted.size());
+        List<Object[]> installmentRows = new ArrayList<>();
+        Map<UUID, DebtContribution> deltas = new HashMap<>();
+        for (int i : accepted) {
+            Terms loan = terms[i];
+            AmortizationSchedule schedule = schedules[i];
+            Money mustBePay = loan.amount().plus(Money.ofMinor(schedule.totalInterest()));
+            loanRows.add(new Object[]{
+                    loan.loanId(), now, createdBy, now, loan.amount().toBigDecimal(), loan.interestRate(),
+                    LoanStatus.ACTIVE.name(), Date.valueOf(start.plusMonths(loan.months())), loan.months(),
+                    loan.type().name(), Money.ofMinor(schedule.payment(0)).toBigDecimal(), BigDecimal.ZERO.setScale(2),
+                    mustBePay.toBigDecimal(), loan.userId()
+            });
+            LoanScheduleService.addRows(installmentRows, loan.loanId(), schedule, start);
+            DebtContribution contribution = new DebtContribution(loan.amount().toBigDecimal(), mustBePay.toBigDecimal(),
+                    BigDecimal.ZERO, 1, 0, 0, 0);
+            deltas.merge(loan.userId(), contribution, DebtContribution::plus);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (UUID userId : deltas.keySet()) {
+                debtSummaryService.prepare(userId, null);
+            }
+            jdbcTemplate.batchUpdate(INSERT, loanRows);
+            loanScheduleService.insertRows(installmentRows);
+            deltas.forEach(debtSummaryService::add);
+            userStepTracker.record(deltas.keySet(), UserStep.LOAN_CREATE);
+        });
+        countService.invalidate("loans");
+    }
+
+    private record Row(int number, JsonNode node) {
+    }
+
+    private record Terms(UUID loanId, UUID userId, Money amount, double interestRate, int months, AmortizationType type) {
+    }
+
+    private static class InvalidRow extends RuntimeException {
+
+        private InvalidRow(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package uz.com.service.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.com.exception.DataNotAcceptableException;
+import uz.com.exception.DataNotFoundException;
+import uz.com.model.dto.response.GeneralResponse;
+import uz.com.model.dto.response.TransactionImportLineResponse;
+import uz.com.model.dto.response.TransactionImportResponse;
+import uz.com.model.entity.AccountsEntity;
+import uz.com.model.entity.TransactionImportEntity;
+import uz.com.model.enums.EntryDirection;
+import uz.com.model.enums.ImportFormat;
+import uz.com.model.enums.ImportStatus;
+import uz.com.model.enums.TransactionType;
+import uz.com.model.enums.UserStep;
+import uz.com.model.money.Money;
+import uz.com.repository.AccountRepository;
+import uz.com.repository.TransactionImportRepository;
+import uz.com.service.TransactionService;
+import uz.com.service.step.UserStepTracker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class TransactionImportService {
+
+    private static final String INSERT_TRANSACTION = "insert into transactions " +
+            "(id, created_at, created_by, updated_at, is_deleted, amount, type, direction, account_id) " +
+            "values (?, ?, ?, ?, false, ?, ?, ?, ?)";
+    private static final String INSERT_LEDGER_ENTRY = "insert into ledger_entries " +
+            "(id, account_id, transaction_id, direction, amount, created_at, created_by) " +
+            "values (nextval('ledger_entries_seq'), ?, ?, ?, ?, localtimestamp, ?)";
+    private static final String APPLY_BALANCE = "update accounts set balance = balance + ?, updated_at = ? where id = ?";
+    private static final String CSV_HEADER = "accountid";
+
+    private final TransactionImportRepository transactionImportRepository;
+    private final AccountRepository accountRepository;
+    private final UserStepTracker userStepTracker;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader rowReader;
+    private final int chunkSize;
+    private final int maxLineLength;
+
+    public TransactionImportService(TransactionImportRepository transactionImportRepository,
+                                    AccountRepository accountRepository,
+                                    UserStepTracker userStepTracker,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${transaction-import.chunk-size:1000}") int chunkSize,
+                                    @Value("${transaction-import.max-line-length:4096}") int maxLineLength) {
+        this.transactionImportRepository = transactionImportRepository;
+        this.accountRepository = accountRepository;
+        this.userStepTracker = userStepTracker;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.rowReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.chunkSize = chunkSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    public TransactionImportEntity begin(UUID importId, ImportFormat format, UUID createdBy) {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionImportEntity job = importId != null ? transactionImportRepository.findById(importId).orElse(null) : null;
+        if (job == null) {
+            job = TransactionImportEntity.builder()
+                    .id(importId != null ? importId : UUID.randomUUID())
+                    .format(format)
+                    .createdBy(createdBy)
+                    .createdAt(now)
+                    .build();
+        } else if (job.getStatus() == ImportStatus.COMPLETED) {
+            throw new DataNotAcceptableException("Import has already been completed!");
+        } else if (job.getFormat() != format) {
+            throw new DataNotAcceptableException("Import was started with " + job.getFormat() + " format!");
+        }
+        job.setStatus(ImportStatus.RUNNING);
+        job.setUpdatedAt(now);
+        userStepTracker.record(createdBy, UserStep.TRANSACTION_CREATE);
+        return transactionImportRepository.save(job);
+    }
+
+    public GeneralResponse<TransactionImportResponse> getById(UUID importId) {
+        TransactionImportEntity job = transactionImportRepository.findById(importId)
+                .orElseThrow(() -> new DataNotFoundException("Import not found!"));
+        return GeneralResponse.ok("This is import", TransactionImportResponse.of(job));
+    }
+
+    public void run(TransactionImportEntity job, InputStream in, OutputStream out) throws IOException {
+        long committed = job.getLinesProcessed();
+        ImportStatus status = ImportStatus.FAILED;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+             SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            try {
+                List<Line> chunk = new ArrayList<>(chunkSize);
+                StringBuilder buffer = new StringBuilder();
+                long number = 0;
+                String text;
+                while ((text = readLine(reader, buffer)) != null) {
+                    if (++number <= committed) {
+                        continue;
+                    }
+                    if (text.length() > maxLineLength) {
+                        chunk.add(new Line(number, null, "Line is too long!"));
+                    } else if (!text.isBlank() && !(number == 1 && isHeader(job.getFormat(), text))) {
+                        chunk.add(parse(job.getFormat(), number, text));
+                    }
+                    if (chunk.size() == chunkSize) {
+                        write(writer, apply(job, chunk, committed, number));
+                        committed = number;
+                        chunk.clear();
+                    }
+                }
+                if (number > committed) {
+                    write(writer, apply(job, chunk, committed, number));
+                }
+                status = ImportStatus.COMPLETED;
+            } catch (RuntimeException e) {
+                log.error("Transaction import {} stopped after line {}", job.getId(), committed, e);
+            } finally {
+                transactionImportRepository.updateStatus(job.getId(), status);
+            }
+            TransactionImportEntity finished = transactionImportRepository.findById(job.getId()).orElse(job);
+            writer.write(TransactionImportResponse.of(finished));
+        }
+    }
+
+    private String readLine(BufferedReader reader, StringBuilder buffer) throws IOException {
+        buffer.setLength(0);
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n') {
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            }
+            if (buffer.length() <= maxLineLength) {
+                buffer.append((char) c);
+            }
+            c = reader.read();
+        }
+        return buffer.toString();
+    }
+
+    private List<TransactionImportLineResponse> apply(TransactionImportEntity job, List<Line> chunk, long from, long to) {
+        return transactionTemplate.execute(status -> {
+            Set<UUID> accountIds = new TreeSet<>();
+            for (Line line : chunk) {
+                if (line.row() != null) {
+                    accountIds.add(line.row().accountId());
+                }
+            }
+            Map<UUID, AccountsEntity> accounts = new HashMap<>();
+            if (!accountIds.isEmpty()) {
+                for (AccountsEntity account : accountRepository.findAllByIdInOrderByIdForUpdate(accountIds)) {
+                    accounts.put(account.getId(), account);
+                }
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Map<UUID, Money> balances = new HashMap<>();
+            Map<UUID, Money> deltas = new LinkedHashMap<>();
+            List<Object[]> transactionRows = new ArrayList<>();
+            List<Object[]> ledgerRows = new ArrayList<>();
+            List<TransactionImportLineResponse> rejected = new ArrayList<>();
+            for (Line line : chunk) {
+                Row row = line.row();
+                String error = row == null ? line.error() : check(row, accounts, balances);
+                if (error != null) {
+                    rejected.add(new TransactionImportLineResponse(line.number(), error));
+                    continue;
+                }
+                Money signed = row.direction() == EntryDirection.DEBIT ? row.amount().negate() : row.amount();
+                balances.merge(row.accountId(), signed, Money::plus);
+                deltas.merge(row.accountId(), signed, Money::plus);
+                UUID transactionId = UUID.randomUUID();
+                BigDecimal amount = row.amount().toBigDecimal();
+                transactionRows.add(new Object[]{transactionId, now, job.getCreatedBy(), now, amount,
+                        row.type().name(), row.direction().name(), row.accountId()});
+                ledgerRows.add(new Object[]{row.accountId(), transactionId, row.direction().name(), amount,
+                        job.getCreatedBy()});
+            }
+
+            List<Object[]> balanceRows = new ArrayList<>(deltas.size());
+            deltas.forEach((accountId, delta) -> {
+                if (!delta.isZero()) {
+                    balanceRows.add(new Object[]{delta.toBigDecimal(), now, accountId});
+                }
+            });
+            jdbcTemplate.batchUpdate(APPLY_BALANCE, balanceRows);
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION, transactionRows);
+            jdbcTemplate.batchUpdate(INSERT_LEDGER_ENTRY, ledgerRows);
+            if (transactionImportRepository.advance(job.getId(), from, to, transactionRows.size(), rejected.size()) == 0) {
+                throw new IllegalStateException("Import " + job.getId() + " is being processed by another request");
+            }
+            return rejected;
+        });
+    }
+
+    private static String check(Row row, Map<UUID, AccountsEntity> accounts, Map<UUID, Money> balances) {
+        AccountsEntity account = accounts.get(row.accountId());
+        if (account == null) {
+            return "Account not found!";
+        }
+        try {
+            TransactionService.checkAccountType(row.type(), account.getType());
+        } catch (DataNotAcceptableException e) {
+            return e.getMessage();
+        }
+        Money balance = balances.computeIfAbsent(row.accountId(), id -> account.getBalance());
+        if (row.direction() == EntryDirection.DEBIT && balance.isLessThan(row.amount())) {
+            return "Has no enough balance in account!";
+        }
+        return null;
+    }
+
+    private Line parse(ImportFormat format, long number, String text) {
+        try {
+            return new Line(number, format == ImportFormat.CSV ? parseCsv(text) : parseJson(text), null);
+        } catch (InvalidLine e) {
+            return new Line(number, null, e.getMessage());
+        }
+    }
+
+    private Row parseJson(String text) {
+        JsonNode node;
+        try {
+            node = rowReader.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new InvalidLine("Malformed JSON! " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new InvalidLine("Malformed JSON! Expected an object");
+        }
+        BigDecimal amount;
+        JsonNode amountNode = node.path("amount");
+        if (amountNode.isNumber()) {
+            amount = amountNode.decimalValue();
+        } else {
+            amount = decimal(amountNode.isTextual() ? amountNode.asText() : null);
+        }
+        return row(text(node, "accountId"), text(node, "type"), amount, text(node, "direction"));
+    }
+
+    private static Row parseCsv(String text) {
+        List<String> fields = splitCsv(text);
+        if (fields.size() < 3 || fields.size() > 4) {
+            throw new InvalidLine("Expected accountId,type,amount[,direction] columns!");
+        }
+        return row(fields.get(0), fields.get(1), decimal(fields.get(2)), fields.size() == 4 ? fields.get(3) : null);
+    }
+
+    private static Row row(String accountId, String type, BigDecimal amount, String direction) {
+        UUID account;
+        try {
+            account = UUID.fromString(accountId.trim());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidLine("Account not found!");
+        }
+        TransactionType transactionType;
+        try {
+            transactionType = TransactionType.valueOf(type.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidLine("Invalid transaction type!");
+        }
+        if (transactionType == TransactionType.TRANSFER) {
+            throw new InvalidLine("Transfers can not be imported!");
+        }
+        EntryDirection entryDirection;
+        try {
+            entryDirection = direction == null || direction.isBlank()
+                    ? EntryDirection.DEBIT
+                    : EntryDirection.valueOf(direction.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidLine("Invalid direction!");
+        }
+        Money money = Money.parse(amount)
+                .filter(Money::isPositive)
+                .orElseThrow(() -> new InvalidLine("Invalid amount!"));
+        return new Row(account, transactionType, entryDirection, money);
+    }
+
+    private static BigDecimal decimal(String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static boolean isHeader(ImportFormat format, String text) {
+        return format == ImportFormat.CSV && text.strip().replace("\"", "").toLowerCase().startsWith(CSV_HEADER);
+    }
+
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidLine("Unterminated quoted field!");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void write(SequenceWriter writer, List<TransactionImportLineResponse> results) throws IOException {
+        for (TransactionImportLineResponse result : results) {
+            writer.write(result);
+        }
+        writer.flush();
+    }
+
+    private record Line(long number, Row row, String error) {
+    }
+
+    private record Row(UUID accountId, TransactionType type, EntryDirection direction, Money amount) {
+    }
+
+    private static class InvalidLine extends RuntimeException {
+
+        private InvalidLine(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package uz.com.service.debt;
+
+import uz.com.model.entity.LoansEntity;
+import uz.com.model.enums.LoanStatus;
+import uz.com.model.money.Money;
+
+import java.math.BigDecimal;
+
+public record DebtContribution(BigDecimal principal,
+                               BigDecimal outstanding,
+                               BigDecimal paid,
+                               long active,
+                               long freeze,
+                               long completed,
+                               long overdue) {
+
+    public static final DebtContribution NONE = new DebtContribution(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0, 0, 0, 0);
+
+    public static DebtContribution of(LoansEntity loan) {
+        if (loan == null || loan.isDeleted() || loan.getStatus() == null) {
+            return NONE;
+        }
+        LoanStatus status = loan.getStatus();
+        boolean open = status == LoanStatus.ACTIVE || status == LoanStatus.FREEZE || status == LoanStatus.OVERDUE;
+        return new DebtContribution(
+                open ? orZero(loan.getAmount()) : BigDecimal.ZERO,
+                open ? orZero(loan.getMustBePay()) : BigDecimal.ZERO,
+                orZero(loan.getPaidEver()),
+                status == LoanStatus.ACTIVE ? 1 : 0,
+                status == LoanStatus.FREEZE ? 1 : 0,
+                status == LoanStatus.COMPLETED ? 1 : 0,
+                status == LoanStatus.OVERDUE ? 1 : 0
+        );
+    }
+
+    public DebtContribution plus(DebtContribution other) {
+        return new DebtContribution(
+                principal.add(other.principal),
+                outstanding.add(other.outstanding),
+                paid.add(other.paid),
+                active + other.active,
+                freeze + other.freeze,
+                completed + other.completed,
+                overdue + other.overdue
+        );
+    }
+
+    public DebtContribution minus(DebtContribution other) {
+        return new DebtContribution(
+                principal.subtract(other.principal),
+                outstanding.subtract(other.outstanding),
+                paid.subtract(other.paid),
+                active - other.active,
+                freeze - other.freeze,
+                completed - other.completed,
+                overdue - other.overdue
+        );
+    }
+
+    public boolean isZero() {
+        return principal.signum() == 0 && outstanding.signum() == 0 && paid.signum() == 0
+                && active == 0 && freeze == 0 && completed == 0 && overdue == 0;
+    }
+
+    private static BigDecimal orZero(Money value) {
+        return value != null ? value.toBigDecimal() : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,99 @@
+package uz.com.service.debt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.com.model.entity.DebtSummaryEntity;
+import uz.com.model.entity.LoansEntity;
+import uz.com.repository.DebtSummaryRepository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class DebtSummaryService {
+
+    private final DebtSummaryRepository debtSummaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter drifted;
+
+    public DebtSummaryService(DebtSummaryRepository debtSummaryRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.debtSummaryRepository = debtSummaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.drifted = meterRegistry.counter("debt.summary.drift");
+    }
+
+    @Transactional
+    public DebtContribution prepare(UUID userId, LoansEntity loan) {
+        debtSummaryRepository.seed(userId);
+        return DebtContribution.of(loan);
+    }
+
+    @Transactional
+    public void apply(UUID userId, DebtContribution before, LoansEntity loan) {
+        add(userId, DebtContribution.of(loan).minus(before));
+    }
+
+    @Transactional
+    public void add(UUID userId, DebtContribution delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        debtSummaryRepository.applyDelta(userId, delta.principal(), delta.outstanding(), delta.paid(),
+                delta.active(), delta.freeze(), delta.completed(), delta.overdue());
+    }
+
+    @Transactional
+    public void prepareDelete(Collection<UUID> loanIds) {
+        if (!loanIds.isEmpty()) {
+            debtSummaryRepository.seedOwnersOf(loanIds);
+        }
+    }
+
+    @Transactional
+    public void applyDeleted(Collection<UUID> loanIds) {
+        if (!loanIds.isEmpty()) {
+            debtSummaryRepository.subtractLoans(loanIds);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public DebtSummaryEntity getSummary(UUID userId) {
+        return debtSummaryRepository.findById(userId).orElseGet(() -> DebtSummaryEntity.builder()
+                .userId(userId)
+                .totalPrincipal(BigDecimal.ZERO)
+                .outstanding(BigDecimal.ZERO)
+                .paidToDate(BigDecimal.ZERO)
+                .build());
+    }
+
+    @Scheduled(initialDelayString = "${debt.reconcile.initial-delay:60000}",
+            fixedDelayString = "${debt.reconcile.interval:3600000}")
+    public void reconcile() {
+        Integer seeded = transactionTemplate.execute(status -> debtSummaryRepository.seedMissing());
+        if (seeded != null && seeded > 0) {
+            log.info("Seeded debt summaries of {} users", seeded);
+        }
+        List<UUID> userIds = debtSummaryRepository.findDrifted();
+        for (UUID userId : userIds) {
+            transactionTemplate.executeWithoutResult(status -> {
+                debtSummaryRepository.findForUpdate(userId);
+                debtSummaryRepository.rebuild(userId);
+            });
+            drifted.increment();
+        }
+        if (!userIds.isEmpty()) {
+            log.warn("Debt summaries of {} users drifted from the loans table and were rebuilt", userIds.size());
+        }
+    }
+}
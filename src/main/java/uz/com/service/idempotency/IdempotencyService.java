@@ -0,0 +1,203 @@
+package uz.com.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.com.exception.DataNotAcceptableException;
+import uz.com.model.dto.response.GeneralResponse;
+import uz.com.model.entity.IdempotencyKeyEntity;
+import uz.com.repository.IdempotencyKeyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMillis;
+    private final long localTtlMillis;
+    private final long waitTimeoutMillis;
+    private final Map<String, LocalEntry> entries = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${idempotency.ttl:86400000}") long ttlMillis,
+                              @Value("${idempotency.local-ttl:600000}") long localTtlMillis,
+                              @Value("${idempotency.wait-timeout:30000}") long waitTimeoutMillis) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlMillis = ttlMillis;
+        this.localTtlMillis = localTtlMillis;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    public <T> GeneralResponse<T> execute(String scope,
+                                          String key,
+                                          Object request,
+                                          Class<T> dataType,
+                                          Supplier<GeneralResponse<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new DataNotAcceptableException("Invalid Idempotency-Key!");
+        }
+        String id = scope + ":" + key;
+        String requestHash = hash(request);
+
+        while (true) {
+            long now = System.currentTimeMillis();
+            LocalEntry mine = new LocalEntry(requestHash);
+            LocalEntry existing = entries.putIfAbsent(id, mine);
+            if (existing == null) {
+                return run(id, requestHash, dataType, action, mine);
+            }
+            if (existing.isExpired(now)) {
+                entries.remove(id, existing);
+                continue;
+            }
+            if (!existing.requestHash.equals(requestHash)) {
+                throw new DataNotAcceptableException("Idempotency-Key is already used for another request!");
+            }
+            return await(existing);
+        }
+    }
+
+    public int getLocalCount() {
+        return entries.size();
+    }
+
+    @Scheduled(initialDelayString = "${idempotency.local-ttl:600000}", fixedDelayString = "${idempotency.local-ttl:600000}")
+    public void evictLocal() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:3600000}")
+    public void cleanup() {
+        int deleted = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private <T> GeneralResponse<T> run(String id,
+                                       String requestHash,
+                                       Class<T> dataType,
+                                       Supplier<GeneralResponse<T>> action,
+                                       LocalEntry mine) {
+        try {
+            GeneralResponse<T> response = transactionTemplate.execute(status -> reserveOrReplay(id, requestHash, dataType, action));
+            mine.expiresAt = System.currentTimeMillis() + localTtlMillis;
+            mine.result.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            entries.remove(id, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private <T> GeneralResponse<T> reserveOrReplay(String id,
+                                                   String requestHash,
+                                                   Class<T> dataType,
+                                                   Supplier<GeneralResponse<T>> action) {
+        LocalDateTime now = LocalDateTime.now();
+        if (idempotencyKeyRepository.reserve(id, requestHash, now, now.plusNanos(ttlMillis * 1_000_000)) == 0) {
+            IdempotencyKeyEntity stored = idempotencyKeyRepository.findLive(id, now)
+                    .orElseThrow(() -> new DataNotAcceptableException("Request with this Idempotency-Key is in progress! Try again later!"));
+            if (!stored.getRequestHash().equals(requestHash)) {
+                throw new DataNotAcceptableException("Idempotency-Key is already used for another request!");
+            }
+            if (stored.getResponse() == null) {
+                throw new DataNotAcceptableException("Request with this Idempotency-Key is in progress! Try again later!");
+            }
+            return read(stored.getResponse(), dataType);
+        }
+        GeneralResponse<T> response = action.get();
+        idempotencyKeyRepository.complete(id, write(response));
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> GeneralResponse<T> await(LocalEntry entry) {
+        try {
+            return (GeneralResponse<T>) entry.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new DataNotAcceptableException("Request with this Idempotency-Key is in progress! Try again later!");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataNotAcceptableException("Request with this Idempotency-Key is in progress! Try again later!");
+        }
+    }
+
+    private <T> GeneralResponse<T> read(String response, Class<T> dataType) {
+        JavaType type = objectMapper.getTypeFactory().constructParametricType(GeneralResponse.class, dataType);
+        try {
+            return objectMapper.readValue(response, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored idempotent response", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store idempotent response", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class LocalEntry {
+
+        private final String requestHash;
+        private final CompletableFuture<GeneralResponse<?>> result = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private LocalEntry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package uz.com.service.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.com.repository.BalanceSnapshotRepository;
+import uz.com.repository.LedgerEntryRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+public class LedgerCompactor {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lag;
+
+    public LedgerCompactor(LedgerEntryRepository ledgerEntryRepository,
+                           BalanceSnapshotRepository balanceSnapshotRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${ledger.snapshot.lag:60000}") long lagMillis) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lag = Duration.ofMillis(lagMillis);
+    }
+
+    @Scheduled(initialDelayString = "${ledger.snapshot.initial-delay:30000}",
+            fixedDelayString = "${ledger.snapshot.interval:300000}")
+    public void compact() {
+        LocalDateTime asOf = ledgerEntryRepository.currentTimestamp().minus(lag);
+        transactionTemplate.executeWithoutResult(status -> {
+            int seeded = balanceSnapshotRepository.seedOpeningSnapshots(LedgerService.OPENING);
+            long run = balanceSnapshotRepository.nextRun();
+            int claimed = ledgerEntryRepository.claimForRun(run, asOf);
+            int written = claimed == 0 ? 0 : balanceSnapshotRepository.snapshotRun(run, asOf);
+            log.info("Ledger compaction run {} as of {}: {} opening snapshots seeded, {} entries folded into {} snapshots",
+                    run, asOf, seeded, claimed, written);
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package uz.com.service.ledger;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import uz.com.model.entity.BalanceSnapshotEntity;
+import uz.com.model.entity.LedgerEntryEntity;
+import uz.com.model.entity.TransactionEntity;
+import uz.com.model.enums.EntryDirection;
+import uz.com.model.money.Money;
+import uz.com.repository.BalanceSnapshotRepository;
+import uz.com.repository.LedgerEntryRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+
+    public static final LocalDateTime OPENING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String INSERT_ENTRY = "insert into ledger_entries " +
+            "(id, account_id, transaction_id, direction, amount, created_at, created_by) " +
+            "values (nextval('ledger_entries_seq'), ?, ?, ?, ?, localtimestamp, ?)";
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+
+    public void record(TransactionEntity transaction) {
+        record(List.of(transaction));
+    }
+
+
+    public void record(List<TransactionEntity> transactions) {
+        List<LedgerEntryEntity> entries = new ArrayList<>(transactions.size());
+        for (TransactionEntity transaction : transactions) {
+            entries.add(entry(transaction.getAccount().getId(), transaction.getId(), transaction.getDirection(),
+                    transaction.getAmount(), transaction.getCreatedBy()));
+        }
+        append(entries);
+    }
+
+
+    public void append(List<LedgerEntryEntity> entries) {
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        for (LedgerEntryEntity entry : entries) {
+            rows.add(new Object[]{entry.getAccountId(), entry.getTransactionId(), entry.getDirection().name(),
+                    entry.getAmount().toBigDecimal(), entry.getCreatedBy()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, rows);
+    }
+
+
+    public BigDecimal balanceOf(UUID accountId) {
+        Optional<BalanceSnapshotEntity> snapshot = balanceSnapshotRepository.findFirstByAccountIdOrderByRunDesc(accountId);
+        BigDecimal base = snapshot.map(BalanceSnapshotEntity::getBalance).map(Money::toBigDecimal).orElse(BigDecimal.ZERO);
+        long run = snapshot.map(BalanceSnapshotEntity::getRun).orElse(0L);
+        return base.add(ledgerEntryRepository.sumOutsideRun(accountId, run));
+    }
+
+
+    public BigDecimal balanceAt(UUID accountId, LocalDateTime at) {
+        Optional<BalanceSnapshotEntity> snapshot =
+                balanceSnapshotRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByRunDesc(accountId, at);
+        BigDecimal base = snapshot.map(BalanceSnapshotEntity::getBalance).map(Money::toBigDecimal).orElse(BigDecimal.ZERO);
+        long run = snapshot.map(BalanceSnapshotEntity::getRun).orElse(0L);
+        return base.add(ledgerEntryRepository.sumOutsideRunUpTo(accountId, run, at));
+    }
+
+
+    public static LedgerEntryEntity entry(UUID accountId, UUID transactionId, EntryDirection direction,
+                                          Money amount, UUID createdBy) {
+        return LedgerEntryEntity.builder()
+                .accountId(accountId)
+                .transactionId(transactionId)
+                .direction(direction)
+                .amount(amount)
+                .createdBy(createdBy)
+                .build();
+    }
+}
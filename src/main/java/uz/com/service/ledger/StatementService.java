@@ -0,0 +1,201 @@
+package uz.com.service.ledger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.com.exception.DataNotAcceptableException;
+import uz.com.exception.DataNotFoundException;
+import uz.com.model.dto.response.StatementLineResponse;
+import uz.com.model.entity.AccountsEntity;
+import uz.com.model.enums.EntryDirection;
+import uz.com.model.enums.StatementFormat;
+import uz.com.model.money.Money;
+import uz.com.repository.AccountRepository;
+import uz.com.service.auth.CurrentUserService;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Service
+public class StatementService {
+
+    private static final String SELECT = "select e.created_at, e.transaction_id, t.type, e.direction, e.amount " +
+            "from ledger_entries e left join transactions t on t.id = e.transaction_id " +
+            "where e.account_id = ? and e.created_at > ? and e.created_at <= ? " +
+            "order by e.created_at, e.id";
+    private static final String CSV_HEADER = "date,transactionId,type,direction,amount,balance";
+
+    private final AccountRepository accountRepository;
+    private final LedgerService ledgerService;
+    private final CurrentUserService currentUserService;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public StatementService(AccountRepository accountRepository,
+                            LedgerService ledgerService,
+                            CurrentUserService currentUserService,
+                            ObjectMapper objectMapper,
+                            DataSource dataSource,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${statement.fetch-size:1000}") int fetchSize) {
+        this.accountRepository = accountRepository;
+        this.ledgerService = ledgerService;
+        this.currentUserService = currentUserService;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.fetchSize = fetchSize;
+    }
+
+    public void check(UUID accountId, LocalDateTime from, LocalDateTime to, Principal principal) {
+        AccountsEntity account = accountRepository.findAccountsEntityByIdAndDeletedFalse(accountId);
+        if (account == null || (!currentUserService.isStaff(principal)
+                && (account.getUser() == null || !currentUserService.getUserId(principal).equals(account.getUser().getId())))) {
+            throw new DataNotFoundException("Account not found!");
+        }
+        if (!from.isBefore(to)) {
+            throw new DataNotAcceptableException("Invalid date range!");
+        }
+    }
+
+    public void write(UUID accountId, LocalDateTime from, LocalDateTime to, StatementFormat format, OutputStream out) throws IOException {
+        try (LineWriter writer = format == StatementFormat.CSV ? new CsvLineWriter(out) : new JsonLineWriter(objectMapper, out)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Money[] balance = {Money.of(ledgerService.balanceAt(accountId, from), RoundingMode.HALF_EVEN)};
+                writer.write(new StatementLineResponse(from, null, null, null, null, balance[0].toBigDecimal()));
+                writer.flush();
+                int[] pending = {0};
+                jdbcTemplate.query(SELECT, rs -> {
+                    EntryDirection direction = EntryDirection.valueOf(rs.getString("direction"));
+                    Money amount = Money.of(rs.getBigDecimal("amount"), RoundingMode.HALF_EVEN);
+                    balance[0] = direction == EntryDirection.DEBIT ? balance[0].minus(amount) : balance[0].plus(amount);
+                    writer.write(new StatementLineResponse(
+                            rs.getTimestamp("created_at").toLocalDateTime(),
+                            rs.getObject("transaction_id", UUID.class),
+                            rs.getString("type"),
+                            direction,
+                            amount.toBigDecimal(),
+                            balance[0].toBigDecimal()));
+                    if (++pending[0] == fetchSize) {
+                        writer.flush();
+                        pending[0] = 0;
+                    }
+                }, accountId, from, to);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface LineWriter extends AutoCloseable {
+
+        void write(StatementLineResponse line);
+
+        void flush();
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static class CsvLineWriter implements LineWriter {
+
+        private final Writer out;
+
+        private CsvLineWriter(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.out.write(CSV_HEADER);
+            this.out.write('\n');
+        }
+
+        @Override
+        public void write(StatementLineResponse line) {
+            try {
+                out.write(line.getDate().toString());
+                out.write(',');
+                out.write(line.getTransactionId() != null ? line.getTransactionId().toString() : "");
+                out.write(',');
+                out.write(line.getType() != null ? line.getType() : "");
+                out.write(',');
+                out.write(line.getDirection() != null ? line.getDirection().name() : "");
+                out.write(',');
+                out.write(plain(line.getAmount()));
+                out.write(',');
+                out.write(plain(line.getBalance()));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void flush() {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+
+        private static String plain(BigDecimal value) {
+            return value != null ? value.toPlainString() : "";
+        }
+    }
+
+    private static class JsonLineWriter implements LineWriter {
+
+        private final SequenceWriter out;
+
+        private JsonLineWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.out = objectMapper.writer().withRootValueSeparator("\n").writeValues(out);
+        }
+
+        @Override
+        public void write(StatementLineResponse line) {
+            try {
+                out.write(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void flush() {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
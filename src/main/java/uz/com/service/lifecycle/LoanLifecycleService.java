@@ -0,0 +1,149 @@
+package uz.com.service.lifecycle;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.com.model.entity.LoansEntity;
+import uz.com.model.enums.LoanStatus;
+import uz.com.model.money.Money;
+import uz.com.repository.LoansRepository;
+import uz.com.service.debt.DebtContribution;
+import uz.com.service.debt.DebtSummaryService;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class LoanLifecycleService {
+
+    private final LoansRepository loansRepository;
+    private final DebtSummaryService debtSummaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final TimerWheel<UUID> wheel;
+    private final int horizonDays;
+    private final int pageSize;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public LoanLifecycleService(LoansRepository loansRepository,
+                                DebtSummaryService debtSummaryService,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${lifecycle.tick:60000}") long tickMillis,
+                                @Value("${lifecycle.wheel-size:64}") int wheelSize,
+                                @Value("${lifecycle.horizon-days:7}") int horizonDays,
+                                @Value("${lifecycle.refill-page-size:1000}") int pageSize) {
+        this.loansRepository = loansRepository;
+        this.debtSummaryService = debtSummaryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.wheel = new TimerWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+        this.horizonDays = horizonDays;
+        this.pageSize = pageSize;
+        Gauge.builder("loan.lifecycle.timers", wheel, TimerWheel::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        wheel.clear();
+        refill();
+    }
+
+    @Scheduled(initialDelayString = "${lifecycle.refill-interval:3600000}",
+            fixedDelayString = "${lifecycle.refill-interval:3600000}")
+    public void refill() {
+        LocalDate horizon = LocalDate.now(zone).plusDays(horizonDays);
+        LocalDate afterDueDate = LocalDate.of(1, 1, 1);
+        UUID afterId = new UUID(0L, 0L);
+        int scheduled = 0;
+        int transitioned = 0;
+        while (true) {
+            List<LoansRepository.LoanDueDate> loans = loansRepository.findDueBefore(LoanStatus.ACTIVE, horizon,
+                    afterDueDate, afterId, Limit.of(pageSize));
+            for (LoansRepository.LoanDueDate loan : loans) {
+                long deadline = deadlineOf(loan.getDueDate());
+                if (deadline <= System.currentTimeMillis()) {
+                    apply(loan.getId());
+                    transitioned++;
+                } else {
+                    wheel.schedule(loan.getId(), deadline);
+                    scheduled++;
+                }
+            }
+            if (loans.size() < pageSize) {
+                break;
+            }
+            LoansRepository.LoanDueDate last = loans.get(loans.size() - 1);
+            afterDueDate = last.getDueDate();
+            afterId = last.getId();
+        }
+        log.info("Scheduled lifecycle timers of {} loans due before {}, checked {} past-due loans", scheduled, horizon, transitioned);
+    }
+
+    @Scheduled(fixedDelayString = "${lifecycle.tick:60000}")
+    public void tick() {
+        for (UUID loanId : wheel.advance(System.currentTimeMillis())) {
+            apply(loanId);
+        }
+    }
+
+    public void track(LoansEntity loan) {
+        if (loan.getStatus() == LoanStatus.ACTIVE && loan.getDueDate() != null && !loan.isDeleted()
+                && loan.getDueDate().isBefore(LocalDate.now(zone).plusDays(horizonDays))) {
+            wheel.schedule(loan.getId(), deadlineOf(loan.getDueDate()));
+        } else {
+            wheel.cancel(loan.getId());
+        }
+    }
+
+    public static LoanStatus settledStatus(LoanStatus status, Money mustBePay) {
+        if (mustBePay != null && !mustBePay.isPositive()
+                && (status == LoanStatus.ACTIVE || status == LoanStatus.OVERDUE)) {
+            return LoanStatus.COMPLETED;
+        }
+        return status;
+    }
+
+    private void apply(UUID loanId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> transition(loanId));
+        } catch (RuntimeException e) {
+            log.error("Could not apply lifecycle transition of loan {}", loanId, e);
+        }
+    }
+
+    private void transition(UUID loanId) {
+        LoansEntity loan = loansRepository.findForUpdate(loanId);
+        if (loan == null || loan.getStatus() != LoanStatus.ACTIVE || loan.getDueDate() == null) {
+            return;
+        }
+        LoanStatus next = settledStatus(loan.getStatus(), loan.getMustBePay());
+        if (next == LoanStatus.ACTIVE) {
+            if (!loan.getDueDate().isBefore(LocalDate.now(zone))) {
+                track(loan);
+                return;
+            }
+            next = LoanStatus.OVERDUE;
+        }
+        DebtContribution before = debtSummaryService.prepare(loan.getUser().getId(), loan);
+        loan.setStatus(next);
+        loansRepository.saveAndFlush(loan);
+        debtSummaryService.apply(loan.getUser().getId(), before, loan);
+        meterRegistry.counter("loan.lifecycle.transitions", "status", next.name()).increment();
+    }
+
+    private long deadlineOf(LocalDate dueDate) {
+        return dueDate.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,142 @@
+package uz.com.service.lifecycle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TimerWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Set<Timer<K>>[]> levels = new ArrayList<>();
+    private final List<Long> intervals = new ArrayList<>();
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    private final Set<Timer<K>> due = new LinkedHashSet<>();
+    private long currentTick;
+
+    public TimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Invalid timer wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        Timer<K> timer = new Timer<>(key, Math.floorDiv(deadlineMillis, tickMillis));
+        timers.put(key, timer);
+        place(timer);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        if (timer.bucket != null) {
+            timer.bucket.remove(timer);
+            timer.bucket = null;
+        }
+        return true;
+    }
+
+    public synchronized List<K> advance(long nowMillis) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = levels.size() - 1; level >= 1; level--) {
+                long interval = intervals.get(level);
+                if (currentTick % interval == 0) {
+                    Set<Timer<K>> bucket = levels.get(level)[slot(currentTick / interval)];
+                    List<Timer<K>> cascaded = new ArrayList<>(bucket);
+                    bucket.clear();
+                    for (Timer<K> timer : cascaded) {
+                        timer.bucket = null;
+                        place(timer);
+                    }
+                }
+            }
+            if (!levels.isEmpty()) {
+                Set<Timer<K>> bucket = levels.get(0)[slot(currentTick)];
+                for (Timer<K> timer : bucket) {
+                    timer.bucket = due;
+                }
+                due.addAll(bucket);
+                bucket.clear();
+            }
+        }
+        List<K> fired = new ArrayList<>(due.size());
+        for (Timer<K> timer : due) {
+            timers.remove(timer.key);
+            timer.bucket = null;
+            fired.add(timer.key);
+        }
+        due.clear();
+        return fired;
+    }
+
+    public synchronized void clear() {
+        timers.clear();
+        due.clear();
+        levels.clear();
+        intervals.clear();
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    private void place(Timer<K> timer) {
+        if (timer.deadlineTick <= currentTick) {
+            timer.bucket = due;
+            due.add(timer);
+            return;
+        }
+        int level = 0;
+        while (true) {
+            long interval = interval(level);
+            if (timer.deadlineTick / interval - currentTick / interval < wheelSize) {
+                Set<Timer<K>> bucket = levels.get(level)[slot(timer.deadlineTick / interval)];
+                timer.bucket = bucket;
+                bucket.add(timer);
+                return;
+            }
+            level++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private long interval(int level) {
+        while (levels.size() <= level) {
+            long interval = intervals.isEmpty() ? 1 : Math.multiplyExact(intervals.get(intervals.size() - 1), wheelSize);
+            Set<Timer<K>>[] buckets = new Set[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new LinkedHashSet<>();
+            }
+            levels.add(buckets);
+            intervals.add(interval);
+        }
+        return intervals.get(level);
+    }
+
+    private int slot(long index) {
+        return (int) Math.floorMod(index, (long) wheelSize);
+    }
+
+    private static final class Timer<K> {
+
+        private final K key;
+        private final long deadlineTick;
+        private Set<Timer<K>> bucket;
+
+        private Timer(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package uz.com.service.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.com.model.entity.MailOutboxEntity;
+import uz.com.model.enums.MailStatus;
+import uz.com.repository.MailOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class MailDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final List<MailStatus> FINISHED = List.of(MailStatus.SENT, MailStatus.FAILED);
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final JavaMailSender javaMailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final String sender;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public MailDispatcher(MailOutboxRepository mailOutboxRepository,
+                          JavaMailSender javaMailSender,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${spring.mail.username}") String sender,
+                          @Value("${mail.outbox.workers:2}") int workers,
+                          @Value("${mail.outbox.batch-size:50}") int batchSize,
+                          @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                          @Value("${mail.outbox.lease:60000}") long leaseMillis,
+                          @Value("${mail.outbox.backoff:5000}") long backoffMillis,
+                          @Value("${mail.outbox.max-backoff:600000}") long maxBackoffMillis,
+                          @Value("${mail.outbox.retention:604800000}") long retentionMillis) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.javaMailSender = javaMailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sender = sender;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofMillis(leaseMillis);
+        this.backoff = Duration.ofMillis(backoffMillis);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMillis);
+        this.retention = Duration.ofMillis(retentionMillis);
+        this.sent = meterRegistry.counter("mail.outbox", "result", "sent");
+        this.retried = meterRegistry.counter("mail.outbox", "result", "retried");
+        this.failed = meterRegistry.counter("mail.outbox", "result", "failed");
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "mail-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(initialDelayString = "${mail.outbox.poll-interval:1000}", fixedDelayString = "${mail.outbox.poll-interval:1000}")
+    public void poll() {
+        int started = 0;
+        while (started < workers && wake()) {
+            started++;
+        }
+    }
+
+    public boolean wake() {
+        int running;
+        do {
+            running = active.get();
+            if (running >= workers) {
+                return false;
+            }
+        } while (!active.compareAndSet(running, running + 1));
+        try {
+            executor.execute(this::drain);
+            return true;
+        } catch (RejectedExecutionException e) {
+            active.decrementAndGet();
+            return false;
+        }
+    }
+
+    public int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        int[] found = {0};
+        List<MailOutboxEntity> batch = transactionTemplate.execute(status -> {
+            List<MailOutboxEntity> due = mailOutboxRepository.findDueForUpdate(now, batchSize);
+            found[0] = due.size();
+            List<MailOutboxEntity> leased = new ArrayList<>(due.size());
+            for (MailOutboxEntity mail : due) {
+                if (mail.getLeasedUntil() != null && mail.getAttempts() >= maxAttempts) {
+                    log.warn("Giving up mail {} to {}: lease expired after {} attempts", mail.getId(), mail.getRecipient(),
+                            mail.getAttempts());
+                    mailOutboxRepository.reschedule(mail.getId(), MailStatus.FAILED, now, "Lease expired");
+                    failed.increment();
+                } else {
+                    leased.add(mail);
+                }
+            }
+            if (!leased.isEmpty()) {
+                mailOutboxRepository.lease(leased.stream().map(MailOutboxEntity::getId).toList(), now.plus(lease));
+            }
+            return leased;
+        });
+        if (batch != null && !batch.isEmpty()) {
+            send(batch);
+        }
+        return found[0];
+    }
+
+    @Scheduled(initialDelayString = "${mail.outbox.purge-interval:3600000}", fixedDelayString = "${mail.outbox.purge-interval:3600000}")
+    public void purge() {
+        int purged = mailOutboxRepository.deleteFinishedBefore(FINISHED, LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} finished mails from the outbox", purged);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    static Duration backoff(int attempts, Duration base, Duration max) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = base.multipliedBy(1L << shift);
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+
+    private void drain() {
+        try {
+            while (dispatchBatch() == batchSize) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Mail dispatcher stopped draining the outbox", e);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private void send(List<MailOutboxEntity> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            MailOutboxEntity mail = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(sender);
+            message.setTo(mail.getRecipient());
+            message.setSubject(mail.getSubject());
+            message.setText(mail.getBody());
+            messages[i] = message;
+        }
+        Map<Object, Exception> failures = Map.of();
+        Exception batchFailure = null;
+        try {
+            javaMailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> delivered = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Exception error = batchFailure != null ? batchFailure : failures.get(messages[i]);
+            if (error == null) {
+                delivered.add(batch.get(i).getId());
+            } else {
+                retry(batch.get(i), error, now);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            mailOutboxRepository.markSent(delivered, now);
+            sent.increment(delivered.size());
+        }
+    }
+
+    private void retry(MailOutboxEntity mail, Exception error, LocalDateTime now) {
+        int attempts = mail.getAttempts() + 1;
+        String message = String.valueOf(error.getMessage());
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        if (attempts >= maxAttempts) {
+            log.warn("Giving up mail {} to {} after {} attempts: {}", mail.getId(), mail.getRecipient(), attempts, message);
+            mailOutboxRepository.reschedule(mail.getId(), MailStatus.FAILED, now, message);
+            failed.increment();
+        } else {
+            mailOutboxRepository.reschedule(mail.getId(), MailStatus.PENDING, now.plus(backoff(attempts, backoff, maxBackoff)), message);
+            retried.increment();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package uz.com.service.mail;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.com.model.entity.MailOutboxEntity;
+import uz.com.model.enums.MailStatus;
+import uz.com.repository.MailOutboxRepository;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class MailOutboxService {
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailDispatcher mailDispatcher;
+
+    public MailOutboxEntity enqueue(String recipient, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        MailOutboxEntity mail = mailOutboxRepository.save(MailOutboxEntity.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .status(MailStatus.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    mailDispatcher.wake();
+                }
+            });
+        } else {
+            mailDispatcher.wake();
+        }
+        return mail;
+    }
+}
@@ -0,0 +1,83 @@
+package uz.com.service.paging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+@Service
+public class CountService {
+
+    private static final Set<String> TABLES = Set.of("users", "accounts", "loans", "transactions");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final long exactThreshold;
+    private final Map<String, TableCount> counts = new ConcurrentHashMap<>();
+
+    public CountService(JdbcTemplate jdbcTemplate,
+                        ObjectMapper objectMapper,
+                        @Value("${count.cache.ttl:30000}") long ttlMillis,
+                        @Value("${count.exact-threshold:100000}") long exactThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttlMillis = ttlMillis;
+        this.exactThreshold = exactThreshold;
+    }
+
+    public TableCount count(String table, LongSupplier exactCount) {
+        long now = System.currentTimeMillis();
+        TableCount cached = counts.get(table);
+        if (cached != null && now - cached.countedAt() < ttlMillis) {
+            return cached;
+        }
+        long estimate = estimate(table);
+        TableCount count = estimate >= exactThreshold
+                ? new TableCount(estimate, true, now)
+                : new TableCount(exactCount.getAsLong(), false, now);
+        counts.put(table, count);
+        return count;
+    }
+
+    public void invalidate(String table) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counts.remove(table);
+                }
+            });
+        } else {
+            counts.remove(table);
+        }
+    }
+
+    private long estimate(String table) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Count is not supported for " + table);
+        }
+        String plan = jdbcTemplate.queryForObject(
+                "explain (format json) select 1 from " + table + " where is_deleted = false", String.class);
+        try {
+            return plan != null ? objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong(-1) : -1;
+        } catch (JsonProcessingException e) {
+            return -1;
+        }
+    }
+
+    public record TableCount(long total, boolean estimated, long countedAt) {
+
+        public int pageCount(int size) {
+            return (int) ((total + size - 1) / size);
+        }
+    }
+}
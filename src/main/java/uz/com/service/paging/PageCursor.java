@@ -0,0 +1,59 @@
+package uz.com.service.paging;
+
+import org.springframework.data.domain.Limit;
+import uz.com.exception.DataNotAcceptableException;
+import uz.com.model.dto.response.PageResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+public record PageCursor(LocalDateTime createdAt, UUID id) {
+
+    public static final PageCursor FIRST = new PageCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), new UUID(-1L, -1L));
+
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            return new PageCursor(LocalDateTime.parse(value.substring(0, separator)), UUID.fromString(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new DataNotAcceptableException("Invalid cursor!");
+        }
+    }
+
+    public static Limit limit(int size) {
+        return Limit.of(size + 1);
+    }
+
+    public static <E, R> PageResponse<R> page(List<E> rows,
+                                              int size,
+                                              Function<E, LocalDateTime> createdAt,
+                                              Function<E, UUID> id,
+                                              Function<E, R> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> content = hasNext ? rows.subList(0, size) : rows;
+        List<R> response = new ArrayList<>(content.size());
+        for (E row : content) {
+            response.add(mapper.apply(row));
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            E last = content.get(content.size() - 1);
+            nextCursor = new PageCursor(createdAt.apply(last), id.apply(last)).encode();
+        }
+        return PageResponse.ok(response, nextCursor);
+    }
+
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
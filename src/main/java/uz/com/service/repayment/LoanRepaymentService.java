@@ -0,0 +1,109 @@
+package uz.com.service.repayment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.com.exception.DataNotAcceptableException;
+import uz.com.exception.DataNotFoundException;
+import uz.com.model.entity.AccountsEntity;
+import uz.com.model.entity.LoansEntity;
+import uz.com.model.entity.TransactionEntity;
+import uz.com.model.enums.EntryDirection;
+import uz.com.model.enums.LoanStatus;
+import uz.com.model.enums.TransactionType;
+import uz.com.model.money.Money;
+import uz.com.repository.AccountRepository;
+import uz.com.repository.LoansRepository;
+import uz.com.repository.TransactionRepository;
+import uz.com.service.debt.DebtContribution;
+import uz.com.service.debt.DebtSummaryService;
+import uz.com.service.ledger.LedgerService;
+import uz.com.service.lifecycle.LoanLifecycleService;
+
+import java.util.UUID;
+
+@Service
+public class LoanRepaymentService {
+
+    private final LoansRepository loansRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerService ledgerService;
+    private final DebtSummaryService debtSummaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Counter conflicts;
+
+    public LoanRepaymentService(LoansRepository loansRepository,
+                                AccountRepository accountRepository,
+                                TransactionRepository transactionRepository,
+                                LedgerService ledgerService,
+                                DebtSummaryService debtSummaryService,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${repayment.max-attempts:5}") int maxAttempts) {
+        this.loansRepository = loansRepository;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerService = ledgerService;
+        this.debtSummaryService = debtSummaryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.conflicts = meterRegistry.counter("loan.repayment.conflicts");
+    }
+
+    public LoansEntity repay(UUID loanId, UUID accountId, Money amount, UUID userId, boolean staff) {
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            LoansEntity repaid = transactionTemplate.execute(status -> tryRepay(loanId, accountId, amount, userId, staff));
+            if (repaid != null) {
+                return repaid;
+            }
+            conflicts.increment();
+        }
+        throw new DataNotAcceptableException("Loan is being paid concurrently! Try again later!");
+    }
+
+    private LoansEntity tryRepay(UUID loanId, UUID accountId, Money amount, UUID userId, boolean staff) {
+        LoansEntity loan = loansRepository.findLoansEntityByIdAndDeletedFalse(loanId);
+        if (loan == null || loan.getUser() == null || (!staff && !userId.equals(loan.getUser().getId()))) {
+            throw new DataNotFoundException("Loan not found!");
+        }
+        Money mustBePay = loan.getMustBePay();
+        if (mustBePay == null || amount.isGreaterThan(mustBePay)) {
+            throw new DataNotAcceptableException("Invalid amount!");
+        }
+        UUID borrowerId = loan.getUser().getId();
+        Money remaining = mustBePay.minus(amount);
+        Money paidEver = (loan.getPaidEver() != null ? loan.getPaidEver() : Money.ZERO).plus(amount);
+        LoanStatus status = LoanLifecycleService.settledStatus(loan.getStatus(), remaining);
+
+        DebtContribution before = debtSummaryService.prepare(borrowerId, loan);
+        if (loansRepository.compareAndPay(loanId, mustBePay, loan.getStatus(), remaining, paidEver, status) == 0) {
+            return null;
+        }
+        if (accountRepository.debitOwnedBalance(accountId, borrowerId, amount) == 0) {
+            AccountsEntity account = accountRepository.findAccountsEntityByIdAndDeletedFalse(accountId);
+            if (account == null || account.getUser() == null || !borrowerId.equals(account.getUser().getId())) {
+                throw new DataNotFoundException("Account not found!");
+            }
+            throw new DataNotAcceptableException("Has no enough balance in account! Try again later!");
+        }
+
+        TransactionEntity transaction = new TransactionEntity();
+        transaction.setAccount(accountRepository.getReferenceById(accountId));
+        transaction.setAmount(amount);
+        transaction.setType(TransactionType.LOAN);
+        transaction.setDirection(EntryDirection.DEBIT);
+        transaction.setCreatedBy(userId);
+        ledgerService.record(transactionRepository.save(transaction));
+
+        loan.setMustBePay(remaining);
+        loan.setPaidEver(paidEver);
+        loan.setStatus(status);
+        debtSummaryService.apply(borrowerId, before, loan);
+        return loan;
+    }
+}
@@ -0,0 +1,120 @@
+package uz.com.service.step;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.com.model.enums.UserStep;
+import uz.com.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class UserStepTracker {
+
+    private final UserRepository userRepository;
+    private final int batchSize;
+    private final int knownSize;
+    private final Map<UUID, UserStep> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, UserStep> known = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private final Counter written;
+
+    public UserStepTracker(UserRepository userRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${user-step.batch-size:500}") int batchSize,
+                           @Value("${user-step.known-size:100000}") int knownSize) {
+        this.userRepository = userRepository;
+        this.batchSize = batchSize;
+        this.knownSize = knownSize;
+        this.coalesced = meterRegistry.counter("user.step.coalesced");
+        this.written = meterRegistry.counter("user.step.written");
+        Gauge.builder("user.step.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    public void record(UUID userId, UserStep step) {
+        record(List.of(userId), step);
+    }
+
+    public void record(Collection<UUID> userIds, UserStep step) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<UUID> ids = List.copyOf(userIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(ids, step);
+                }
+            });
+        } else {
+            enqueue(userIds, step);
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(initialDelayString = "${user-step.flush-interval:5000}", fixedDelayString = "${user-step.flush-interval:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<UserStep, List<UUID>> batches = new EnumMap<>(UserStep.class);
+        for (Map.Entry<UUID, UserStep> entry : pending.entrySet()) {
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batches.computeIfAbsent(entry.getValue(), step -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        batches.forEach((step, userIds) -> {
+            for (int from = 0; from < userIds.size(); from += batchSize) {
+                write(step, userIds.subList(from, Math.min(from + batchSize, userIds.size())));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void enqueue(Collection<UUID> userIds, UserStep step) {
+        for (UUID userId : userIds) {
+            if (!pending.containsKey(userId) && known.get(userId) == step) {
+                coalesced.increment();
+            } else if (pending.put(userId, step) != null) {
+                coalesced.increment();
+            }
+        }
+    }
+
+    private void write(UserStep step, List<UUID> userIds) {
+        try {
+            userRepository.updateSteps(userIds, step);
+            written.increment(userIds.size());
+            if (known.size() + userIds.size() > knownSize) {
+                known.clear();
+            }
+            for (UUID userId : userIds) {
+                known.put(userId, step);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not write step {} for {} users, retrying on next flush", step, userIds.size(), e);
+            for (UUID userId : userIds) {
+                pending.putIfAbsent(userId, step);
+            }
+        }
+    }
+}
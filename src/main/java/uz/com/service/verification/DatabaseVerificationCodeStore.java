@@ -0,0 +1,63 @@
+package uz.com.service.verification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uz.com.model.entity.Verification;
+import uz.com.repository.VerificationRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "verification.store", havingValue = "database")
+public class DatabaseVerificationCodeStore implements VerificationCodeStore {
+
+    private final VerificationRepository verificationRepository;
+    private final Duration ttl;
+    private final int maxAttempts;
+
+    public DatabaseVerificationCodeStore(VerificationRepository verificationRepository,
+                                         @Value("${verification.ttl:300000}") long ttlMillis,
+                                         @Value("${verification.max-attempts:5}") int maxAttempts) {
+        this.verificationRepository = verificationRepository;
+        this.ttl = Duration.ofMillis(ttlMillis);
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public void put(UUID userId, int code) {
+        LocalDateTime now = LocalDateTime.now();
+        Verification verification = verificationRepository.findVerificationByTo(userId);
+        if (verification == null) {
+            verification = new Verification();
+            verification.setTo_to(userId);
+        }
+        verification.setCode(code);
+        verification.setCreatedAt(now);
+        verification.setExpiresAt(now.plus(ttl));
+        verification.setAttempts(0);
+        verificationRepository.save(verification);
+    }
+
+    @Override
+    public boolean consume(UUID userId, Integer code) {
+        if (code != null && verificationRepository.consume(userId, code, LocalDateTime.now(), maxAttempts) > 0) {
+            return true;
+        }
+        verificationRepository.countAttempt(userId);
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${verification.purge-interval:60000}")
+    public void purge() {
+        int deleted = verificationRepository.deleteSpent(LocalDateTime.now(), maxAttempts);
+        if (deleted > 0) {
+            log.debug("Purged {} spent verification codes", deleted);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package uz.com.service.verification;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uz.com.service.lifecycle.TimerWheel;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@ConditionalOnProperty(name = "verification.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryVerificationCodeStore implements VerificationCodeStore {
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final TimerWheel<UUID> wheel;
+    private final long ttlMillis;
+    private final int maxAttempts;
+
+    public InMemoryVerificationCodeStore(MeterRegistry meterRegistry,
+                                         @Value("${verification.ttl:300000}") long ttlMillis,
+                                         @Value("${verification.max-attempts:5}") int maxAttempts,
+                                         @Value("${verification.sweep-interval:1000}") long tickMillis,
+                                         @Value("${verification.wheel-size:512}") int wheelSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxAttempts = maxAttempts;
+        this.wheel = new TimerWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+        Gauge.builder("verification.codes", entries, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public void put(UUID userId, int code) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        entries.put(userId, new Entry(code, expiresAt, 0));
+        wheel.schedule(userId, expiresAt);
+    }
+
+    @Override
+    public boolean consume(UUID userId, Integer code) {
+        long now = System.currentTimeMillis();
+        boolean[] matched = {false};
+        entries.computeIfPresent(userId, (id, entry) -> {
+            if (entry.expiresAt() <= now) {
+                return null;
+            }
+            if (code != null && entry.code() == code) {
+                matched[0] = true;
+                return null;
+            }
+            int attempts = entry.attempts() + 1;
+            return attempts >= maxAttempts ? null : new Entry(entry.code(), entry.expiresAt(), attempts);
+        });
+        return matched[0];
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${verification.sweep-interval:1000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (UUID userId : wheel.advance(now)) {
+            entries.computeIfPresent(userId, (id, entry) -> entry.expiresAt() <= now ? null : entry);
+        }
+    }
+
+    private record Entry(int code, long expiresAt, int attempts) {
+    }
+}
@@ -0,0 +1,10 @@
+package uz.com.service.verification;
+
+import java.util.UUID;
+
+public interface VerificationCodeStore {
+
+    void put(UUID userId, int code);
+
+    boolean consume(UUID userId, Integer code);
+}
@@ -0,0 +1,95 @@
+package uz.com.aspect;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import uz.com.model.dto.response.GeneralResponse;
+import uz.com.model.entity.AuditLogsEntity;
+import uz.com.repository.UserRepository;
+import uz.com.service.audit.AuditLogSink;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogAspectTest {
+
+    @Mock
+    private AuditLogSink auditLogSink;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Captor
+    private ArgumentCaptor<AuditLogsEntity> auditLog;
+
+    private AuditLogAspect auditLogAspect;
+
+    @BeforeEach
+    void setUp() {
+        auditLogAspect = new AuditLogAspect(auditLogSink, userRepository, new ObjectMapper());
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/brb/users/update/1");
+        request.setRemoteAddr("192.168.1.5");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        when(joinPoint.getArgs()).thenReturn(new Object[]{"1"});
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void logAudit_ShouldRecordCompletedValue_OfAsyncResult() throws Throwable {
+        CompletableFuture<GeneralResponse<String>> future = new CompletableFuture<>();
+        when(joinPoint.proceed()).thenReturn(future);
+
+        assertSame(future, auditLogAspect.logAudit(joinPoint));
+        verifyNoInteractions(auditLogSink);
+
+        future.complete(GeneralResponse.ok("User updated!", "done"));
+
+        verify(auditLogSink).submit(auditLog.capture());
+        assertEquals("/brb/users/update/1", auditLog.getValue().getUrl());
+        assertEquals("[\"1\"]", auditLog.getValue().getRequest());
+        assertEquals("{\"status\":\"SUCCESS\",\"message\":\"User updated!\",\"data\":\"done\"}",
+                auditLog.getValue().getResponse());
+    }
+
+    @Test
+    void logAudit_ShouldSkipAsyncResult_ThatCompletesExceptionally() throws Throwable {
+        CompletableFuture<GeneralResponse<String>> future = new CompletableFuture<>();
+        when(joinPoint.proceed()).thenReturn(future);
+
+        auditLogAspect.logAudit(joinPoint);
+        future.completeExceptionally(new IllegalStateException("busy"));
+
+        verifyNoInteractions(auditLogSink);
+    }
+
+    @Test
+    void logAudit_ShouldRecordPlainResult_Immediately() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(GeneralResponse.ok("Saved!", null));
+
+        auditLogAspect.logAudit(joinPoint);
+
+        verify(auditLogSink).submit(auditLog.capture());
+        assertEquals("192.168.1.5", auditLog.getValue().getFromIpAddress());
+        assertTrue(auditLog.getValue().getResponse().contains("\"message\":\"Saved!\""));
+    }
+}
@@ -0,0 +1,109 @@
+package uz.com.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import uz.com.config.SecurityConfig;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.UserRole;
+import uz.com.repository.UserRepository;
+import uz.com.service.LoanService;
+import uz.com.service.auth.AuthRateLimiter;
+import uz.com.service.auth.AuthenticationService;
+import uz.com.service.auth.CurrentUserService;
+import uz.com.service.auth.JwtClaimsCache;
+import uz.com.service.auth.JwtService;
+import uz.com.service.bulk.BulkLoanService;
+import uz.com.service.idempotency.IdempotencyService;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(LoanController.class)
+@Import({SecurityConfig.class, JwtService.class, JwtClaimsCache.class, AuthenticationService.class,
+        AuthRateLimiter.class, CurrentUserService.class, SimpleMeterRegistry.class})
+class LoanControllerSecurityTest {
+
+    private static final String BODY = "{\"amount\":1000}\n{\"amount\":2000}\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @MockitoBean
+    private LoanService loanService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @MockitoBean
+    private BulkLoanService bulkLoanService;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @Test
+    void bulkSave_ShouldStreamRowsThroughAsyncDispatch_ForManager() throws Exception {
+        UserEntity manager = user(UserRole.MANAGER);
+        doAnswer(invocation -> {
+            InputStream in = invocation.getArgument(0);
+            OutputStream out = invocation.getArgument(1);
+            int rows = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n").length;
+            out.write(("{\"rows\":" + rows + "}\n").getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(bulkLoanService).originate(any(), any(), eq(manager.getId()));
+
+        MvcResult result = mockMvc.perform(post("/brb/loans/bulk-save")
+                        .header("authorization", "Bearer " + jwtService.generateAccessToken(manager))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(BODY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"rows\":2}\n"));
+    }
+
+    @Test
+    void bulkSave_ShouldRejectClient_BeforeStreamingStarts() throws Exception {
+        mockMvc.perform(post("/brb/loans/bulk-save")
+                        .header("authorization", "Bearer " + jwtService.generateAccessToken(user(UserRole.CLIENT)))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(BODY))
+                .andExpect(status().isForbidden())
+                .andExpect(request().asyncNotStarted());
+
+        verifyNoInteractions(bulkLoanService);
+    }
+
+    private static UserEntity user(UserRole role) {
+        UserEntity user = new UserEntity();
+        user.setId(UUID.randomUUID());
+        user.setEmail(role.name().toLowerCase() + "@gmail.com");
+        user.setRole(Set.of(role));
+        return user;
+    }
+}
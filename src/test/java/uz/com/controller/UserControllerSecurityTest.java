@@ -0,0 +1,89 @@
+package uz.com.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import uz.com.config.SecurityConfig;
+import uz.com.model.dto.response.GeneralResponse;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.UserRole;
+import uz.com.service.UserService;
+import uz.com.service.auth.AuthRateLimiter;
+import uz.com.service.auth.AuthenticationService;
+import uz.com.service.auth.JwtClaimsCache;
+import uz.com.service.auth.JwtService;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(UserController.class)
+@Import({SecurityConfig.class, JwtService.class, JwtClaimsCache.class, AuthenticationService.class,
+        AuthRateLimiter.class, SimpleMeterRegistry.class})
+class UserControllerSecurityTest {
+
+    private static final String BODY = "{\"fullName\":\"Client\",\"email\":\"client@gmail.com\",\"password\":\"secret\"," +
+            "\"address\":\"Tashkent\",\"gender\":\"MALE\",\"phone\":\"+998900000001\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @Test
+    void update_ShouldRenderAsyncResult_ForAuthenticatedClient() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(userService.updateUserProfile(eq(id), any()))
+                .thenReturn(CompletableFuture.supplyAsync(() -> GeneralResponse.ok("User updated!", null)));
+
+        MvcResult result = mockMvc.perform(put("/brb/users/update/{id}", id)
+                        .header("authorization", "Bearer " + jwtService.generateAccessToken(client()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("User updated!"));
+    }
+
+    @Test
+    void update_ShouldRejectRequestWithoutToken_BeforeStartingAsyncWork() throws Exception {
+        mockMvc.perform(put("/brb/users/update/{id}", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isForbidden())
+                .andExpect(request().asyncNotStarted());
+
+        verifyNoInteractions(userService);
+    }
+
+    private static UserEntity client() {
+        UserEntity user = new UserEntity();
+        user.setId(UUID.randomUUID());
+        user.setEmail("client@gmail.com");
+        user.setRole(Set.of(UserRole.CLIENT));
+        return user;
+    }
+}
@@ -0,0 +1,189 @@
+package uz.com.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import uz.com.service.auth.AuthRateLimiter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    private static final String SIGN_IN = "/brb/auth/sign-in";
+
+    @Mock
+    private AuthRateLimiter authRateLimiter;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitFilter = new RateLimitFilter(authRateLimiter, objectMapper, Set.of("10.0.0.1"));
+    }
+
+    @Test
+    void doFilter_ShouldLimitByJsonEmail_AndReplayWholeBodyDownstream() throws Exception {
+        String body = "{\"email\":\" User@Example.com \",\"password\":\"" + "x".repeat(20_000) + "\"}";
+        MockHttpServletRequest request = json(SIGN_IN, body);
+        MockFilterChain chain = new MockFilterChain();
+
+        rateLimitFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(authRateLimiter).acquire(SIGN_IN, "192.168.1.5", null);
+        assertEquals(body, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void doFilter_ShouldReadEmailOfSmallBody_AndReplayItThroughReader() throws Exception {
+        String body = "{\"email\":\" User@Example.com \",\"password\":\"secret\"}";
+        MockHttpServletRequest request = json(SIGN_IN, body);
+        MockFilterChain chain = new MockFilterChain();
+
+        rateLimitFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(authRateLimiter).acquire(SIGN_IN, "192.168.1.5", "user@example.com");
+        assertEquals(body, chain.getRequest().getReader().readLine());
+    }
+
+    @Test
+    void doFilter_ShouldAnswer429WithRetryAfter_WhenLimited() throws Exception {
+        MockHttpServletRequest request = json(SIGN_IN, "{\"email\":\"user@example.com\"}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        when(authRateLimiter.acquire(any(), any(), any())).thenReturn(TimeUnit.MILLISECONDS.toNanos(1_500));
+
+        rateLimitFilter.doFilter(request, response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("Too many requests! Try again later!",
+                objectMapper.readTree(response.getContentAsString()).get("message").asText());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_ShouldSkipPathsThatAreNotLimited() throws Exception {
+        MockHttpServletRequest request = json("/brb/auth/sign-up", "{\"email\":\"user@example.com\"}");
+        MockFilterChain chain = new MockFilterChain();
+
+        rateLimitFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verifyNoInteractions(authRateLimiter);
+        assertSame(request, chain.getRequest());
+    }
+
+    @Test
+    void doFilter_ShouldTrustForwardedForOnlyFromConfiguredProxies() throws Exception {
+        MockHttpServletRequest direct = json(SIGN_IN, "{}");
+        direct.addHeader("X-Forwarded-For", "1.1.1.1");
+        MockHttpServletRequest proxied = json(SIGN_IN, "{}");
+        proxied.setRemoteAddr("10.0.0.1");
+        proxied.addHeader("X-Forwarded-For", "1.1.1.1, 2.2.2.2, 10.0.0.1");
+
+        rateLimitFilter.doFilter(direct, new MockHttpServletResponse(), new MockFilterChain());
+        rateLimitFilter.doFilter(proxied, new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(authRateLimiter).acquire(SIGN_IN, "192.168.1.5", null);
+        verify(authRateLimiter).acquire(SIGN_IN, "2.2.2.2", null);
+    }
+
+    @Test
+    void doFilter_ShouldDelegateReadListener_AndReplayBufferedHeadFirst() throws Exception {
+        String body = "{\"email\":\"user@example.com\"}";
+        RecordingInputStream original = new RecordingInputStream(body);
+        HttpServletRequest request = new HttpServletRequestWrapper(json(SIGN_IN, "")) {
+            @Override
+            public ServletInputStream getInputStream() {
+                return original;
+            }
+        };
+        MockFilterChain chain = new MockFilterChain();
+        rateLimitFilter.doFilter(request, new MockHttpServletResponse(), chain);
+        ServletInputStream replayed = chain.getRequest().getInputStream();
+        List<String> events = new ArrayList<>();
+
+        replayed.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add(new String(replayed.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                events.add("error");
+            }
+        });
+        assertNotNull(original.listener);
+        original.listener.onAllDataRead();
+
+        assertEquals(List.of(body, "done"), events);
+        assertTrue(replayed.isFinished());
+    }
+
+    private static MockHttpServletRequest json(String uri, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr("192.168.1.5");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static class RecordingInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream body;
+        private ReadListener listener;
+
+        private RecordingInputStream(String body) {
+            this.body = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int read() {
+            return body.read();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return body.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            this.listener = readListener;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package uz.com.model.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_ShouldKeepExactCents_AndRejectSubCentAmounts() {
+        assertEquals(1050, Money.of(new BigDecimal("10.5")).minor());
+        assertEquals(new BigDecimal("10.50"), Money.of(new BigDecimal("10.5")).toBigDecimal());
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.001")));
+        assertTrue(Money.parse(new BigDecimal("0.001")).isEmpty());
+        assertTrue(Money.parse(null).isEmpty());
+        assertEquals(1, Money.of(new BigDecimal("0.005"), RoundingMode.HALF_UP).minor());
+        assertEquals(0, Money.of(new BigDecimal("0.005"), RoundingMode.HALF_EVEN).minor());
+    }
+
+    @Test
+    void arithmetic_ShouldBeExact_AndFailOnOverflow() {
+        Money tenth = Money.of(new BigDecimal("0.10"));
+        Money sum = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            sum = sum.plus(tenth);
+        }
+        assertEquals(Money.of(BigDecimal.ONE), sum);
+        assertEquals(Money.ZERO, sum.minus(Money.ofMinor(100)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+    }
+
+    @Test
+    void divideAndPercent_ShouldMatchBigDecimalRounding() {
+        RoundingMode[] modes = {RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+                RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN};
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 10_000; i++) {
+            long minor = random.nextLong(-1_000_000_000L, 1_000_000_000L);
+            long divisor = random.nextLong(1, 10_000) * (random.nextBoolean() ? 1 : -1);
+            double percent = random.nextInt(0, 10_000) / 100.0;
+            for (RoundingMode mode : modes) {
+                assertEquals(BigDecimal.valueOf(minor).divide(BigDecimal.valueOf(divisor), 0, mode).longValueExact(),
+                        Money.divide(minor, divisor, mode));
+                assertEquals(BigDecimal.valueOf(minor).multiply(BigDecimal.valueOf(percent))
+                                .divide(BigDecimal.valueOf(1200), 0, mode).longValueExact(),
+                        Money.percent(minor, percent, 12, mode));
+            }
+        }
+        assertThrows(ArithmeticException.class, () -> Money.divide(1, 3, RoundingMode.UNNECESSARY));
+    }
+}
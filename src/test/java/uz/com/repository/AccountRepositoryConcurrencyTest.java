@@ -0,0 +1,115 @@
+package uz.com.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.com.model.entity.AccountsEntity;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.AccountType;
+import uz.com.model.money.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("jpa")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountRepositoryConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int DEBITS_PER_THREAD = 10;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from accounts");
+        jdbcTemplate.update("delete from users_role");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void debitBalance_ShouldNeverOverdraw_WhenManyThreadsDebitOneAccount() throws Exception {
+        Money start = money("100.00");
+        Money debit = money("7.00");
+        AccountsEntity account = account(start);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    for (int i = 0; i < DEBITS_PER_THREAD; i++) {
+                        Integer updated = transactionTemplate.execute(status ->
+                                accountRepository.debitBalance(account.getId(), debit));
+                        (updated == 1 ? accepted : rejected).incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            assertTrue(ready.await(10, TimeUnit.SECONDS));
+            go.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Money balance = accountRepository.findById(account.getId()).orElseThrow().getBalance();
+        Money debited = debit.times(accepted.get());
+        assertFalse(balance.isNegative());
+        assertEquals(start, balance.plus(debited));
+        assertEquals(14, accepted.get());
+        assertEquals(THREADS * DEBITS_PER_THREAD - accepted.get(), rejected.get());
+        assertTrue(balance.isLessThan(debit));
+    }
+
+    private AccountsEntity account(Money balance) {
+        UserEntity owner = userRepository.save(AccountRepositoryTest.user("racer@gmail.com", "+998900000009"));
+        AccountsEntity account = new AccountsEntity();
+        account.setUser(owner);
+        account.setType(AccountType.MAIN);
+        account.setInterestRate(0);
+        account.setBalance(balance);
+        return accountRepository.save(account);
+    }
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+}
@@ -0,0 +1,132 @@
+package uz.com.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import uz.com.model.entity.AccountsEntity;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.AccountType;
+import uz.com.model.enums.UserRole;
+import uz.com.model.money.Money;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("jpa")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AccountRepositoryTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private UserEntity owner;
+    private UserEntity stranger;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("owner@gmail.com", "+998900000001"));
+        stranger = entityManager.persist(user("stranger@gmail.com", "+998900000002"));
+    }
+
+    @Test
+    void debitBalance_ShouldDebit_WhenBalanceCoversAmount() {
+        AccountsEntity account = account(owner, "100.00", false);
+
+        assertEquals(1, accountRepository.debitBalance(account.getId(), money("40.00")));
+        assertEquals(1, accountRepository.debitBalance(account.getId(), money("60.00")));
+
+        assertBalance(account, "0.00");
+    }
+
+    @Test
+    void debitBalance_ShouldMatchNoRow_WhenAmountExceedsBalance() {
+        AccountsEntity account = account(owner, "100.00", false);
+
+        assertEquals(0, accountRepository.debitBalance(account.getId(), money("100.01")));
+
+        assertBalance(account, "100.00");
+    }
+
+    @Test
+    void debitBalance_ShouldNeverOverdraw_AcrossRepeatedDebits() {
+        AccountsEntity account = account(owner, "50.00", false);
+        int applied = 0;
+        for (int i = 0; i < 10; i++) {
+            applied += accountRepository.debitBalance(account.getId(), money("7.00"));
+        }
+
+        assertEquals(7, applied);
+        assertBalance(account, "1.00");
+    }
+
+    @Test
+    void debitBalance_ShouldMatchNoRow_ForDeletedAccount() {
+        AccountsEntity account = account(owner, "100.00", true);
+
+        assertEquals(0, accountRepository.debitBalance(account.getId(), money("1.00")));
+
+        assertBalance(account, "100.00");
+    }
+
+    @Test
+    void debitOwnedBalance_ShouldMatchNoRow_WhenAccountBelongsToSomeoneElse() {
+        AccountsEntity account = account(owner, "100.00", false);
+
+        assertEquals(0, accountRepository.debitOwnedBalance(account.getId(), stranger.getId(), money("10.00")));
+        assertEquals(0, accountRepository.debitOwnedBalance(account.getId(), owner.getId(), money("100.01")));
+        assertEquals(1, accountRepository.debitOwnedBalance(account.getId(), owner.getId(), money("10.00")));
+
+        assertBalance(account, "90.00");
+    }
+
+    @Test
+    void creditBalance_ShouldSkipDeletedAccount() {
+        AccountsEntity live = account(owner, "10.00", false);
+        AccountsEntity deleted = account(owner, "10.00", true);
+
+        assertEquals(1, accountRepository.creditBalance(live.getId(), money("2.50")));
+        assertEquals(0, accountRepository.creditBalance(deleted.getId(), money("2.50")));
+
+        assertBalance(live, "12.50");
+        assertBalance(deleted, "10.00");
+    }
+
+    private void assertBalance(AccountsEntity account, String expected) {
+        assertEquals(money(expected), accountRepository.findById(account.getId()).orElseThrow().getBalance());
+    }
+
+    private AccountsEntity account(UserEntity user, String balance, boolean deleted) {
+        AccountsEntity account = new AccountsEntity();
+        account.setUser(user);
+        account.setType(AccountType.MAIN);
+        account.setInterestRate(0);
+        account.setBalance(money(balance));
+        account.setDeleted(deleted);
+        return entityManager.persistFlushFind(account);
+    }
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+
+    static UserEntity user(String email, String phone) {
+        UserEntity user = new UserEntity();
+        user.setFullName("Test User");
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setPassword("Password1!");
+        user.setAddress("Tashkent");
+        user.setRole(Set.of(UserRole.CLIENT));
+        return user;
+    }
+}
@@ -0,0 +1,88 @@
+package uz.com.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import uz.com.model.enums.SoftDeleteGuard;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkSoftDeleteRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Captor
+    private ArgumentCaptor<PreparedStatementCreator> creator;
+
+    private BulkSoftDeleteRepository bulkSoftDeleteRepository;
+
+    @BeforeEach
+    void setUp() {
+        bulkSoftDeleteRepository = new BulkSoftDeleteRepository(jdbcTemplate);
+    }
+
+    @Test
+    void softDelete_ShouldNotAddPredicate_WithoutGuard() throws Exception {
+        assertEquals("update accounts set is_deleted = true, deleted_at = ?, deleted_by = ?, updated_at = ? " +
+                "where id = any(?) and is_deleted = false returning id", sqlOf("accounts", SoftDeleteGuard.NONE));
+    }
+
+    @Test
+    void softDelete_ShouldSkipRunningLoans_WithLoanGuard() throws Exception {
+        assertEquals("update loans set is_deleted = true, deleted_at = ?, deleted_by = ?, updated_at = ? " +
+                        "where id = any(?) and is_deleted = false and status not in ('ACTIVE', 'FREEZE', 'OVERDUE') returning id",
+                sqlOf("loans", SoftDeleteGuard.LOAN_NOT_RUNNING));
+    }
+
+    @Test
+    void softDelete_ShouldRejectUnknownTableOrGuard() {
+        List<UUID> ids = List.of(UUID.randomUUID());
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                bulkSoftDeleteRepository.softDelete("users; drop table users", ids, null, now, SoftDeleteGuard.NONE));
+        assertThrows(IllegalArgumentException.class, () ->
+                bulkSoftDeleteRepository.softDelete("accounts", ids, null, now, SoftDeleteGuard.LOAN_NOT_RUNNING));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private String sqlOf(String table, SoftDeleteGuard guard) throws Exception {
+        when(jdbcTemplate.query(creator.capture(), any(RowMapper.class))).thenReturn(List.of());
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(connection.createArrayOf(eq("uuid"), any())).thenReturn(mock(Array.class));
+
+        bulkSoftDeleteRepository.softDelete(table, List.of(UUID.randomUUID()), UUID.randomUUID(), LocalDateTime.now(), guard);
+        creator.getValue().createPreparedStatement(connection);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(sql.capture());
+        return sql.getValue();
+    }
+}
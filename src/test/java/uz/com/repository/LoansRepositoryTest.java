@@ -0,0 +1,106 @@
+package uz.com.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import uz.com.model.entity.LoansEntity;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.LoanStatus;
+import uz.com.model.money.Money;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("jpa")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class LoansRepositoryTest {
+
+    @Autowired
+    private LoansRepository loansRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private UserEntity borrower;
+
+    @BeforeEach
+    void setUp() {
+        borrower = entityManager.persist(AccountRepositoryTest.user("borrower@gmail.com", "+998900000003"));
+    }
+
+    @Test
+    void compareAndPay_ShouldApplyOnlyFirstOfTwoPaymentsReadFromSameSnapshot() {
+        LoansEntity loan = loan("100.00", LoanStatus.ACTIVE, false);
+
+        assertEquals(1, loansRepository.compareAndPay(loan.getId(), money("100.00"), LoanStatus.ACTIVE,
+                money("60.00"), money("40.00"), LoanStatus.ACTIVE));
+        assertEquals(0, loansRepository.compareAndPay(loan.getId(), money("100.00"), LoanStatus.ACTIVE,
+                money("70.00"), money("30.00"), LoanStatus.ACTIVE));
+
+        LoansEntity stored = loansRepository.findById(loan.getId()).orElseThrow();
+        assertEquals(money("60.00"), stored.getMustBePay());
+        assertEquals(money("40.00"), stored.getPaidEver());
+    }
+
+    @Test
+    void compareAndPay_ShouldMatchNoRow_WhenStatusChangedSinceRead() {
+        LoansEntity loan = loan("100.00", LoanStatus.FREEZE, false);
+
+        assertEquals(0, loansRepository.compareAndPay(loan.getId(), money("100.00"), LoanStatus.ACTIVE,
+                money("60.00"), money("40.00"), LoanStatus.ACTIVE));
+
+        assertEquals(money("100.00"), loansRepository.findById(loan.getId()).orElseThrow().getMustBePay());
+    }
+
+    @Test
+    void compareAndPay_ShouldMatchNoRow_ForDeletedLoan() {
+        LoansEntity loan = loan("100.00", LoanStatus.ACTIVE, true);
+
+        assertEquals(0, loansRepository.compareAndPay(loan.getId(), money("100.00"), LoanStatus.ACTIVE,
+                money("0.00"), money("100.00"), LoanStatus.COMPLETED));
+
+        assertEquals(LoanStatus.ACTIVE, loansRepository.findById(loan.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void compareAndPay_ShouldNeverOverpay_AcrossChainedPayments() {
+        LoansEntity loan = loan("50.00", LoanStatus.ACTIVE, false);
+        Money mustBePay = money("50.00");
+        Money paidEver = Money.ZERO;
+        Money payment = money("7.00");
+        while (!payment.isGreaterThan(mustBePay)) {
+            Money remaining = mustBePay.minus(payment);
+            Money paid = paidEver.plus(payment);
+            assertEquals(1, loansRepository.compareAndPay(loan.getId(), mustBePay, LoanStatus.ACTIVE,
+                    remaining, paid, LoanStatus.ACTIVE));
+            mustBePay = remaining;
+            paidEver = paid;
+        }
+
+        LoansEntity stored = loansRepository.findById(loan.getId()).orElseThrow();
+        assertEquals(money("1.00"), stored.getMustBePay());
+        assertEquals(money("49.00"), stored.getPaidEver());
+    }
+
+    private LoansEntity loan(String mustBePay, LoanStatus status, boolean deleted) {
+        LoansEntity loan = new LoansEntity();
+        loan.setUser(borrower);
+        loan.setAmount(money(mustBePay));
+        loan.setInterestRate(0.0);
+        loan.setStatus(status);
+        loan.setMustBePay(money(mustBePay));
+        loan.setPaidEver(Money.ZERO);
+        loan.setDeleted(deleted);
+        return entityManager.persistFlushFind(loan);
+    }
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+}
@@ -0,0 +1,48 @@
+package uz.com.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.UserStep;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("jpa")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void save_ShouldNotOverwriteStepWrittenByUpdateSteps_WithStaleEntityState() {
+        UserEntity user = AccountRepositoryTest.user("stepper@gmail.com", "+998900000004");
+        user.setRole(new HashSet<>(user.getRole()));
+        user.setStep(UserStep.REGISTRATION);
+        UserEntity stale = entityManager.persistAndFlush(user);
+
+        assertEquals(1, userRepository.updateSteps(List.of(stale.getId()), UserStep.ACCOUNT_CREATE));
+        stale.setAddress("Samarkand");
+        userRepository.saveAndFlush(stale);
+
+        assertEquals("ACCOUNT_CREATE", jdbcTemplate.queryForObject("select step from users where id = ?", String.class,
+                stale.getId()));
+        assertEquals("Samarkand", jdbcTemplate.queryForObject("select address from users where id = ?", String.class,
+                stale.getId()));
+    }
+}
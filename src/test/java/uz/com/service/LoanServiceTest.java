@@ -0,0 +1,142 @@
+package uz.com.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import uz.com.exception.DataNotAcceptableException;
+import uz.com.mapper.LoanMapper;
+import uz.com.model.dto.request.LoanCreateRequest;
+import uz.com.model.dto.response.GeneralResponse;
+import uz.com.model.dto.response.LoanResponse;
+import uz.com.model.dto.response.PageResponse;
+import uz.com.model.entity.LoansEntity;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.LoanStatus;
+import uz.com.model.enums.UserRole;
+import uz.com.repository.LoansRepository;
+import uz.com.repository.UserRepository;
+import uz.com.service.paging.PageCursor;
+
+import java.math.BigDecimal;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanServiceTest {
+
+    @Mock
+    private LoansRepository loansRepository;
+
+    @Mock
+    private LoanMapper loanMapper;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private LoanService loanService;
+
+    @Test
+    void saveLoan_ShouldRejectZeroAmount() {
+        UserEntity client = new UserEntity();
+        client.setId(UUID.randomUUID());
+        client.setRole(Set.of(UserRole.CLIENT));
+        LoanCreateRequest request = LoanCreateRequest.builder()
+                .amount(BigDecimal.ZERO)
+                .interestRate(12.0)
+                .months(12)
+                .userId(client.getId().toString())
+                .build();
+        when(loanMapper.toEntity(request)).thenReturn(new LoansEntity());
+        when(userRepository.findUserEntityByIdAndDeletedFalse(client.getId())).thenReturn(client);
+
+        Exception exception = assertThrows(DataNotAcceptableException.class,
+                () -> loanService.saveLoan(request, mock(Principal.class)));
+
+        assertEquals("Invalid amount!", exception.getMessage());
+        verify(loansRepository, never()).save(any());
+    }
+
+    @Test
+    void getAllLoans_ShouldReturnOnlyRequestedPage_WhenFilteringByStatus() {
+        long activeLoans = 250_000;
+        int page = 3;
+        int size = 20;
+        List<LoansEntity> rows = loans(size, LocalDateTime.of(2025, 1, 1, 0, 0));
+        when(loansRepository.findAllByStatusAndDeletedIsFalse(eq(LoanStatus.ACTIVE), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(rows, invocation.getArgument(1), activeLoans));
+        when(loanMapper.toResponse(any(LoansEntity.class))).thenAnswer(invocation -> response(invocation.getArgument(0)));
+
+        GeneralResponse<PageResponse<LoanResponse>> response = loanService.getAllLoans(page, size, "active", null);
+
+        assertEquals("These are loans", response.getMessage());
+        assertEquals(rows.stream().map(LoansEntity::getId).toList(),
+                response.getData().getResponse().stream().map(LoanResponse::getId).toList());
+        assertTrue(response.getData().getResponse().stream().allMatch(loan -> loan.getStatus() == LoanStatus.ACTIVE));
+        assertEquals(activeLoans, response.getData().getTotalCount());
+        assertEquals(12_500, response.getData().getPageCount());
+        assertFalse(response.getData().getEstimated());
+        assertNull(response.getData().getNextCursor());
+    }
+
+    @Test
+    void getAllLoans_ShouldReturnPageAndNextCursor_WhenCursorIsGiven() {
+        int size = 2;
+        List<LoansEntity> rows = loans(size + 1, LocalDateTime.of(2025, 1, 1, 0, 0));
+        PageCursor after = new PageCursor(LocalDateTime.of(2025, 2, 1, 0, 0), UUID.randomUUID());
+        when(loansRepository.findPageByStatus(after.createdAt(), after.id(), LoanStatus.ACTIVE, PageCursor.limit(size)))
+                .thenReturn(rows);
+        when(loanMapper.toResponse(any(LoansEntity.class))).thenAnswer(invocation -> response(invocation.getArgument(0)));
+
+        PageResponse<LoanResponse> response = loanService.getAllLoans(0, size, "ACTIVE", after.encode()).getData();
+
+        assertEquals(List.of(rows.get(0).getId(), rows.get(1).getId()),
+                response.getResponse().stream().map(LoanResponse::getId).toList());
+        assertEquals(new PageCursor(rows.get(1).getCreatedAt(), rows.get(1).getId()), PageCursor.decode(response.getNextCursor()));
+        assertNull(response.getTotalCount());
+    }
+
+    @Test
+    void getAllLoans_ShouldReturnLastPageWithoutCursor_WhenNoMoreRows() {
+        List<LoansEntity> rows = loans(1, LocalDateTime.of(2025, 1, 1, 0, 0));
+        when(loansRepository.findPage(PageCursor.FIRST.createdAt(), PageCursor.FIRST.id(), PageCursor.limit(5))).thenReturn(rows);
+        when(loanMapper.toResponse(any(LoansEntity.class))).thenAnswer(invocation -> response(invocation.getArgument(0)));
+
+        PageResponse<LoanResponse> response = loanService.getAllLoans(0, 5, null, "").getData();
+
+        assertEquals(List.of(rows.get(0).getId()), response.getResponse().stream().map(LoanResponse::getId).toList());
+        assertNull(response.getNextCursor());
+    }
+
+    private static List<LoansEntity> loans(int count, LocalDateTime newest) {
+        List<LoansEntity> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LoansEntity loan = new LoansEntity();
+            loan.setId(UUID.randomUUID());
+            loan.setStatus(LoanStatus.ACTIVE);
+            loan.setCreatedAt(newest.minusMinutes(i));
+            rows.add(loan);
+        }
+        return rows;
+    }
+
+    private static LoanResponse response(LoansEntity loan) {
+        return LoanResponse.builder()
+                .id(loan.getId())
+                .status(loan.getStatus())
+                .build();
+    }
+}
@@ -0,0 +1,209 @@
+package uz.com.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.com.exception.DataNotAcceptableException;
+import uz.com.exception.DataNotFoundException;
+import uz.com.mapper.TransactionMapper;
+import uz.com.model.dto.request.TransactionCreateRequest;
+import uz.com.model.dto.request.TransferCreateRequest;
+import uz.com.model.dto.response.GeneralResponse;
+import uz.com.model.dto.response.TransactionResponse;
+import uz.com.model.entity.AccountsEntity;
+import uz.com.model.entity.TransactionEntity;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.AccountType;
+import uz.com.model.enums.EntryDirection;
+import uz.com.model.money.Money;
+import uz.com.repository.AccountRepository;
+import uz.com.repository.TransactionRepository;
+import uz.com.service.auth.CurrentUserService;
+import uz.com.service.ledger.LedgerService;
+import uz.com.service.step.UserStepTracker;
+
+import java.math.BigDecimal;
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private UserStepTracker userStepTracker;
+
+    @Mock
+    private TransactionMapper transactionMapper;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Captor
+    private ArgumentCaptor<List<TransactionEntity>> legs;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    @Test
+    void saveTransaction_ShouldRejectZeroAmount_WithoutDebiting() {
+        UUID accountId = UUID.randomUUID();
+        TransactionCreateRequest request = new TransactionCreateRequest(BigDecimal.ZERO, "PAYMENT", accountId.toString());
+
+        when(currentUserService.getUserId(any())).thenReturn(UUID.randomUUID());
+        when(transactionMapper.toEntity(request)).thenReturn(new TransactionEntity());
+        when(accountRepository.findAccountsEntityByIdAndDeletedFalse(accountId)).thenReturn(account(accountId, BigDecimal.valueOf(100)));
+
+        Exception exception = assertThrows(DataNotAcceptableException.class,
+                () -> transactionService.saveTransaction(request, mock(Principal.class)));
+
+        assertEquals("Bad request! Action not acceptable! Invalid amount!", exception.getMessage());
+        verify(accountRepository, never()).debitBalance(any(), any());
+        verifyNoInteractions(transactionRepository, ledgerService);
+    }
+
+    @Test
+    void saveTransaction_ShouldThrowException_WhenDebitMatchesNoRow() {
+        UUID accountId = UUID.randomUUID();
+        TransactionCreateRequest request = new TransactionCreateRequest(BigDecimal.valueOf(500), "PAYMENT", accountId.toString());
+
+        when(currentUserService.getUserId(any())).thenReturn(UUID.randomUUID());
+        when(transactionMapper.toEntity(request)).thenReturn(new TransactionEntity());
+        when(accountRepository.findAccountsEntityByIdAndDeletedFalse(accountId)).thenReturn(account(accountId, BigDecimal.valueOf(100)));
+        when(accountRepository.debitBalance(accountId, Money.of(new BigDecimal("500.00")))).thenReturn(0);
+
+        Exception exception = assertThrows(DataNotAcceptableException.class,
+                () -> transactionService.saveTransaction(request, mock(Principal.class)));
+
+        assertEquals("Has no enough balance in account! Try again later!", exception.getMessage());
+        verify(transactionRepository, never()).save(any(TransactionEntity.class));
+        verify(accountRepository, never()).save(any(AccountsEntity.class));
+    }
+
+    @Test
+    void transfer_ShouldMoveMoney_WhenCallerOwnsSourceAccount() {
+        UUID ownerId = UUID.randomUUID();
+        AccountsEntity from = account(UUID.randomUUID(), new BigDecimal("100.00"), ownerId);
+        AccountsEntity to = account(UUID.randomUUID(), new BigDecimal("5.00"), UUID.randomUUID());
+        Principal principal = mock(Principal.class);
+        when(currentUserService.getUserId(principal)).thenReturn(ownerId);
+        when(currentUserService.isStaff(principal)).thenReturn(false);
+        when(accountRepository.findAllByIdInOrderByIdForUpdate(any())).thenReturn(sorted(from, to));
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionMapper.toResponse(any(TransactionEntity.class))).thenAnswer(invocation -> new TransactionResponse());
+
+        GeneralResponse<List<TransactionResponse>> response = transactionService.transfer(transfer("30", from, to), principal);
+
+        assertEquals("Transfer completed!", response.getMessage());
+        assertEquals(2, response.getData().size());
+        assertEquals(Money.of(new BigDecimal("70.00")), from.getBalance());
+        assertEquals(Money.of(new BigDecimal("35.00")), to.getBalance());
+        verify(ledgerService).record(legs.capture());
+        assertEquals(List.of(EntryDirection.DEBIT, EntryDirection.CREDIT), legs.getValue().stream().map(TransactionEntity::getDirection).toList());
+        assertEquals(List.of(from, to), legs.getValue().stream().map(TransactionEntity::getAccount).toList());
+    }
+
+    @Test
+    void transfer_ShouldRejectClient_WhenSourceAccountBelongsToSomeoneElse() {
+        AccountsEntity from = account(UUID.randomUUID(), new BigDecimal("100.00"), UUID.randomUUID());
+        AccountsEntity to = account(UUID.randomUUID(), new BigDecimal("5.00"), UUID.randomUUID());
+        Principal principal = mock(Principal.class);
+        when(currentUserService.getUserId(principal)).thenReturn(to.getUser().getId());
+        when(currentUserService.isStaff(principal)).thenReturn(false);
+        when(accountRepository.findAllByIdInOrderByIdForUpdate(any())).thenReturn(sorted(from, to));
+
+        assertThrows(DataNotFoundException.class, () -> transactionService.transfer(transfer("30", from, to), principal));
+
+        assertEquals(Money.of(new BigDecimal("100.00")), from.getBalance());
+        assertEquals(Money.of(new BigDecimal("5.00")), to.getBalance());
+        verify(transactionRepository, never()).saveAll(anyList());
+        verifyNoInteractions(ledgerService);
+    }
+
+    @Test
+    void transfer_ShouldAllowStaff_ToMoveMoneyFromAnyAccount() {
+        AccountsEntity from = account(UUID.randomUUID(), new BigDecimal("100.00"), UUID.randomUUID());
+        AccountsEntity to = account(UUID.randomUUID(), new BigDecimal("5.00"), UUID.randomUUID());
+        Principal principal = mock(Principal.class);
+        when(currentUserService.getUserId(principal)).thenReturn(UUID.randomUUID());
+        when(currentUserService.isStaff(principal)).thenReturn(true);
+        when(accountRepository.findAllByIdInOrderByIdForUpdate(any())).thenReturn(sorted(from, to));
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        transactionService.transfer(transfer("100", from, to), principal);
+
+        assertEquals(Money.ZERO, from.getBalance());
+        assertEquals(Money.of(new BigDecimal("105.00")), to.getBalance());
+    }
+
+    @Test
+    void transfer_ShouldReject_WhenBalanceIsInsufficient() {
+        UUID ownerId = UUID.randomUUID();
+        AccountsEntity from = account(UUID.randomUUID(), new BigDecimal("10.00"), ownerId);
+        AccountsEntity to = account(UUID.randomUUID(), new BigDecimal("5.00"), UUID.randomUUID());
+        Principal principal = mock(Principal.class);
+        when(currentUserService.getUserId(principal)).thenReturn(ownerId);
+        when(currentUserService.isStaff(principal)).thenReturn(false);
+        when(accountRepository.findAllByIdInOrderByIdForUpdate(any())).thenReturn(sorted(from, to));
+
+        Exception exception = assertThrows(DataNotAcceptableException.class,
+                () -> transactionService.transfer(transfer("10.01", from, to), principal));
+
+        assertEquals("Has no enough balance in account! Try again later!", exception.getMessage());
+        assertEquals(Money.of(new BigDecimal("10.00")), from.getBalance());
+        verify(transactionRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void transfer_ShouldReject_WhenSourceAndTargetAreTheSameAccount() {
+        AccountsEntity account = account(UUID.randomUUID(), new BigDecimal("10.00"), UUID.randomUUID());
+
+        Exception exception = assertThrows(DataNotAcceptableException.class,
+                () -> transactionService.transfer(transfer("1", account, account), mock(Principal.class)));
+
+        assertEquals("Can not transfer to the same account!", exception.getMessage());
+        verifyNoInteractions(accountRepository, transactionRepository, ledgerService);
+    }
+
+    private static TransferCreateRequest transfer(String amount, AccountsEntity from, AccountsEntity to) {
+        return new TransferCreateRequest(new BigDecimal(amount), from.getId().toString(), to.getId().toString());
+    }
+
+    private static List<AccountsEntity> sorted(AccountsEntity first, AccountsEntity second) {
+        return first.getId().compareTo(second.getId()) < 0 ? List.of(first, second) : List.of(second, first);
+    }
+
+    private static AccountsEntity account(UUID id, BigDecimal balance, UUID ownerId) {
+        AccountsEntity account = account(id, balance);
+        UserEntity owner = new UserEntity();
+        owner.setId(ownerId);
+        account.setUser(owner);
+        return account;
+    }
+
+    private static AccountsEntity account(UUID id, BigDecimal balance) {
+        AccountsEntity account = new AccountsEntity();
+        account.setId(id);
+        account.setType(AccountType.MAIN);
+        account.setBalance(Money.of(balance));
+        return account;
+    }
+}
@@ -5,24 +5,31 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import uz.com.exception.DataHasAlreadyExistsException;
 import uz.com.exception.DataNotAcceptableException;
 import uz.com.exception.DataNotFoundException;
+import uz.com.exception.ServiceBusyException;
 import uz.com.mapper.UserMapper;
+import uz.com.model.dto.request.ForgotPasswordRequest;
 import uz.com.model.dto.request.LoginRequest;
 import uz.com.model.dto.request.UserCreateRequest;
 import uz.com.model.dto.response.GeneralResponse;
 import uz.com.model.dto.response.JwtResponse;
 import uz.com.model.dto.response.UserResponse;
 import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.Gender;
 import uz.com.model.enums.UserRole;
 import uz.com.repository.UserRepository;
 import uz.com.service.auth.JwtService;
+import uz.com.service.auth.PasswordHashingService;
+import uz.com.service.paging.CountService;
+import uz.com.service.verification.VerificationCodeStore;
 
 import java.security.Principal;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,11 +44,17 @@ class UserServiceTest {
     private UserMapper userMapper;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private CountService countService;
+
+    @Mock
+    private VerificationCodeStore verificationCodeStore;
+
     @InjectMocks
     private UserService userService;
 
@@ -74,13 +87,13 @@ class UserServiceTest {
         when(userRepository.existsUserEntityByEmailAndPhoneAndDeletedIsFalse(request.getEmail(), request.getPhone()))
                 .thenReturn(false);
         when(userMapper.toEntity(request)).thenReturn(userEntity);
-        when(passwordEncoder.encode(request.getPassword())).thenReturn("encodedPassword");
+        when(passwordHashingService.encode(request.getPassword())).thenReturn(CompletableFuture.completedFuture("encodedPassword"));
         when(userRepository.save(any(UserEntity.class))).thenReturn(userEntity);
         when(userMapper.toResponse(any(UserEntity.class))).thenReturn(userResponse);
         when(jwtService.generateAccessToken(any(UserEntity.class))).thenReturn("access-token");
         when(jwtService.generateRefreshToken(any(UserEntity.class))).thenReturn("refresh-token");
 
-        GeneralResponse<JwtResponse> response = userService.save(request);
+        GeneralResponse<JwtResponse> response = userService.save(request).join();
 
         assertNotNull(response);
         assertEquals("User registered!", response.getMessage());
@@ -132,13 +145,13 @@ class UserServiceTest {
 
         when(userRepository.findUserEntityByEmailAndDeletedFalse(request.getEmail()))
                 .thenReturn(user);
-        when(passwordEncoder.matches(request.getPassword(), user.getPassword()))
-                .thenReturn(true);
+        when(passwordHashingService.matches(request.getPassword(), user.getPassword()))
+                .thenReturn(CompletableFuture.completedFuture(true));
         when(userMapper.toResponse(user)).thenReturn(response);
         when(jwtService.generateAccessToken(user)).thenReturn("access-token");
         when(jwtService.generateRefreshToken(user)).thenReturn("refresh-token");
 
-        GeneralResponse<JwtResponse> jwtResponseGeneralResponse = userService.login(request);
+        GeneralResponse<JwtResponse> jwtResponseGeneralResponse = userService.login(request).join();
 
         assertNotNull(jwtResponseGeneralResponse);
         assertEquals("User signed", jwtResponseGeneralResponse.getMessage());
@@ -151,6 +164,23 @@ class UserServiceTest {
     }
 
 
+    @Test
+    void login_ShouldFailFuture_WhenPasswordDoesNotMatch() {
+        LoginRequest request = new LoginRequest("test@gmail.com", "Password1!");
+        UserEntity user = new UserEntity();
+        user.setPassword("encodePassword");
+
+        when(userRepository.findUserEntityByEmailAndDeletedFalse(request.getEmail()))
+                .thenReturn(user);
+        when(passwordHashingService.matches(request.getPassword(), user.getPassword()))
+                .thenReturn(CompletableFuture.completedFuture(false));
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> userService.login(request).join());
+        assertInstanceOf(DataNotAcceptableException.class, exception.getCause());
+        verify(jwtService, never()).generateAccessToken(any());
+    }
+
+
     @Test
     void changeRole_ShouldTrowException_WhenUserNotFound() {
         UUID userId = UUID.randomUUID();
@@ -216,4 +246,77 @@ class UserServiceTest {
 
         verify(userRepository).save(userEntity);
     }
+
+
+    @Test
+    void forgotPassword_ShouldLeaveCodeUntouched_WhenHashingIsBusy() {
+        ForgotPasswordRequest request = new ForgotPasswordRequest(12345678, "Password1!", "test@gmail.com");
+        UserEntity user = new UserEntity();
+        user.setId(UUID.randomUUID());
+
+        when(userRepository.findUserEntityByEmailAndDeletedFalse(request.getEmail())).thenReturn(user);
+        when(passwordHashingService.encode(request.getNewPassword()))
+                .thenThrow(new ServiceBusyException("Too many password requests! Try again later!", 1));
+
+        assertThrows(ServiceBusyException.class, () -> userService.forgotPassword(request));
+
+        verifyNoInteractions(verificationCodeStore);
+        verify(userRepository, never()).save(any(UserEntity.class));
+    }
+
+
+    @Test
+    void forgotPassword_ShouldDiscardHash_WhenCodeIsWrong() {
+        ForgotPasswordRequest request = new ForgotPasswordRequest(12345678, "Password1!", "test@gmail.com");
+        UserEntity user = new UserEntity();
+        user.setId(UUID.randomUUID());
+        CompletableFuture<String> encoded = new CompletableFuture<>();
+
+        when(userRepository.findUserEntityByEmailAndDeletedFalse(request.getEmail())).thenReturn(user);
+        when(passwordHashingService.encode(request.getNewPassword())).thenReturn(encoded);
+        when(verificationCodeStore.consume(user.getId(), request.getCode())).thenReturn(false);
+
+        assertThrows(DataNotAcceptableException.class, () -> userService.forgotPassword(request));
+
+        assertTrue(encoded.isCancelled());
+        verify(userRepository, never()).save(any(UserEntity.class));
+    }
+
+
+    @Test
+    void updateUserProfile_ShouldRejectInvalidGender_BeforeHashing() {
+        UUID userId = UUID.randomUUID();
+        UserCreateRequest request = new UserCreateRequest("test test", "test@example.com", "Password1!", "Test Address", "ROBOT", "+998900000000");
+        UserEntity user = new UserEntity();
+        user.setId(userId);
+
+        when(userRepository.findUserEntityByEmailAndDeletedFalse(request.getEmail())).thenReturn(user);
+        when(userRepository.findUserEntityByIdAndDeletedFalse(userId)).thenReturn(user);
+
+        assertThrows(DataNotAcceptableException.class, () -> userService.updateUserProfile(userId, request));
+
+        verifyNoInteractions(passwordHashingService);
+        verify(userRepository, never()).save(any(UserEntity.class));
+    }
+
+
+    @Test
+    void updateUserProfile_ShouldSaveHashedPassword_InContinuation() {
+        UUID userId = UUID.randomUUID();
+        UserCreateRequest request = new UserCreateRequest("test test", "test@example.com", "Password1!", "Test Address", "FEMALE", "+998900000000");
+        UserEntity user = new UserEntity();
+        user.setId(userId);
+
+        when(userRepository.findUserEntityByEmailAndDeletedFalse(request.getEmail())).thenReturn(user);
+        when(userRepository.findUserEntityByIdAndDeletedFalse(userId)).thenReturn(user);
+        when(passwordHashingService.encode(request.getPassword())).thenReturn(CompletableFuture.completedFuture("{hash}"));
+        when(userRepository.save(user)).thenReturn(user);
+        when(userMapper.toResponse(user)).thenReturn(new UserResponse());
+
+        GeneralResponse<UserResponse> response = userService.updateUserProfile(userId, request).join();
+
+        assertEquals("User updated!", response.getMessage());
+        assertEquals("{hash}", user.getPassword());
+        assertEquals(Gender.FEMALE, user.getGender());
+    }
 }
@@ -0,0 +1,268 @@
+package uz.com.service.accrual;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uz.com.model.entity.AccrualCheckpointEntity;
+import uz.com.repository.AccrualCheckpointRepository;
+import uz.com.repository.BalanceSnapshotRepository;
+import uz.com.repository.LedgerEntryRepository;
+import uz.com.service.ledger.LedgerService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("jpa")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InterestAccrualServiceTest {
+
+    private static final LocalDate RUN_DATE = LocalDate.of(2025, 3, 31);
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private final AccrualCheckpointRepository checkpoints = Mockito.mock(AccrualCheckpointRepository.class);
+    private final Map<String, AccrualCheckpointEntity> stored = new ConcurrentHashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<InterestAccrualService> services = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(checkpoints.findAllByBookAndRunDate(anyString(), any())).thenAnswer(invocation -> stored.values().stream()
+                .filter(checkpoint -> checkpoint.getBook().equals(invocation.getArgument(0))
+                        && checkpoint.getRunDate().equals(invocation.getArgument(1)))
+                .toList());
+        when(checkpoints.upsert(anyString(), anyString(), any(), anyInt(), any(), anyLong(), anyBoolean(), any()))
+                .thenAnswer(invocation -> store(invocation.getArguments()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(InterestAccrualService::shutdown);
+        jdbcTemplate.update("delete from loan_installments");
+        jdbcTemplate.update("delete from loans");
+        jdbcTemplate.update("delete from ledger_entries");
+        jdbcTemplate.update("delete from accounts");
+    }
+
+    @Test
+    void bounds_ShouldSplitKeySpaceIntoOrderedPartitions() {
+        assertArrayEquals(new UUID[]{new UUID(0L, 0L), new UUID(-1L, -1L)}, InterestAccrualService.bounds(1));
+
+        UUID[] bounds = InterestAccrualService.bounds(4);
+
+        assertEquals(5, bounds.length);
+        assertEquals(new UUID(0L, 0L), bounds[0]);
+        assertEquals(UUID.fromString("40000000-0000-0000-ffff-ffffffffffff"), bounds[1]);
+        assertEquals(UUID.fromString("80000000-0000-0000-ffff-ffffffffffff"), bounds[2]);
+        assertEquals(UUID.fromString("c0000000-0000-0000-ffff-ffffffffffff"), bounds[3]);
+        assertEquals(new UUID(-1L, -1L), bounds[4]);
+        for (int i = 1; i < bounds.length; i++) {
+            assertTrue(bounds[i - 1].toString().compareTo(bounds[i].toString()) < 0);
+        }
+    }
+
+    @Test
+    void interestOf_ShouldAccrueSimpleDailyInterestInMinorUnits() {
+        assertEquals(986, InterestAccrualService.interestOf(new BigDecimal("1000.00"), 12.0, 30, 365));
+        assertEquals(1000, InterestAccrualService.interestOf(new BigDecimal("1000.00"), 12.0, 30, 360));
+        assertEquals(2, InterestAccrualService.interestOf(new BigDecimal("150.00"), 1.0, 1, 100));
+        assertEquals(2, InterestAccrualService.interestOf(new BigDecimal("250.00"), 1.0, 1, 100));
+        assertEquals(0, InterestAccrualService.interestOf(new BigDecimal("1000.00"), 0.0, 30, 365));
+    }
+
+    @Test
+    void earnedOf_ShouldSpreadInstallmentInterestOverItsPeriod() {
+        LocalDate start = LocalDate.of(2025, 2, 28);
+
+        assertEquals(0, InterestAccrualService.earnedOf(new BigDecimal("3.10"), start, RUN_DATE, start.minusDays(5)));
+        assertEquals(10, InterestAccrualService.earnedOf(new BigDecimal("3.10"), start, RUN_DATE, start.plusDays(1)));
+        assertEquals(150, InterestAccrualService.earnedOf(new BigDecimal("3.10"), start, RUN_DATE, start.plusDays(15)));
+        assertEquals(310, InterestAccrualService.earnedOf(new BigDecimal("3.10"), start, RUN_DATE, RUN_DATE));
+        assertEquals(310, InterestAccrualService.earnedOf(new BigDecimal("3.10"), start, RUN_DATE, RUN_DATE.plusDays(9)));
+    }
+
+    @Test
+    void accrue_ShouldEarnExactlyTheScheduledInterest_ThatMustBePayIncludes() {
+        UUID loanId = loan(1, "1200.00", "0.00");
+        jdbcTemplate.update("update loans set last_accrued_on = null, must_be_pay = 1221.10 where id = ?", loanId);
+        installment(loanId, 1, "10.00");
+        installment(loanId, 2, "8.00");
+        installment(loanId, 3, "3.10");
+
+        assertEquals(1, service(1, 10).accrue(RUN_DATE.minusMonths(1).plusDays(10)));
+        assertEquals(new BigDecimal("19.00"), accruedInterest(loanId));
+
+        assertEquals(1, service(1, 10).accrue(RUN_DATE));
+        assertEquals(1, service(1, 10).accrue(RUN_DATE.plusDays(20)));
+
+        assertEquals(new BigDecimal("21.10"), accruedInterest(loanId));
+        assertEquals(jdbcTemplate.queryForObject("select must_be_pay - amount from loans where id = ?", BigDecimal.class, loanId),
+                accruedInterest(loanId));
+    }
+
+    @Test
+    void accrue_ShouldCapitalizeDepositInterest_AndPostItAsLedgerCredit() {
+        UUID accountId = deposit(1, "1000.00");
+
+        assertEquals(1, service(1, 10).accrue(RUN_DATE));
+        stored.clear();
+        assertEquals(0, service(1, 10).accrue(RUN_DATE));
+
+        assertEquals(new BigDecimal("1009.86"), jdbcTemplate.queryForObject(
+                "select balance from accounts where id = ?", BigDecimal.class, accountId));
+        assertEquals(new BigDecimal("9.86"), jdbcTemplate.queryForObject(
+                "select accrued_interest from accounts where id = ?", BigDecimal.class, accountId));
+        assertEquals(List.of("CREDIT 9.86"), jdbcTemplate.queryForList(
+                "select direction || ' ' || amount from ledger_entries where account_id = ?", String.class, accountId));
+    }
+
+    @Test
+    void accrue_ShouldResumeFromCheckpoint_AfterCrash() {
+        List<UUID> loans = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            loans.add(loan(i, "1000.00", "0.00"));
+            installment(loans.get(i - 1), 3, "3.10");
+        }
+        AtomicInteger upserts = new AtomicInteger();
+        when(checkpoints.upsert(anyString(), anyString(), any(), anyInt(), any(), anyLong(), anyBoolean(), any()))
+                .thenAnswer(invocation -> {
+                    if (upserts.incrementAndGet() == 2) {
+                        throw new IllegalStateException("node crashed");
+                    }
+                    return store(invocation.getArguments());
+                });
+
+        assertThrows(IllegalStateException.class, () -> service(1, 2).accrue(RUN_DATE));
+
+        assertEquals(List.of(true, true, false, false, false), loans.stream().map(id -> accruedInterest(id) != null).toList());
+        AccrualCheckpointEntity checkpoint = stored.get("loans:" + RUN_DATE + ":0/1");
+        assertEquals(loans.get(1), checkpoint.getLastId());
+        assertEquals(2, checkpoint.getProcessed());
+        assertFalse(checkpoint.isCompleted());
+
+        assertEquals(3, service(1, 2).accrue(RUN_DATE));
+
+        for (UUID loanId : loans) {
+            assertEquals(new BigDecimal("1.03"), accruedInterest(loanId));
+        }
+        assertTrue(stored.get("loans:" + RUN_DATE + ":0/1").isCompleted());
+        assertEquals(5, stored.get("loans:" + RUN_DATE + ":0/1").getProcessed());
+    }
+
+    @Test
+    void accrue_ShouldNotAccrueTwice_ForSameRunDate() {
+        UUID loanId = loan(1, "1000.00", "0.00");
+        installment(loanId, 3, "3.10");
+
+        assertEquals(1, service(1, 10).accrue(RUN_DATE.minusDays(15)));
+        stored.clear();
+        assertEquals(0, service(3, 10).accrue(RUN_DATE.minusDays(15)));
+        assertEquals(new BigDecimal("0.51"), accruedInterest(loanId));
+
+        assertEquals(1, service(1, 10).accrue(RUN_DATE));
+        assertEquals(new BigDecimal("1.03"), accruedInterest(loanId));
+    }
+
+    @Test
+    void lag_ShouldCountFromLastCompletedRun() {
+        InterestAccrualService service = service(1, 10);
+        assertTrue(Double.isNaN(meterRegistry.get("accrual.lag.seconds").gauge().value()));
+
+        when(checkpoints.findLastCompletedAt()).thenReturn(LocalDateTime.now().minusHours(2));
+        service.restoreLag();
+        assertEquals(7200, meterRegistry.get("accrual.lag.seconds").gauge().value(), 60);
+
+        service.accrue(RUN_DATE);
+        assertTrue(meterRegistry.get("accrual.lag.seconds").gauge().value() < 60);
+    }
+
+    private InterestAccrualService service(int partitions, int chunkSize) {
+        meterRegistry.clear();
+        InterestAccrualService service = new InterestAccrualService(checkpoints,
+                new LedgerService(ledgerEntryRepository, balanceSnapshotRepository, jdbcTemplate), namedJdbcTemplate, transactionManager,
+                meterRegistry, partitions, chunkSize, 365);
+        services.add(service);
+        return service;
+    }
+
+    private int store(Object[] arguments) {
+        stored.put((String) arguments[0], AccrualCheckpointEntity.builder()
+                .id((String) arguments[0])
+                .book((String) arguments[1])
+                .runDate((LocalDate) arguments[2])
+                .partitionNo((Integer) arguments[3])
+                .lastId((UUID) arguments[4])
+                .processed((Long) arguments[5])
+                .completed((Boolean) arguments[6])
+                .updatedAt((LocalDateTime) arguments[7])
+                .build());
+        return 1;
+    }
+
+    private UUID loan(long number, String amount, String paidEver) {
+        UUID id = new UUID(0L, number);
+        jdbcTemplate.update("insert into loans (id, amount, interest_rate, status, is_deleted, created_at, paid_ever, last_accrued_on) " +
+                        "values (?, ?, 12.0, 'ACTIVE', false, ?, ?, ?)",
+                id, new BigDecimal(amount), RUN_DATE.minusMonths(3).atStartOfDay(), new BigDecimal(paidEver), RUN_DATE.minusDays(30));
+        return id;
+    }
+
+    private UUID deposit(long number, String balance) {
+        UUID id = new UUID(1L, number);
+        jdbcTemplate.update("insert into accounts (id, balance, type, interest_rate, is_deleted, created_at, last_accrued_on) " +
+                        "values (?, ?, 'DEPOSIT', 12, false, ?, ?)",
+                id, new BigDecimal(balance), RUN_DATE.minusMonths(3).atStartOfDay(), RUN_DATE.minusDays(30));
+        return id;
+    }
+
+    private void installment(UUID loanId, int number, String interest) {
+        jdbcTemplate.update("insert into loan_installments (id, loan_id, number, due_date, principal, interest, payment, remaining_principal) " +
+                        "values (nextval('loan_installments_seq'), ?, ?, ?, 0, ?, 0, 0)",
+                loanId, number, RUN_DATE.minusMonths(3 - number), new BigDecimal(interest));
+    }
+
+    private BigDecimal accruedInterest(UUID loanId) {
+        return jdbcTemplate.queryForObject("select accrued_interest from loans where id = ?", BigDecimal.class, loanId);
+    }
+}
@@ -0,0 +1,67 @@
+package uz.com.service.amortization;
+
+import org.junit.jupiter.api.Test;
+import uz.com.model.enums.AmortizationType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmortizationEngineTest {
+
+    @Test
+    void annuity_ShouldRepayPrincipalWithLevelPayments() {
+        AmortizationSchedule schedule = AmortizationEngine.generate(1_000_000, 12.0, 12, AmortizationType.ANNUITY);
+
+        assertEquals(12, schedule.size());
+        assertEquals(88_849, schedule.payment(0));
+        assertEquals(10_000, schedule.interest(0));
+        for (int i = 1; i < schedule.size() - 1; i++) {
+            assertEquals(schedule.payment(0), schedule.payment(i));
+        }
+        assertTrue(Math.abs(schedule.payment(11) - schedule.payment(0)) <= 12);
+        assertEquals(1_000_000, principalOf(schedule));
+        assertEquals(0, schedule.balance(11));
+    }
+
+    @Test
+    void equalPrincipal_ShouldSpreadRemainderAndDecreaseInterest() {
+        AmortizationSchedule schedule = AmortizationEngine.generate(1_000_001, 24.0, 10, AmortizationType.EQUAL_PRINCIPAL);
+
+        assertEquals(100_001, schedule.principal(0));
+        assertEquals(100_000, schedule.principal(9));
+        assertEquals(20_000, schedule.interest(0));
+        for (int i = 1; i < schedule.size(); i++) {
+            assertTrue(schedule.interest(i) < schedule.interest(i - 1));
+        }
+        assertEquals(1_000_001, principalOf(schedule));
+        assertEquals(0, schedule.balance(9));
+    }
+
+    @Test
+    void annuity_ShouldSplitEvenly_WhenRateIsZero() {
+        AmortizationSchedule schedule = AmortizationEngine.generate(1_000, 0, 3, AmortizationType.ANNUITY);
+
+        assertEquals(334, schedule.principal(0));
+        assertEquals(334, schedule.principal(1));
+        assertEquals(332, schedule.principal(2));
+        assertEquals(0, schedule.totalInterest());
+    }
+
+    @Test
+    void generate_ShouldReuseBuffer_AcrossLoans() {
+        AmortizationSchedule buffer = new AmortizationSchedule(360);
+        for (int months = 1; months <= 360; months++) {
+            AmortizationEngine.generate(50_000_000, 18.5, months, AmortizationType.ANNUITY, buffer);
+            assertEquals(months, buffer.size());
+            assertEquals(50_000_000, principalOf(buffer));
+            assertEquals(0, buffer.balance(months - 1));
+        }
+    }
+
+    private static long principalOf(AmortizationSchedule schedule) {
+        long total = 0;
+        for (int i = 0; i < schedule.size(); i++) {
+            total += schedule.principal(i);
+        }
+        return total;
+    }
+}
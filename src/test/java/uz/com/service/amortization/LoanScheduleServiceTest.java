@@ -0,0 +1,115 @@
+package uz.com.service.amortization;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import uz.com.model.entity.LoanInstallmentEntity;
+import uz.com.model.entity.LoansEntity;
+import uz.com.model.enums.AmortizationType;
+import uz.com.model.enums.LoanStatus;
+import uz.com.model.money.Money;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("jpa")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LoanScheduleService.class)
+class LoanScheduleServiceTest {
+
+    @Autowired
+    private LoanScheduleService loanScheduleService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void recomputeAll_ShouldKeepTerms_OfUnpaidLoan() {
+        AmortizationSchedule schedule = AmortizationEngine.generate(120_000, 12.0, 12, AmortizationType.ANNUITY);
+        LoansEntity loan = loan(Money.ZERO);
+
+        assertEquals(1, loanScheduleService.recomputeAll());
+
+        LoansEntity recomputed = reload(loan);
+        assertEquals(Money.ofMinor(schedule.payment(0)), recomputed.getPayPerMonth());
+        assertEquals(Money.ofMinor(120_000 + schedule.totalInterest()), recomputed.getMustBePay());
+        List<LoanInstallmentEntity> installments = loanScheduleService.getSchedule(loan.getId());
+        assertEquals(12, installments.size());
+        assertEquals(Money.ZERO, installments.get(11).getRemainingPrincipal());
+    }
+
+    @Test
+    void recomputeAll_ShouldRescheduleOutstandingPrincipal_OfPartiallyPaidLoan() {
+        AmortizationSchedule original = AmortizationEngine.generate(120_000, 12.0, 12, AmortizationType.ANNUITY);
+        long paidEver = original.payment(0) + original.payment(1) + 5_000;
+        LoansEntity loan = loan(Money.ofMinor(paidEver));
+
+        assertEquals(1, loanScheduleService.recomputeAll());
+
+        List<LoanInstallmentEntity> installments = loanScheduleService.getSchedule(loan.getId());
+        assertEquals(12, installments.size());
+        for (int i = 0; i < 12; i++) {
+            assertEquals(i + 1, installments.get(i).getNumber());
+            assertEquals(loan.getCreatedAt().toLocalDate().plusMonths(i + 1), installments.get(i).getDueDate());
+        }
+        assertEquals(Money.ofMinor(original.balance(1)), installments.get(1).getRemainingPrincipal());
+
+        long interestPaid = original.interest(2);
+        long outstanding = original.balance(1) - (5_000 - interestPaid);
+        long principal = 0;
+        long remaining = 0;
+        for (LoanInstallmentEntity installment : installments.subList(2, 12)) {
+            principal += installment.getPrincipal().minor();
+            remaining += installment.getPayment().minor();
+        }
+        assertEquals(outstanding, principal);
+        assertEquals(Money.ofMinor(outstanding), installments.get(2).getRemainingPrincipal().plus(installments.get(2).getPrincipal()));
+        assertEquals(Money.ZERO, installments.get(11).getRemainingPrincipal());
+
+        LoansEntity recomputed = reload(loan);
+        assertEquals(installments.get(2).getPayment(), recomputed.getPayPerMonth());
+        assertEquals(Money.ofMinor(remaining - interestPaid), recomputed.getMustBePay());
+        assertEquals(Money.ofMinor(paidEver), recomputed.getPaidEver());
+        long owedBefore = 120_000 + original.totalInterest() - paidEver;
+        assertTrue(recomputed.getMustBePay().minor() <= owedBefore);
+        assertTrue(owedBefore - recomputed.getMustBePay().minor() <= (5_000 - interestPaid) * 10 / 100);
+    }
+
+    @Test
+    void recomputeAll_ShouldClearTerms_OfFullyPaidLoan() {
+        AmortizationSchedule original = AmortizationEngine.generate(120_000, 12.0, 12, AmortizationType.ANNUITY);
+        LoansEntity loan = loan(Money.ofMinor(120_000 + original.totalInterest()));
+
+        loanScheduleService.recomputeAll();
+
+        LoansEntity recomputed = reload(loan);
+        assertEquals(Money.ZERO, recomputed.getMustBePay());
+        assertEquals(Money.ZERO, recomputed.getPayPerMonth());
+        assertEquals(12, loanScheduleService.getSchedule(loan.getId()).size());
+    }
+
+    private LoansEntity loan(Money paidEver) {
+        LoansEntity loan = new LoansEntity();
+        loan.setAmount(Money.of(new BigDecimal("1200.00")));
+        loan.setInterestRate(12.0);
+        loan.setMonths(12);
+        loan.setAmortizationType(AmortizationType.ANNUITY);
+        loan.setStatus(LoanStatus.ACTIVE);
+        loan.setPaidEver(paidEver);
+        loan.setMustBePay(Money.ofMinor(1));
+        loan.setPayPerMonth(Money.ofMinor(1));
+        return entityManager.persistFlushFind(loan);
+    }
+
+    private LoansEntity reload(LoansEntity loan) {
+        entityManager.clear();
+        return entityManager.find(LoansEntity.class, loan.getId());
+    }
+}
@@ -0,0 +1,220 @@
+package uz.com.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.com.model.entity.AuditLogsEntity;
+import uz.com.model.enums.AuditOverflowPolicy;
+import uz.com.repository.AuditLogsRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncAuditLogSinkTest {
+
+    @Mock
+    private AuditLogsRepository auditLogsRepository;
+
+    @TempDir
+    private Path dir;
+
+    private final List<String> saved = Collections.synchronizedList(new ArrayList<>());
+    private AsyncAuditLogSink sink;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (sink != null) {
+            sink.shutdown();
+        }
+    }
+
+    @Test
+    void submit_ShouldWriteQueuedLogsInBatches() throws Exception {
+        CountDownLatch written = new CountDownLatch(5);
+        recordSaves(written);
+        sink = sink(100, 2, AuditOverflowPolicy.BLOCK);
+        sink.start();
+
+        for (int i = 0; i < 5; i++) {
+            sink.submit(log("/brb/" + i));
+        }
+
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("/brb/0", "/brb/1", "/brb/2", "/brb/3", "/brb/4"), List.copyOf(saved));
+        verify(auditLogsRepository, atLeast(3)).saveAll(anyList());
+    }
+
+    @Test
+    void submit_ShouldDropOldest_WhenQueueIsFull() {
+        sink = sink(2, 10, AuditOverflowPolicy.DROP_OLDEST);
+
+        sink.submit(log("/brb/0"));
+        sink.submit(log("/brb/1"));
+        sink.submit(log("/brb/2"));
+
+        assertEquals(2, sink.getQueueSize());
+        assertEquals(1, sink.getDroppedCount());
+        assertEquals(0, sink.getSpilledCount());
+    }
+
+    @Test
+    void submit_ShouldSpillToFile_WhenQueueIsFull() throws Exception {
+        sink = sink(1, 10, AuditOverflowPolicy.SPILL);
+
+        sink.submit(log("/brb/0"));
+        sink.submit(log("/brb/1"));
+
+        assertEquals(1, sink.getQueueSize());
+        assertEquals(1, sink.getSpilledCount());
+        List<String> lines = Files.readAllLines(dir.resolve("spill.log"), StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"url\":\"/brb/1\""));
+    }
+
+    @Test
+    void submit_ShouldBlockProducer_UntilWriterFreesQueue() throws Exception {
+        CountDownLatch written = new CountDownLatch(2);
+        recordSaves(written);
+        sink = sink(1, 10, AuditOverflowPolicy.BLOCK);
+        sink.submit(log("/brb/0"));
+
+        Thread producer = new Thread(() -> sink.submit(log("/brb/1")));
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive());
+
+        sink.start();
+
+        producer.join(5_000);
+        assertFalse(producer.isAlive());
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        assertEquals(0, sink.getDroppedCount());
+    }
+
+    @Test
+    void submit_ShouldSpill_WhenDatabaseWriteFails() throws Exception {
+        CountDownLatch attempted = new CountDownLatch(1);
+        when(auditLogsRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            attempted.countDown();
+            throw new IllegalStateException("database is down");
+        });
+        sink = sink(10, 10, AuditOverflowPolicy.BLOCK);
+        sink.start();
+
+        sink.submit(log("/brb/0"));
+
+        assertTrue(attempted.await(5, TimeUnit.SECONDS));
+        sink.shutdown();
+        assertEquals(1, sink.getSpilledCount());
+        assertEquals(1, Files.readAllLines(dir.resolve("spill.log")).size());
+    }
+
+    @Test
+    void shutdown_ShouldDrainQueuedLogsThroughWriter() throws Exception {
+        recordSaves(new CountDownLatch(0));
+        sink = sink(100, 10, AuditOverflowPolicy.BLOCK);
+        sink.start();
+        for (int i = 0; i < 3; i++) {
+            sink.submit(log("/brb/" + i));
+        }
+
+        sink.shutdown();
+
+        assertEquals(3, saved.size());
+        assertEquals(0, sink.getQueueSize());
+        assertEquals(0, sink.getSpilledCount());
+    }
+
+    @Test
+    void shutdown_ShouldSpillWhatWriterCouldNotDrain_AndWriteLateLogsDirectly() throws Exception {
+        recordSaves(new CountDownLatch(0));
+        sink = sink(100, 10, AuditOverflowPolicy.BLOCK);
+        sink.submit(log("/brb/0"));
+        sink.submit(log("/brb/1"));
+
+        sink.shutdown();
+        sink.submit(log("/brb/late"));
+
+        assertEquals(2, sink.getSpilledCount());
+        assertEquals(2, Files.readAllLines(dir.resolve("spill.log")).size());
+        assertEquals(List.of("/brb/late"), List.copyOf(saved));
+    }
+
+    @Test
+    void start_ShouldReplaySpilledLogs_AndSkipMalformedLines() throws Exception {
+        CountDownLatch written = new CountDownLatch(3);
+        recordSaves(written);
+        sink = sink(1, 2, AuditOverflowPolicy.SPILL);
+        sink.submit(log("/brb/0"));
+        sink.submit(log("/brb/1"));
+        sink.submit(log("/brb/2"));
+        Files.writeString(dir.resolve("spill.log"), "not json" + System.lineSeparator(), StandardOpenOption.APPEND);
+        sink.submit(log("/brb/3"));
+
+        sink.start();
+
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        sink.shutdown();
+        assertEquals(List.of("/brb/1", "/brb/2", "/brb/3", "/brb/0"), List.copyOf(saved));
+        assertEquals(1, sink.getDroppedCount());
+        assertFalse(Files.exists(dir.resolve("spill.log")));
+        assertFalse(Files.exists(dir.resolve("spill.log.replaying")));
+    }
+
+    @Test
+    void replaySpill_ShouldKeepLogsInSpillFile_WhenDatabaseIsStillDown() throws Exception {
+        when(auditLogsRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database is down"));
+        sink = sink(1, 10, AuditOverflowPolicy.SPILL);
+        sink.submit(log("/brb/0"));
+        sink.submit(log("/brb/1"));
+
+        assertEquals(0, sink.replaySpill());
+
+        List<String> lines = Files.readAllLines(dir.resolve("spill.log"), StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"url\":\"/brb/1\""));
+        assertFalse(Files.exists(dir.resolve("spill.log.replaying")));
+    }
+
+    private void recordSaves(CountDownLatch written) {
+        when(auditLogsRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AuditLogsEntity> batch = invocation.getArgument(0);
+            for (AuditLogsEntity auditLog : batch) {
+                saved.add(auditLog.getUrl());
+                written.countDown();
+            }
+            return batch;
+        });
+    }
+
+    private AsyncAuditLogSink sink(int capacity, int batchSize, AuditOverflowPolicy policy) {
+        return new AsyncAuditLogSink(auditLogsRepository, new ObjectMapper(), capacity, batchSize, 50, 5_000,
+                policy, dir.resolve("spill.log").toString());
+    }
+
+    private static AuditLogsEntity log(String url) {
+        return AuditLogsEntity.builder()
+                .httpMethod("POST")
+                .url(url)
+                .request("[]")
+                .response("{}")
+                .fromIpAddress("127.0.0.1")
+                .build();
+    }
+}
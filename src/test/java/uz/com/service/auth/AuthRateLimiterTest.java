@@ -0,0 +1,83 @@
+package uz.com.service.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRateLimiterTest {
+
+    private static final String SIGN_IN = "/brb/auth/sign-in";
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AuthRateLimiter authRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        authRateLimiter = new AuthRateLimiter(meterRegistry, 3, 3_000, 2, 10_000, 4);
+    }
+
+    @Test
+    void acquire_ShouldAllowBurstPerIp_ThenRefillOneTokenPerInterval() {
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, authRateLimiter.acquire(SIGN_IN, "10.0.0.1", null, now));
+        }
+
+        assertEquals(SECOND, authRateLimiter.acquire(SIGN_IN, "10.0.0.1", null, now));
+        assertEquals(0, authRateLimiter.acquire(SIGN_IN, "10.0.0.2", null, now));
+        assertEquals(0, authRateLimiter.acquire("/brb/auth/send-verification", "10.0.0.1", null, now));
+        assertEquals(0, authRateLimiter.acquire(SIGN_IN, "10.0.0.1", null, now + SECOND));
+        assertTrue(authRateLimiter.acquire(SIGN_IN, "10.0.0.1", null, now + SECOND) > 0);
+        assertEquals(2, meterRegistry.get("auth.rate.limit.rejected").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void acquire_ShouldLimitEmailAcrossIps() {
+        long now = 1_000 * SECOND;
+        assertEquals(0, authRateLimiter.acquire(SIGN_IN, "10.0.0.1", "user@example.com", now));
+        assertEquals(0, authRateLimiter.acquire(SIGN_IN, "10.0.0.2", "user@example.com", now));
+
+        assertEquals(5 * SECOND, authRateLimiter.acquire(SIGN_IN, "10.0.0.3", "user@example.com", now));
+        assertEquals(1, meterRegistry.get("auth.rate.limit.rejected").tag("key", "email").counter().count());
+    }
+
+    @Test
+    void evictIdle_ShouldDropRefilledBuckets_AndOverflowKeysShareOneBucketPerEndpoint() {
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 4; i++) {
+            authRateLimiter.acquire(SIGN_IN, "10.0.0." + i, null, now);
+        }
+        assertEquals(4, authRateLimiter.getBucketCount());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, authRateLimiter.acquire(SIGN_IN, "10.0.1." + i, null, now));
+        }
+        assertTrue(authRateLimiter.acquire(SIGN_IN, "10.0.1.9", null, now) > 0);
+        assertEquals(0, authRateLimiter.acquire("/brb/auth/send-verification", "10.0.1.9", null, now));
+        assertEquals(6, authRateLimiter.getBucketCount());
+
+        authRateLimiter.evictIdle(now + 3 * SECOND);
+
+        assertEquals(0, authRateLimiter.getBucketCount());
+    }
+
+    @Test
+    void acquire_ShouldEvictRefilledBuckets_BeforeFallingBackToOverflow() {
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 4; i++) {
+            authRateLimiter.acquire(SIGN_IN, "10.0.0." + i, null, now);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, authRateLimiter.acquire(SIGN_IN, "10.0.1.1", null, now + 3 * SECOND));
+        }
+        assertEquals(0, authRateLimiter.acquire(SIGN_IN, "10.0.1.2", null, now + 3 * SECOND));
+
+        assertEquals(2, authRateLimiter.getBucketCount());
+    }
+}
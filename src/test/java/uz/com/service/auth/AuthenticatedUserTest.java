@@ -0,0 +1,49 @@
+package uz.com.service.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.UserRole;
+
+import java.security.Principal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticatedUserTest {
+
+    @Test
+    void rolesOf_ShouldStripPrefix_AndSkipUnknownRoles() {
+        assertEquals(Set.of(UserRole.CLIENT, UserRole.ADMIN),
+                AuthenticatedUser.rolesOf(List.of("ROLE_CLIENT", "ADMIN", "ROLE_AUDITOR", "")));
+        assertEquals(Set.of(), AuthenticatedUser.rolesOf(null));
+    }
+
+    @Test
+    void accessToken_ShouldRoundTripIdEmailAndRoles() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", "c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS1zZWNyZXQta2V5LWZvci10ZXN0cy1vbmx5LXNlY3JldC1rZXk=");
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiry", 60_000L);
+        JwtClaimsCache jwtClaimsCache = new JwtClaimsCache(jwtService, new SimpleMeterRegistry(), 10);
+        UserEntity user = new UserEntity();
+        user.setId(UUID.randomUUID());
+        user.setEmail("client@example.com");
+        user.setRole(EnumSet.of(UserRole.CLIENT, UserRole.MANAGER));
+
+        VerifiedToken verified = jwtClaimsCache.get(jwtService.generateAccessToken(user));
+        AuthenticatedUser principal = verified.getPrincipal();
+
+        assertEquals(user.getId(), principal.getId());
+        assertEquals("client@example.com", principal.getName());
+        assertEquals(Set.of(UserRole.CLIENT, UserRole.MANAGER), principal.getRoles());
+        Principal authentication = new UsernamePasswordAuthenticationToken(principal, null, verified.getAuthorities());
+        assertSame(principal, AuthenticatedUser.from(authentication));
+        assertSame(principal, AuthenticatedUser.from(principal));
+        assertNull(AuthenticatedUser.from(() -> "someone"));
+    }
+}
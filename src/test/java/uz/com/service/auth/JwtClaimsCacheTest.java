@@ -0,0 +1,116 @@
+package uz.com.service.auth;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.com.model.enums.UserRole;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtClaimsCacheTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JwtClaimsCache jwtClaimsCache;
+
+    @BeforeEach
+    void setUp() {
+        jwtClaimsCache = new JwtClaimsCache(jwtService, meterRegistry, 4);
+    }
+
+    @Test
+    void get_ShouldVerifyOnce_AndServeCachedPrincipal() {
+        UUID userId = UUID.randomUUID();
+        Claims claims = claims(userId, List.of("ROLE_CLIENT", "ROLE_MANAGER"), 60_000);
+        stub("token", claims);
+
+        VerifiedToken first = jwtClaimsCache.get("token");
+        VerifiedToken second = jwtClaimsCache.get("token");
+
+        assertSame(first, second);
+        assertEquals(userId, first.getPrincipal().getId());
+        assertEquals("user@example.com", first.getPrincipal().getName());
+        assertEquals(Set.of(UserRole.CLIENT, UserRole.MANAGER), first.getPrincipal().getRoles());
+        assertEquals(2, first.getAuthorities().size());
+        verify(jwtService, times(1)).extractToken("token");
+        assertEquals(1, meterRegistry.get("jwt.claims.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void get_ShouldReverify_WhenCachedTokenHasExpired() {
+        stub("token", claims(UUID.randomUUID(), List.of("ROLE_CLIENT"), -1_000));
+
+        jwtClaimsCache.get("token");
+        jwtClaimsCache.get("token");
+
+        verify(jwtService, times(2)).extractToken("token");
+        assertEquals(0, meterRegistry.get("jwt.claims.cache.size").gauge().value());
+    }
+
+    @Test
+    void get_ShouldEvictLeastRecentlyUsed_WhenFull() {
+        for (String token : List.of("a", "b", "c", "d", "e")) {
+            stub(token, claims(UUID.randomUUID(), List.of("ROLE_CLIENT"), 60_000));
+        }
+        jwtClaimsCache.get("a");
+        jwtClaimsCache.get("b");
+        jwtClaimsCache.get("c");
+        jwtClaimsCache.get("d");
+        jwtClaimsCache.get("a");
+
+        jwtClaimsCache.get("e");
+        jwtClaimsCache.get("a");
+        jwtClaimsCache.get("c");
+        jwtClaimsCache.get("d");
+        jwtClaimsCache.get("b");
+
+        verify(jwtService, times(1)).extractToken("a");
+        verify(jwtService, times(1)).extractToken("c");
+        verify(jwtService, times(1)).extractToken("d");
+        verify(jwtService, times(2)).extractToken("b");
+    }
+
+    @Test
+    void authoritiesOf_ShouldRejectNonStringAuthorities() {
+        Claims claims = Jwts.claims();
+        assertEquals(List.of(), JwtClaimsCache.authoritiesOf(claims));
+
+        claims.put("authorities", List.of("ROLE_CLIENT", 7));
+        assertThrows(MalformedJwtException.class, () -> JwtClaimsCache.authoritiesOf(claims));
+
+        claims.put("authorities", "ROLE_ADMIN");
+        assertThrows(MalformedJwtException.class, () -> JwtClaimsCache.authoritiesOf(claims));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stub(String token, Claims claims) {
+        Jws<Claims> jws = mock(Jws.class);
+        when(jws.getBody()).thenReturn(claims);
+        when(jwtService.extractToken(token)).thenReturn(jws);
+    }
+
+    private static Claims claims(UUID userId, List<String> authorities, long expiresIn) {
+        Claims claims = Jwts.claims();
+        claims.setSubject("user@example.com");
+        claims.setExpiration(new Date(System.currentTimeMillis() + expiresIn));
+        claims.put("id", userId.toString());
+        claims.put("authorities", authorities);
+        return claims;
+    }
+}
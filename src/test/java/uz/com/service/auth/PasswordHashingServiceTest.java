@@ -0,0 +1,90 @@
+package uz.com.service.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import uz.com.exception.ServiceBusyException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        passwordHashingService = new PasswordHashingService(new BlockingEncoder(), meterRegistry, 1, 1, 1, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void encode_ShouldRejectWithRetryAfter_WhenWorkersAndQueueAreFull() throws Exception {
+        CompletableFuture<String> running = passwordHashingService.encode("first");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = passwordHashingService.matches("second", "{hash}second");
+
+        ServiceBusyException exception = assertThrows(ServiceBusyException.class, () -> passwordHashingService.encode("third"));
+
+        assertEquals("Too many password requests! Try again later!", exception.getMessage());
+        assertEquals(3, exception.getRetryAfter());
+        assertEquals(1, passwordHashingService.getQueueSize());
+        assertEquals(1, meterRegistry.get("password.hashing.queue").gauge().value());
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("{hash}first", running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("password.hashing").tag("operation", "matches").timer().count());
+        assertEquals(2, meterRegistry.get("password.hashing.wait").timer().count());
+    }
+
+    @Test
+    void encode_ShouldRunContinuationsOffTheHashingThreads() throws Exception {
+        CompletableFuture<String> hashed = passwordHashingService.encode("first");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> continuedOn = hashed.thenApply(hash -> Thread.currentThread().getName());
+
+        release.countDown();
+
+        assertEquals("password-hashing-callback-1", continuedOn.get(5, TimeUnit.SECONDS));
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            await();
+            return "{hash}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return encodedPassword.equals(encode(rawPassword));
+        }
+
+        private void await() {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package uz.com.service.bulk;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.com.model.dto.response.BulkDeleteResponse;
+import uz.com.model.enums.DeleteStatus;
+import uz.com.model.enums.SoftDeleteGuard;
+import uz.com.repository.BulkSoftDeleteRepository;
+import uz.com.service.paging.CountService;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkDeleteServiceTest {
+
+    @Mock
+    private BulkSoftDeleteRepository bulkSoftDeleteRepository;
+
+    @Mock
+    private CountService countService;
+
+    private BulkDeleteService bulkDeleteService;
+
+    private final UUID deletedBy = UUID.randomUUID();
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+    private final UUID third = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        bulkDeleteService = new BulkDeleteService(bulkSoftDeleteRepository, countService, 2);
+    }
+
+    @Test
+    void softDelete_ShouldReportEveryId_AcrossChunks() {
+        when(bulkSoftDeleteRepository.softDelete(eq("accounts"), eq(List.of(first, second)), eq(deletedBy), any(), eq(SoftDeleteGuard.NONE)))
+                .thenReturn(Set.of(first));
+        when(bulkSoftDeleteRepository.softDelete(eq("accounts"), eq(List.of(third)), eq(deletedBy), any(), eq(SoftDeleteGuard.NONE)))
+                .thenReturn(Set.of(third));
+
+        BulkDeleteResponse response = bulkDeleteService.softDelete("accounts",
+                List.of(first.toString(), "not-a-uuid", second.toString(), third.toString(), first.toString()), deletedBy);
+
+        assertEquals(5, response.getRequested());
+        assertEquals(2, response.getDeleted());
+        assertEquals(2, response.getFailed());
+        assertEquals(DeleteStatus.DELETED, response.getResults().get(first.toString()));
+        assertEquals(DeleteStatus.INVALID_ID, response.getResults().get("not-a-uuid"));
+        assertEquals(DeleteStatus.NOT_FOUND, response.getResults().get(second.toString()));
+        assertEquals(DeleteStatus.DELETED, response.getResults().get(third.toString()));
+        verify(bulkSoftDeleteRepository, never()).findExisting(any(), anyList());
+        verify(countService).invalidate("accounts");
+    }
+
+    @Test
+    void softDelete_ShouldSeparateBlockedFromMissing_WhenGuarded() {
+        when(bulkSoftDeleteRepository.softDelete(eq("loans"), eq(List.of(first, second)), eq(deletedBy), any(), eq(SoftDeleteGuard.LOAN_NOT_RUNNING)))
+                .thenReturn(Set.of());
+        when(bulkSoftDeleteRepository.findExisting("loans", List.of(first, second))).thenReturn(Set.of(first));
+
+        BulkDeleteResponse response = bulkDeleteService.softDelete("loans", List.of(first.toString(), second.toString()),
+                deletedBy, SoftDeleteGuard.LOAN_NOT_RUNNING);
+
+        assertEquals(0, response.getDeleted());
+        assertEquals(DeleteStatus.NOT_ACCEPTABLE, response.getResults().get(first.toString()));
+        assertEquals(DeleteStatus.NOT_FOUND, response.getResults().get(second.toString()));
+        verifyNoInteractions(countService);
+    }
+}
@@ -0,0 +1,123 @@
+package uz.com.service.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import uz.com.model.dto.response.BulkLoanRowResponse;
+import uz.com.model.enums.BulkRowStatus;
+import uz.com.model.enums.UserRole;
+import uz.com.repository.UserRepository;
+import uz.com.service.amortization.LoanScheduleService;
+import uz.com.service.debt.DebtSummaryService;
+import uz.com.service.paging.CountService;
+import uz.com.service.step.UserStepTracker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkLoanServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LoanScheduleService loanScheduleService;
+
+    @Mock
+    private DebtSummaryService debtSummaryService;
+
+    @Mock
+    private CountService countService;
+
+    @Mock
+    private UserStepTracker userStepTracker;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UUID client = UUID.randomUUID();
+    private final UUID stranger = UUID.randomUUID();
+
+    private BulkLoanService bulkLoanService;
+
+    @BeforeEach
+    void setUp() {
+        bulkLoanService = new BulkLoanService(objectMapper, userRepository, loanScheduleService, debtSummaryService,
+                countService, userStepTracker, jdbcTemplate, transactionManager, 2, 2);
+    }
+
+    @Test
+    void originate_ShouldStreamPerRowResults_AndBatchEachChunk() throws Exception {
+        when(userRepository.findIdsByRole(any(), eq(UserRole.CLIENT))).thenReturn(List.of(client));
+        String ndjson = String.join("\n",
+                row(client, "1000", 12.0, 12),
+                row(stranger, "1000", 12.0, 12),
+                row(client, "-5", 12.0, 12),
+                row(client, "500.50", 10.0, 6),
+                row(client, "250", 10.0, 0),
+                row(client, "0", 10.0, 6));
+
+        List<BulkLoanRowResponse> results = originate(ndjson);
+
+        assertEquals(List.of(BulkRowStatus.CREATED, BulkRowStatus.REJECTED, BulkRowStatus.REJECTED,
+                BulkRowStatus.CREATED, BulkRowStatus.REJECTED, BulkRowStatus.REJECTED),
+                results.stream().map(BulkLoanRowResponse::getStatus).toList());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), results.stream().map(BulkLoanRowResponse::getRow).toList());
+        assertEquals("Invalid amount!", results.get(2).getMessage());
+        assertEquals("Invalid due date time!", results.get(4).getMessage());
+        assertEquals("Invalid amount!", results.get(5).getMessage());
+        assertNotNull(results.get(0).getLoanId());
+        verify(userRepository, times(2)).findIdsByRole(any(), eq(UserRole.CLIENT));
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        verify(loanScheduleService, times(2)).insertRows(anyList());
+    }
+
+    @Test
+    void originate_ShouldAcceptJsonArray_AndReportMalformedTail() throws Exception {
+        when(userRepository.findIdsByRole(any(), eq(UserRole.CLIENT))).thenReturn(List.of(client));
+
+        List<BulkLoanRowResponse> results = originate("[" + row(client, "100", 5.0, 3) + ", {\"amount\": ");
+
+        assertEquals(2, results.size());
+        assertEquals(BulkRowStatus.CREATED, results.get(0).getStatus());
+        assertEquals(BulkRowStatus.REJECTED, results.get(1).getStatus());
+        assertEquals(2, results.get(1).getRow());
+        assertTrue(results.get(1).getMessage().startsWith("Malformed JSON!"));
+    }
+
+    private List<BulkLoanRowResponse> originate(String body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bulkLoanService.originate(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out, UUID.randomUUID());
+        List<BulkLoanRowResponse> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, BulkLoanRowResponse.class));
+        }
+        return results;
+    }
+
+    private static String row(UUID userId, String amount, double interestRate, int months) {
+        return "{\"userId\":\"" + userId + "\",\"amount\":" + amount + ",\"interestRate\":" + interestRate
+                + ",\"months\":" + months + "}";
+    }
+}
@@ -0,0 +1,216 @@
+package uz.com.service.bulk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import uz.com.model.entity.AccountsEntity;
+import uz.com.model.entity.TransactionImportEntity;
+import uz.com.model.enums.AccountType;
+import uz.com.model.enums.ImportFormat;
+import uz.com.model.enums.ImportStatus;
+import uz.com.model.money.Money;
+import uz.com.repository.AccountRepository;
+import uz.com.repository.TransactionImportRepository;
+import uz.com.service.step.UserStepTracker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionImportServiceTest {
+
+    @Mock
+    private TransactionImportRepository transactionImportRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private UserStepTracker userStepTracker;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private final UUID second = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private final Map<String, List<Object[]>> batches = new HashMap<>();
+
+    private TransactionImportService transactionImportService;
+
+    @BeforeEach
+    void setUp() {
+        transactionImportService = new TransactionImportService(transactionImportRepository, accountRepository,
+                userStepTracker, jdbcTemplate, transactionManager, objectMapper, 10, 120);
+    }
+
+    @Test
+    void run_ShouldApplyNetBalancePerAccount_AndReportRejectedLines() throws Exception {
+        TransactionImportEntity job = job(ImportFormat.CSV, 0);
+        stubBatches();
+        when(accountRepository.findAllByIdInOrderByIdForUpdate(any()))
+                .thenReturn(List.of(account(first, "100.00"), account(second, "50.00")));
+        when(transactionImportRepository.advance(eq(job.getId()), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+        when(transactionImportRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        String csv = String.join("\n",
+                "accountId,type,amount,direction",
+                first + ",PAYMENT,30",
+                first + ",PAYMENT,80",
+                second + ",PAYMENT,20.00,CREDIT",
+                "not-a-uuid,PAYMENT,1",
+                first + ",LOAN,5",
+                "\"" + second + "\",payment,60",
+                first + ",PAYMENT,70",
+                first + ",PAYMENT,0.001");
+
+        List<JsonNode> results = run(job, csv);
+
+        assertEquals(List.of(3L, 5L, 6L, 9L), results.subList(0, 4).stream().map(node -> node.get("line").asLong()).toList());
+        assertEquals("Has no enough balance in account!", results.get(0).get("message").asText());
+        assertEquals("Account not found!", results.get(1).get("message").asText());
+        assertEquals("Transaction and account types not suitable!", results.get(2).get("message").asText());
+        assertEquals("Invalid amount!", results.get(3).get("message").asText());
+        assertEquals(job.getId().toString(), results.get(4).get("importId").asText());
+
+        List<Object[]> balances = batches.get("accounts");
+        assertEquals(2, balances.size());
+        assertEquals(new BigDecimal("-100.00"), balances.get(0)[0]);
+        assertEquals(first, balances.get(0)[2]);
+        assertEquals(new BigDecimal("-40.00"), balances.get(1)[0]);
+        assertEquals(second, balances.get(1)[2]);
+        assertEquals(4, batches.get("transactions").size());
+        assertEquals(4, batches.get("ledger_entries").size());
+        verify(accountRepository, times(1)).findAllByIdInOrderByIdForUpdate(any());
+        verify(transactionImportRepository).advance(job.getId(), 0, 9, 4, 4);
+        verify(transactionImportRepository).updateStatus(job.getId(), ImportStatus.COMPLETED);
+    }
+
+    @Test
+    void run_ShouldSkipCommittedLines_WhenResuming() throws Exception {
+        TransactionImportEntity job = job(ImportFormat.NDJSON, 2);
+        stubBatches();
+        when(accountRepository.findAllByIdInOrderByIdForUpdate(any())).thenReturn(List.of(account(first, "10.00")));
+        when(transactionImportRepository.advance(eq(job.getId()), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+        when(transactionImportRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        String ndjson = String.join("\n",
+                "{\"accountId\":\"" + first + "\",\"type\":\"PAYMENT\",\"amount\":1000}",
+                "{\"accountId\":\"" + first + "\",\"type\":\"PAYMENT\",\"amount\":1000}",
+                "{\"accountId\":\"" + first + "\",\"type\":\"PAYMENT\",\"amount\":2.5}",
+                "{broken",
+                "{\"accountId\":\"" + first + "\",\"type\":\"PAYMENT\",\"amount\":\"0.10\",\"direction\":\"CREDIT\"}");
+
+        List<JsonNode> results = run(job, ndjson);
+
+        assertEquals(4L, results.get(0).get("line").asLong());
+        assertTrue(results.get(0).get("message").asText().startsWith("Malformed JSON!"));
+        assertEquals(new BigDecimal("-2.40"), batches.get("accounts").get(0)[0]);
+        assertEquals(2, batches.get("transactions").size());
+        verify(transactionImportRepository).advance(job.getId(), 2, 5, 2, 1);
+    }
+
+    @Test
+    void run_ShouldMarkImportFailed_WhenCheckpointWasAdvancedConcurrently() throws Exception {
+        TransactionImportEntity job = job(ImportFormat.CSV, 0);
+        stubBatches();
+        when(accountRepository.findAllByIdInOrderByIdForUpdate(any())).thenReturn(List.of(account(first, "10.00")));
+        when(transactionImportRepository.advance(eq(job.getId()), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(0);
+        when(transactionImportRepository.findById(job.getId())).thenReturn(Optional.of(job));
+
+        run(job, first + ",PAYMENT,1");
+
+        verify(transactionImportRepository).updateStatus(job.getId(), ImportStatus.FAILED);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void run_ShouldRejectTransfersAndOverlongLines_WithoutStoppingTheImport() throws Exception {
+        TransactionImportEntity job = job(ImportFormat.CSV, 0);
+        stubBatches();
+        when(accountRepository.findAllByIdInOrderByIdForUpdate(any())).thenReturn(List.of(account(first, "10.00")));
+        when(transactionImportRepository.advance(eq(job.getId()), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+        when(transactionImportRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        String csv = first + ",TRANSFER,1,CREDIT\r\n"
+                + first + ",PAYMENT,1," + "x".repeat(10_000) + "\r\n"
+                + first + ",PAYMENT,2,CREDIT\r\n";
+
+        List<JsonNode> results = run(job, csv);
+
+        assertEquals(1L, results.get(0).get("line").asLong());
+        assertEquals("Transfers can not be imported!", results.get(0).get("message").asText());
+        assertEquals(2L, results.get(1).get("line").asLong());
+        assertEquals("Line is too long!", results.get(1).get("message").asText());
+        assertEquals(new BigDecimal("2.00"), batches.get("accounts").get(0)[0]);
+        verify(transactionImportRepository).advance(job.getId(), 0, 3, 1, 2);
+    }
+
+    @Test
+    void splitCsv_ShouldHonourQuotedSeparatorsAndEscapedQuotes() {
+        assertEquals(List.of("a,b", "say \"hi\"", ""), TransactionImportService.splitCsv("\"a,b\",\"say \"\"hi\"\"\","));
+    }
+
+    private void stubBatches() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            String table = sql.startsWith("update") ? "accounts" : sql.split(" ")[2];
+            List<Object[]> rows = invocation.getArgument(1);
+            batches.computeIfAbsent(table, key -> new ArrayList<>()).addAll(rows);
+            return new int[rows.size()];
+        });
+    }
+
+    private List<JsonNode> run(TransactionImportEntity job, String body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionImportService.run(job, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+
+    private static TransactionImportEntity job(ImportFormat format, long linesProcessed) {
+        return TransactionImportEntity.builder()
+                .id(UUID.randomUUID())
+                .format(format)
+                .status(ImportStatus.RUNNING)
+                .linesProcessed(linesProcessed)
+                .createdBy(UUID.randomUUID())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static AccountsEntity account(UUID id, String balance) {
+        AccountsEntity account = new AccountsEntity();
+        account.setId(id);
+        account.setType(AccountType.MAIN);
+        account.setBalance(Money.of(new BigDecimal(balance)));
+        return account;
+    }
+}
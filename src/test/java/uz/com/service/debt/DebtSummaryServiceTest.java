@@ -0,0 +1,149 @@
+package uz.com.service.debt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import uz.com.model.entity.DebtSummaryEntity;
+import uz.com.model.entity.LoansEntity;
+import uz.com.model.enums.LoanStatus;
+import uz.com.model.money.Money;
+import uz.com.repository.DebtSummaryRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DebtSummaryServiceTest {
+
+    @Mock
+    private DebtSummaryRepository debtSummaryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID userId = UUID.randomUUID();
+    private DebtSummaryService debtSummaryService;
+
+    @BeforeEach
+    void setUp() {
+        debtSummaryService = new DebtSummaryService(debtSummaryRepository, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void apply_ShouldAddWholeLoan_WhenLoanIsCreated() {
+        DebtContribution before = debtSummaryService.prepare(userId, null);
+        debtSummaryService.apply(userId, before, loan(LoanStatus.ACTIVE, "1000.00", "1100.00", "0.00"));
+
+        assertSame(DebtContribution.NONE, before);
+        verify(debtSummaryRepository).seed(userId);
+        verify(debtSummaryRepository).applyDelta(userId, new BigDecimal("1000.00"), new BigDecimal("1100.00"),
+                new BigDecimal("0.00"), 1, 0, 0, 0);
+    }
+
+    @Test
+    void apply_ShouldMoveOutstandingToPaid_WhenLoanIsPaid() {
+        LoansEntity loan = loan(LoanStatus.ACTIVE, "1000.00", "1100.00", "0.00");
+
+        DebtContribution before = debtSummaryService.prepare(userId, loan);
+        loan.setMustBePay(Money.of(new BigDecimal("800.00")));
+        loan.setPaidEver(Money.of(new BigDecimal("300.00")));
+        debtSummaryService.apply(userId, before, loan);
+
+        verify(debtSummaryRepository).applyDelta(userId, new BigDecimal("0.00"), new BigDecimal("-300.00"),
+                new BigDecimal("300.00"), 0, 0, 0, 0);
+    }
+
+    @Test
+    void apply_ShouldMoveLoanBetweenCounters_WhenLastPaymentCompletesIt() {
+        LoansEntity loan = loan(LoanStatus.OVERDUE, "1000.00", "50.00", "1050.00");
+
+        DebtContribution before = debtSummaryService.prepare(userId, loan);
+        loan.setMustBePay(Money.ZERO);
+        loan.setPaidEver(Money.of(new BigDecimal("1100.00")));
+        loan.setStatus(LoanStatus.COMPLETED);
+        debtSummaryService.apply(userId, before, loan);
+
+        verify(debtSummaryRepository).applyDelta(userId, new BigDecimal("-1000.00"), new BigDecimal("-50.00"),
+                new BigDecimal("50.00"), 0, 0, 1, -1);
+    }
+
+    @Test
+    void apply_ShouldRemoveWholeLoan_WhenLoanIsDeleted() {
+        LoansEntity loan = loan(LoanStatus.FREEZE, "1000.00", "600.00", "500.00");
+
+        DebtContribution before = debtSummaryService.prepare(userId, loan);
+        loan.setDeleted(true);
+        debtSummaryService.apply(userId, before, loan);
+
+        verify(debtSummaryRepository).applyDelta(userId, new BigDecimal("-1000.00"), new BigDecimal("-600.00"),
+                new BigDecimal("-500.00"), 0, -1, 0, 0);
+    }
+
+    @Test
+    void apply_ShouldNotTouchSummary_WhenNothingChanged() {
+        LoansEntity loan = loan(LoanStatus.ACTIVE, "1000.00", "1100.00", "0.00");
+
+        debtSummaryService.apply(userId, debtSummaryService.prepare(userId, loan), loan);
+
+        verify(debtSummaryRepository, never()).applyDelta(any(), any(), any(), any(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void bulkDelete_ShouldSeedOwnersAndSubtractDeletedLoans() {
+        List<UUID> loanIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        debtSummaryService.prepareDelete(loanIds);
+        debtSummaryService.applyDeleted(loanIds.subList(0, 1));
+        debtSummaryService.applyDeleted(List.of());
+
+        verify(debtSummaryRepository).seedOwnersOf(loanIds);
+        verify(debtSummaryRepository).subtractLoans(loanIds.subList(0, 1));
+        verifyNoMoreInteractions(debtSummaryRepository);
+    }
+
+    @Test
+    void getSummary_ShouldReturnZeros_WithoutWriting_WhenNoSummaryExists() {
+        when(debtSummaryRepository.findById(userId)).thenReturn(Optional.empty());
+
+        DebtSummaryEntity summary = debtSummaryService.getSummary(userId);
+
+        assertEquals(userId, summary.getUserId());
+        assertEquals(BigDecimal.ZERO, summary.getTotalPrincipal());
+        assertEquals(0, summary.getActiveCount());
+        verify(debtSummaryRepository, never()).seed(any());
+    }
+
+    @Test
+    void reconcile_ShouldSeedMissingAndRebuildDrifted() {
+        UUID drifted = UUID.randomUUID();
+        when(debtSummaryRepository.seedMissing()).thenReturn(3);
+        when(debtSummaryRepository.findDrifted()).thenReturn(List.of(drifted));
+
+        debtSummaryService.reconcile();
+
+        verify(debtSummaryRepository).findForUpdate(drifted);
+        verify(debtSummaryRepository).rebuild(drifted);
+        assertEquals(1.0, meterRegistry.counter("debt.summary.drift").count());
+    }
+
+    private static LoansEntity loan(LoanStatus status, String amount, String mustBePay, String paidEver) {
+        LoansEntity loan = new LoansEntity();
+        loan.setStatus(status);
+        loan.setAmount(Money.of(new BigDecimal(amount)));
+        loan.setMustBePay(Money.of(new BigDecimal(mustBePay)));
+        loan.setPaidEver(Money.of(new BigDecimal(paidEver)));
+        return loan;
+    }
+}
@@ -0,0 +1,216 @@
+package uz.com.service.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import uz.com.exception.DataNotAcceptableException;
+import uz.com.model.dto.response.GeneralResponse;
+import uz.com.model.entity.IdempotencyKeyEntity;
+import uz.com.repository.IdempotencyKeyRepository;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger calls = new AtomicInteger();
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyKeyRepository, objectMapper, transactionManager,
+                60_000, 60_000, 200);
+    }
+
+    @Test
+    void execute_ShouldRunActionAndStoreResponse_OnFirstUse() throws Exception {
+        when(idempotencyKeyRepository.reserve(eq("loans:key"), anyString(), any(), any())).thenReturn(1);
+
+        GeneralResponse<String> response = execute("loans", "key", Map.of("amount", 10));
+
+        assertEquals("created-1", response.getData());
+        verify(idempotencyKeyRepository).complete("loans:key", objectMapper.writeValueAsString(response));
+    }
+
+    @Test
+    void execute_ShouldReplayStoredResponse_WhenKeyWasCompletedElsewhere() throws Exception {
+        String hash = hashOf(Map.of("amount", 10));
+        when(idempotencyKeyRepository.reserve(eq("loans:key"), eq(hash), any(), any())).thenReturn(0);
+        when(idempotencyKeyRepository.findLive(eq("loans:key"), any())).thenReturn(Optional.of(stored(hash,
+                objectMapper.writeValueAsString(GeneralResponse.ok("Loan created!", "created-elsewhere")))));
+
+        GeneralResponse<String> response = execute("loans", "key", Map.of("amount", 10));
+
+        assertEquals("Loan created!", response.getMessage());
+        assertEquals("created-elsewhere", response.getData());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void execute_ShouldReplayFromMemory_WithoutTouchingDatabaseAgain() {
+        when(idempotencyKeyRepository.reserve(eq("loans:key"), anyString(), any(), any())).thenReturn(1);
+
+        GeneralResponse<String> first = execute("loans", "key", Map.of("amount", 10));
+        GeneralResponse<String> second = execute("loans", "key", Map.of("amount", 10));
+
+        assertSame(first, second);
+        assertEquals(1, calls.get());
+        verify(idempotencyKeyRepository, times(1)).reserve(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void execute_ShouldRejectDifferentRequest_UnderSameKey() {
+        when(idempotencyKeyRepository.reserve(eq("loans:key"), anyString(), any(), any())).thenReturn(1);
+        execute("loans", "key", Map.of("amount", 10));
+
+        Exception local = assertThrows(DataNotAcceptableException.class, () -> execute("loans", "key", Map.of("amount", 11)));
+        assertEquals("Idempotency-Key is already used for another request!", local.getMessage());
+
+        when(idempotencyKeyRepository.reserve(eq("loans:other"), anyString(), any(), any())).thenReturn(0);
+        when(idempotencyKeyRepository.findLive(eq("loans:other"), any())).thenReturn(Optional.of(stored("another-hash", "{}")));
+        assertThrows(DataNotAcceptableException.class, () -> execute("loans", "other", Map.of("amount", 10)));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_ShouldReportInProgress_WhenConflictingRowHasExpiredOrNoResponse() throws Exception {
+        String hash = hashOf(Map.of("amount", 10));
+        when(idempotencyKeyRepository.reserve(eq("loans:key"), eq(hash), any(), any())).thenReturn(0);
+        when(idempotencyKeyRepository.findLive(eq("loans:key"), any())).thenReturn(Optional.empty(), Optional.of(stored(hash, null)));
+
+        assertThrows(DataNotAcceptableException.class, () -> execute("loans", "key", Map.of("amount", 10)));
+        assertThrows(DataNotAcceptableException.class, () -> execute("loans", "key", Map.of("amount", 10)));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void execute_ShouldRunActionOnce_ForConcurrentRequestsWithSameKey() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(idempotencyKeyRepository.reserve(eq("loans:key"), anyString(), any(), any())).thenReturn(1);
+        idempotencyService = new IdempotencyService(idempotencyKeyRepository, objectMapper, transactionManager,
+                60_000, 60_000, 5_000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<GeneralResponse<String>> owner = executor.submit(() -> idempotencyService.execute("loans", "key",
+                    Map.of("amount", 10), String.class, () -> {
+                        entered.countDown();
+                        await(release);
+                        return GeneralResponse.ok("Loan created!", "created-" + calls.incrementAndGet());
+                    }));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            Future<GeneralResponse<String>> firstWaiter = executor.submit(() -> execute("loans", "key", Map.of("amount", 10)));
+            Future<GeneralResponse<String>> secondWaiter = executor.submit(() -> execute("loans", "key", Map.of("amount", 10)));
+            release.countDown();
+
+            GeneralResponse<String> response = owner.get(5, TimeUnit.SECONDS);
+            assertSame(response, firstWaiter.get(5, TimeUnit.SECONDS));
+            assertSame(response, secondWaiter.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ShouldStopWaiting_AfterTimeout() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(idempotencyKeyRepository.reserve(eq("loans:key"), anyString(), any(), any())).thenReturn(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> idempotencyService.execute("loans", "key", Map.of("amount", 10), String.class, () -> {
+                entered.countDown();
+                await(release);
+                return GeneralResponse.ok("Loan created!", "late");
+            }));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            Exception exception = assertThrows(DataNotAcceptableException.class, () -> execute("loans", "key", Map.of("amount", 10)));
+
+            assertEquals("Request with this Idempotency-Key is in progress! Try again later!", exception.getMessage());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void evictLocal_ShouldDropCompletedEntries_OnceTheirLocalTtlPassed() throws Exception {
+        when(idempotencyKeyRepository.reserve(anyString(), anyString(), any(), any())).thenReturn(1);
+        idempotencyService = new IdempotencyService(idempotencyKeyRepository, objectMapper, transactionManager,
+                60_000, 50, 200);
+        execute("loans", "first", Map.of("amount", 10));
+        execute("loans", "second", Map.of("amount", 10));
+
+        idempotencyService.evictLocal();
+        assertEquals(2, idempotencyService.getLocalCount());
+
+        Thread.sleep(100);
+        idempotencyService.evictLocal();
+
+        assertEquals(0, idempotencyService.getLocalCount());
+        verify(idempotencyKeyRepository, never()).deleteExpired(any());
+    }
+
+    @Test
+    void execute_ShouldBypassStore_WithoutKey() {
+        assertEquals("created-1", execute("loans", null, Map.of("amount", 10)).getData());
+        verifyNoInteractions(idempotencyKeyRepository, transactionManager);
+    }
+
+    private GeneralResponse<String> execute(String scope, String key, Object request) {
+        return idempotencyService.execute(scope, key, request, String.class,
+                () -> GeneralResponse.ok("Loan created!", "created-" + calls.incrementAndGet()));
+    }
+
+    private String hashOf(Object request) throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(request);
+        return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+    }
+
+    private static IdempotencyKeyEntity stored(String hash, String response) {
+        return IdempotencyKeyEntity.builder()
+                .id("loans:key")
+                .requestHash(hash)
+                .response(response)
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package uz.com.service.ledger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import uz.com.model.entity.AccountsEntity;
+import uz.com.model.entity.BalanceSnapshotEntity;
+import uz.com.model.entity.LedgerEntryEntity;
+import uz.com.model.enums.AccountType;
+import uz.com.model.enums.EntryDirection;
+import uz.com.model.money.Money;
+import uz.com.repository.BalanceSnapshotRepository;
+import uz.com.repository.LedgerEntryRepository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("jpa")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({LedgerService.class, LedgerCompactor.class})
+@TestPropertySource(properties = "ledger.snapshot.lag=3600000")
+class LedgerCompactorTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerCompactor ledgerCompactor;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = ledgerEntryRepository.currentTimestamp();
+    }
+
+    @Test
+    void compact_ShouldSnapshotEveryChangedAccountFromItsOwnLatestSnapshot() {
+        UUID first = account("50.00");
+        entry(first, EntryDirection.CREDIT, "100.00", now.minusHours(3));
+        entry(first, EntryDirection.DEBIT, "30.00", now.minusHours(2));
+        entry(first, EntryDirection.DEBIT, "20.00", now.minusMinutes(30));
+        UUID second = account("15.00");
+        entry(second, EntryDirection.CREDIT, "15.00", now.minusHours(2));
+        UUID third = account("12.00");
+        snapshot(third, "10.00", now.minusMinutes(150));
+        entry(third, EntryDirection.CREDIT, "2.00", now.minusMinutes(140));
+        UUID untouched = account("7.00");
+
+        ledgerCompactor.compact();
+
+        LocalDateTime asOf = now.minusHours(1);
+        assertSnapshot(first, "70.00", asOf);
+        assertSnapshot(second, "15.00", asOf);
+        assertSnapshot(third, "12.00", asOf);
+        assertSnapshot(untouched, "7.00", LedgerService.OPENING);
+        assertEquals(0, new BigDecimal("50.00").compareTo(ledgerService.balanceOf(first)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(ledgerService.balanceAt(first, now.minusMinutes(150))));
+        assertEquals(0, new BigDecimal("12.00").compareTo(ledgerService.balanceOf(third)));
+    }
+
+    @Test
+    void compact_ShouldNotWriteAgain_WhenNothingChangedSinceLastRun() {
+        UUID account = account("5.00");
+        entry(account, EntryDirection.CREDIT, "5.00", now.minusHours(2));
+
+        ledgerCompactor.compact();
+        long snapshots = balanceSnapshotRepository.count();
+        ledgerCompactor.compact();
+
+        assertEquals(snapshots, balanceSnapshotRepository.count());
+    }
+
+    @Test
+    void compact_ShouldFoldEntryCommittedAfterSnapshot_EvenWhenItIsStampedBeforeIt() {
+        UUID account = account("40.00");
+        entry(account, EntryDirection.CREDIT, "40.00", now.minusHours(3));
+        ledgerCompactor.compact();
+
+        entry(account, EntryDirection.CREDIT, "5.00", now.minusHours(2));
+
+        assertEquals(0, new BigDecimal("45.00").compareTo(ledgerService.balanceOf(account)));
+        assertEquals(0, new BigDecimal("45.00").compareTo(ledgerService.balanceAt(account, now.minusMinutes(90))));
+        assertEquals(0, new BigDecimal("40.00").compareTo(ledgerService.balanceAt(account, now.minusMinutes(150))));
+
+        ledgerCompactor.compact();
+
+        assertSnapshot(account, "45.00", now.minusHours(1));
+        assertEquals(0, new BigDecimal("45.00").compareTo(ledgerService.balanceOf(account)));
+        assertEquals(0, new BigDecimal("45.00").compareTo(ledgerService.balanceAt(account, now.minusMinutes(30))));
+    }
+
+    @Test
+    void append_ShouldStampEntriesWithDatabaseClockAndAuthor() {
+        UUID account = account("0.00");
+        UUID author = UUID.randomUUID();
+
+        ledgerService.append(List.of(LedgerService.entry(account, null, EntryDirection.CREDIT, Money.of(new BigDecimal("3.00")), author)));
+
+        LedgerEntryEntity entry = ledgerEntryRepository.findAll().get(0);
+        assertEquals(author, entry.getCreatedBy());
+        assertNotNull(entry.getCreatedAt());
+        assertFalse(entry.getCreatedAt().isBefore(now));
+        assertEquals(0, new BigDecimal("3.00").compareTo(ledgerService.balanceOf(account)));
+    }
+
+    private void assertSnapshot(UUID accountId, String balance, LocalDateTime asOf) {
+        BalanceSnapshotEntity snapshot = balanceSnapshotRepository.findFirstByAccountIdOrderByRunDesc(accountId).orElseThrow();
+        assertEquals(Money.of(new BigDecimal(balance)), snapshot.getBalance(), "balance of " + accountId);
+        assertEquals(asOf, snapshot.getAsOf());
+    }
+
+    private UUID account(String balance) {
+        AccountsEntity account = new AccountsEntity();
+        account.setType(AccountType.MAIN);
+        account.setInterestRate(0);
+        account.setBalance(Money.of(new BigDecimal(balance)));
+        return entityManager.persistAndFlush(account).getId();
+    }
+
+    private void entry(UUID accountId, EntryDirection direction, String amount, LocalDateTime createdAt) {
+        jdbcTemplate.update("insert into ledger_entries (id, account_id, direction, amount, created_at) " +
+                        "values (nextval('ledger_entries_seq'), ?, ?, ?, ?)",
+                accountId, direction.name(), new BigDecimal(amount), Timestamp.valueOf(createdAt));
+    }
+
+    private void snapshot(UUID accountId, String balance, LocalDateTime asOf) {
+        jdbcTemplate.update("insert into balance_snapshots (id, account_id, balance, as_of, run, created_at) " +
+                        "values (nextval('balance_snapshots_seq'), ?, ?, ?, 0, localtimestamp)",
+                accountId, new BigDecimal(balance), Timestamp.valueOf(asOf));
+    }
+}
@@ -0,0 +1,172 @@
+package uz.com.service.ledger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import uz.com.exception.DataNotAcceptableException;
+import uz.com.exception.DataNotFoundException;
+import uz.com.model.entity.AccountsEntity;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.StatementFormat;
+import uz.com.repository.AccountRepository;
+import uz.com.service.auth.CurrentUserService;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.security.Principal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatementServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @Mock
+    private Principal principal;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID transactionId = UUID.randomUUID();
+    private final LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private final LocalDateTime to = LocalDateTime.of(2026, 2, 1, 0, 0);
+
+    private StatementService statementService;
+
+    @BeforeEach
+    void setUp() {
+        statementService = new StatementService(accountRepository, ledgerService, currentUserService, objectMapper, dataSource, transactionManager, 2);
+    }
+
+    @Test
+    void write_ShouldStreamCsvWithRunningBalance_ThroughFetchSizedCursor() throws Exception {
+        stubCursor();
+
+        String csv = write(StatementFormat.CSV);
+
+        assertEquals(String.join("\n",
+                "date,transactionId,type,direction,amount,balance",
+                "2026-01-01T00:00,,,,,100.00",
+                "2026-01-02T10:00," + transactionId + ",PAYMENT,DEBIT,30.00,70.00",
+                "2026-01-03T10:00,,,CREDIT,12.50,82.50",
+                "2026-01-04T10:00," + transactionId + ",PAYMENT,DEBIT,82.50,0.00") + "\n", csv);
+        verify(statement).setFetchSize(2);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void write_ShouldStreamNdjson() throws Exception {
+        stubCursor();
+
+        String[] lines = write(StatementFormat.NDJSON).split("\n");
+
+        assertEquals(4, lines.length);
+        JsonNode last = objectMapper.readTree(lines[3]);
+        assertEquals("2026-01-04T10:00:00", last.get("date").asText());
+        assertEquals("DEBIT", last.get("direction").asText());
+        assertEquals(0, new BigDecimal("0.00").compareTo(last.get("balance").decimalValue()));
+        assertEquals(0, new BigDecimal("100.00").compareTo(objectMapper.readTree(lines[0]).get("balance").decimalValue()));
+    }
+
+    @Test
+    void check_ShouldRejectUnknownAccountAndEmptyRange() {
+        UUID ownerId = UUID.randomUUID();
+        when(accountRepository.findAccountsEntityByIdAndDeletedFalse(accountId)).thenReturn(null, account(ownerId));
+        when(currentUserService.getUserId(principal)).thenReturn(ownerId);
+
+        assertThrows(DataNotFoundException.class, () -> statementService.check(accountId, from, to, principal));
+        assertThrows(DataNotAcceptableException.class, () -> statementService.check(accountId, to, from, principal));
+    }
+
+    @Test
+    void check_ShouldHideAccountOfAnotherClient() {
+        when(accountRepository.findAccountsEntityByIdAndDeletedFalse(accountId)).thenReturn(account(UUID.randomUUID()));
+        when(currentUserService.getUserId(principal)).thenReturn(UUID.randomUUID());
+
+        Exception exception = assertThrows(DataNotFoundException.class,
+                () -> statementService.check(accountId, from, to, principal));
+
+        assertEquals("Account not found!", exception.getMessage());
+    }
+
+    @Test
+    void check_ShouldLetStaffExportAnyAccount() {
+        when(accountRepository.findAccountsEntityByIdAndDeletedFalse(accountId)).thenReturn(account(UUID.randomUUID()));
+        when(currentUserService.isStaff(principal)).thenReturn(true);
+
+        assertDoesNotThrow(() -> statementService.check(accountId, from, to, principal));
+        verify(currentUserService, never()).getUserId(any());
+    }
+
+    private AccountsEntity account(UUID ownerId) {
+        UserEntity owner = new UserEntity();
+        owner.setId(ownerId);
+        AccountsEntity account = new AccountsEntity();
+        account.setId(accountId);
+        account.setUser(owner);
+        return account;
+    }
+
+    private void stubCursor() throws Exception {
+        when(ledgerService.balanceAt(accountId, from)).thenReturn(new BigDecimal("100.00"));
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        when(resultSet.getString("direction")).thenReturn("DEBIT", "CREDIT", "DEBIT");
+        when(resultSet.getBigDecimal("amount")).thenReturn(new BigDecimal("30.00"), new BigDecimal("12.50"), new BigDecimal("82.50"));
+        when(resultSet.getTimestamp("created_at")).thenReturn(
+                Timestamp.valueOf(LocalDateTime.of(2026, 1, 2, 10, 0)),
+                Timestamp.valueOf(LocalDateTime.of(2026, 1, 3, 10, 0)),
+                Timestamp.valueOf(LocalDateTime.of(2026, 1, 4, 10, 0)));
+        when(resultSet.getObject("transaction_id", UUID.class)).thenReturn(transactionId, null, transactionId);
+        when(resultSet.getString("type")).thenReturn("PAYMENT", null, "PAYMENT");
+    }
+
+    private String write(StatementFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statementService.write(accountId, from, to, format, out);
+        return out.toString();
+    }
+}
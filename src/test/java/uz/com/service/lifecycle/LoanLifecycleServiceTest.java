@@ -0,0 +1,149 @@
+package uz.com.service.lifecycle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import uz.com.model.entity.LoansEntity;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.LoanStatus;
+import uz.com.model.money.Money;
+import uz.com.repository.LoansRepository;
+import uz.com.service.debt.DebtContribution;
+import uz.com.service.debt.DebtSummaryService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanLifecycleServiceTest {
+
+    @Mock
+    private LoansRepository loansRepository;
+
+    @Mock
+    private DebtSummaryService debtSummaryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDate today = LocalDate.now();
+    private LoanLifecycleService loanLifecycleService;
+
+    @BeforeEach
+    void setUp() {
+        loanLifecycleService = new LoanLifecycleService(loansRepository, debtSummaryService, transactionManager,
+                meterRegistry, 60_000, 64, 7, 2);
+    }
+
+    @Test
+    void settledStatus_ShouldCompleteActiveAndOverdueLoans_WhenNothingIsLeftToPay() {
+        assertEquals(LoanStatus.COMPLETED, LoanLifecycleService.settledStatus(LoanStatus.ACTIVE, Money.ZERO));
+        assertEquals(LoanStatus.COMPLETED, LoanLifecycleService.settledStatus(LoanStatus.OVERDUE, Money.ZERO));
+        assertEquals(LoanStatus.ACTIVE, LoanLifecycleService.settledStatus(LoanStatus.ACTIVE, Money.ofMinor(1)));
+        assertEquals(LoanStatus.OVERDUE, LoanLifecycleService.settledStatus(LoanStatus.OVERDUE, Money.ofMinor(1)));
+        assertEquals(LoanStatus.FREEZE, LoanLifecycleService.settledStatus(LoanStatus.FREEZE, Money.ZERO));
+        assertEquals(LoanStatus.ACTIVE, LoanLifecycleService.settledStatus(LoanStatus.ACTIVE, null));
+    }
+
+    @Test
+    void refill_ShouldPageByDueDateAndId_UntilAShortPageIsReturned() {
+        LoansRepository.LoanDueDate first = dueDate(UUID.randomUUID(), today.plusDays(2));
+        LoansRepository.LoanDueDate second = dueDate(UUID.randomUUID(), today.plusDays(3));
+        LoansRepository.LoanDueDate third = dueDate(UUID.randomUUID(), today.plusDays(4));
+        when(loansRepository.findDueBefore(eq(LoanStatus.ACTIVE), eq(today.plusDays(7)), eq(LocalDate.of(1, 1, 1)),
+                eq(new UUID(0L, 0L)), eq(Limit.of(2)))).thenReturn(List.of(first, second));
+        when(loansRepository.findDueBefore(eq(LoanStatus.ACTIVE), eq(today.plusDays(7)), eq(second.getDueDate()),
+                eq(second.getId()), eq(Limit.of(2)))).thenReturn(List.of(third));
+
+        loanLifecycleService.refill();
+
+        verify(loansRepository, times(2)).findDueBefore(any(), any(), any(), any(), any());
+        verify(loansRepository, never()).findForUpdate(any());
+        assertEquals(3, meterRegistry.get("loan.lifecycle.timers").gauge().value());
+    }
+
+    @Test
+    void refill_ShouldMarkPastDueLoanOverdue_InsteadOfSchedulingIt() {
+        LoansEntity loan = loan(LoanStatus.ACTIVE, today.minusDays(1), "500.00");
+        DebtContribution before = DebtContribution.of(loan);
+        when(loansRepository.findDueBefore(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(dueDate(loan.getId(), loan.getDueDate())));
+        when(loansRepository.findForUpdate(loan.getId())).thenReturn(loan);
+        when(debtSummaryService.prepare(loan.getUser().getId(), loan)).thenReturn(before);
+
+        loanLifecycleService.refill();
+
+        assertEquals(LoanStatus.OVERDUE, loan.getStatus());
+        verify(loansRepository).saveAndFlush(loan);
+        verify(debtSummaryService).apply(loan.getUser().getId(), before, loan);
+        assertEquals(1, meterRegistry.get("loan.lifecycle.transitions").tag("status", "OVERDUE").counter().count());
+        assertEquals(0, meterRegistry.get("loan.lifecycle.timers").gauge().value());
+    }
+
+    @Test
+    void refill_ShouldCompletePastDueLoan_WhenItIsFullyPaid() {
+        LoansEntity loan = loan(LoanStatus.ACTIVE, today.minusDays(3), "0.00");
+        when(loansRepository.findDueBefore(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(dueDate(loan.getId(), loan.getDueDate())));
+        when(loansRepository.findForUpdate(loan.getId())).thenReturn(loan);
+
+        loanLifecycleService.refill();
+
+        assertEquals(LoanStatus.COMPLETED, loan.getStatus());
+        verify(loansRepository).saveAndFlush(loan);
+        assertEquals(1, meterRegistry.get("loan.lifecycle.transitions").tag("status", "COMPLETED").counter().count());
+    }
+
+    @Test
+    void refill_ShouldLeaveLoanUntouched_WhenItIsNoLongerActiveAtLockTime() {
+        LoansEntity loan = loan(LoanStatus.FREEZE, today.minusDays(1), "500.00");
+        when(loansRepository.findDueBefore(any(), any(), any(), any(), any()))
+                .thenReturn(List.of(dueDate(loan.getId(), loan.getDueDate())));
+        when(loansRepository.findForUpdate(loan.getId())).thenReturn(loan);
+
+        loanLifecycleService.refill();
+
+        assertEquals(LoanStatus.FREEZE, loan.getStatus());
+        verify(loansRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(debtSummaryService);
+    }
+
+    private static LoansRepository.LoanDueDate dueDate(UUID id, LocalDate dueDate) {
+        return new LoansRepository.LoanDueDate() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDate getDueDate() {
+                return dueDate;
+            }
+        };
+    }
+
+    private static LoansEntity loan(LoanStatus status, LocalDate dueDate, String mustBePay) {
+        UserEntity user = new UserEntity();
+        user.setId(UUID.randomUUID());
+        LoansEntity loan = new LoansEntity();
+        loan.setId(UUID.randomUUID());
+        loan.setUser(user);
+        loan.setStatus(status);
+        loan.setDueDate(dueDate);
+        loan.setMustBePay(Money.of(new BigDecimal(mustBePay)));
+        return loan;
+    }
+}
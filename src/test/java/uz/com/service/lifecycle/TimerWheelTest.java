@@ -0,0 +1,54 @@
+package uz.com.service.lifecycle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    void advance_ShouldFireEachTimerInItsTick_AcrossAllLevels() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(1000, 8, 0);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = random.nextInt(5_000_000);
+            deadlines.put(i, deadline);
+            wheel.schedule(i, deadline);
+        }
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        for (long now = 0; now <= 5_000_000; now += 1000) {
+            for (Integer key : wheel.advance(now)) {
+                assertNull(firedAt.put(key, now));
+            }
+        }
+
+        assertEquals(deadlines.size(), firedAt.size());
+        deadlines.forEach((key, deadline) -> assertEquals(deadline / 1000 * 1000, firedAt.get(key)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_ShouldFireOverdueTimersOnNextAdvance_AndHonourCancelAndReschedule() {
+        TimerWheel<String> wheel = new TimerWheel<>(60_000, 64, 10_000_000);
+        wheel.schedule("past", 0);
+        wheel.schedule("cancelled", 20_000_000);
+        wheel.schedule("moved", 20_000_000);
+        wheel.schedule("moved", 90_000_000);
+
+        assertEquals(List.of("past"), wheel.advance(10_000_000));
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("cancelled"));
+
+        List<String> fired = new ArrayList<>(wheel.advance(89_999_999));
+        assertTrue(fired.isEmpty());
+        assertEquals(List.of("moved"), wheel.advance(90_000_000));
+    }
+}
@@ -0,0 +1,260 @@
+package uz.com.service.mail;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import uz.com.model.entity.MailOutboxEntity;
+import uz.com.model.enums.MailStatus;
+import uz.com.repository.MailOutboxRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MailDispatcherTest {
+
+    @Mock
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<Collection<UUID>> ids;
+
+    @Captor
+    private ArgumentCaptor<LocalDateTime> times;
+
+    private FakeSmtpServer smtp;
+    private MailDispatcher mailDispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new FakeSmtpServer(Set.of("missing@example.com"));
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("127.0.0.1");
+        javaMailSender.setPort(smtp.port());
+        mailDispatcher = new MailDispatcher(mailOutboxRepository, javaMailSender, transactionManager, new SimpleMeterRegistry(),
+                "bank@example.com", 1, 10, 3, 60_000, 5_000, 600_000, 86_400_000);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mailDispatcher.shutdown();
+        smtp.close();
+    }
+
+    @Test
+    void dispatchBatch_ShouldSendWholeBatchOverOneConnection_AndRetryRejectedRecipients() {
+        MailOutboxEntity first = mail("first@example.com", 0);
+        MailOutboxEntity missing = mail("missing@example.com", 0);
+        MailOutboxEntity second = mail("second@example.com", 0);
+        when(mailOutboxRepository.findDueForUpdate(any(), eq(10))).thenReturn(List.of(first, missing, second));
+
+        assertEquals(3, mailDispatcher.dispatchBatch());
+
+        assertEquals(1, smtp.connections.get());
+        assertEquals(2, smtp.delivered.size());
+        assertTrue(smtp.delivered.stream().allMatch(data -> data.contains("Your verification code")));
+        verify(mailOutboxRepository).lease(eq(List.of(first.getId(), missing.getId(), second.getId())), any());
+        verify(mailOutboxRepository).markSent(ids.capture(), any());
+        assertEquals(List.of(first.getId(), second.getId()), List.copyOf(ids.getValue()));
+        verify(mailOutboxRepository).reschedule(eq(missing.getId()), eq(MailStatus.PENDING), times.capture(), anyString());
+        assertTrue(times.getValue().isAfter(LocalDateTime.now().plusSeconds(3)));
+    }
+
+    @Test
+    void dispatchBatch_ShouldGiveUp_AfterMaxAttempts() {
+        MailOutboxEntity missing = mail("missing@example.com", 2);
+        when(mailOutboxRepository.findDueForUpdate(any(), anyInt())).thenReturn(List.of(missing));
+
+        mailDispatcher.dispatchBatch();
+
+        verify(mailOutboxRepository).reschedule(eq(missing.getId()), eq(MailStatus.FAILED), any(), anyString());
+        verify(mailOutboxRepository, never()).markSent(anyList(), any());
+    }
+
+    @Test
+    void dispatchBatch_ShouldRescheduleEveryMail_WhenServerIsDown() throws IOException {
+        smtp.close();
+        MailOutboxEntity first = mail("first@example.com", 0);
+        MailOutboxEntity second = mail("second@example.com", 0);
+        when(mailOutboxRepository.findDueForUpdate(any(), anyInt())).thenReturn(List.of(first, second));
+
+        mailDispatcher.dispatchBatch();
+
+        verify(mailOutboxRepository).reschedule(eq(first.getId()), eq(MailStatus.PENDING), any(), anyString());
+        verify(mailOutboxRepository).reschedule(eq(second.getId()), eq(MailStatus.PENDING), any(), anyString());
+        verify(mailOutboxRepository, never()).markSent(anyList(), any());
+    }
+
+    @Test
+    void dispatchBatch_ShouldNotTouchSmtp_WhenOutboxIsEmpty() {
+        when(mailOutboxRepository.findDueForUpdate(any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, mailDispatcher.dispatchBatch());
+
+        assertEquals(0, smtp.connections.get());
+        verify(mailOutboxRepository, never()).lease(anyList(), any());
+    }
+
+    @Test
+    void dispatchBatch_ShouldResendMail_WhenLeaseOfCrashedNodeExpired() {
+        MailOutboxEntity orphaned = mail("first@example.com", 1);
+        orphaned.setLeasedUntil(LocalDateTime.now().minusMinutes(1));
+        when(mailOutboxRepository.findDueForUpdate(any(), anyInt())).thenReturn(List.of(orphaned));
+
+        assertEquals(1, mailDispatcher.dispatchBatch());
+
+        assertEquals(1, smtp.delivered.size());
+        verify(mailOutboxRepository).lease(eq(List.of(orphaned.getId())), any());
+        verify(mailOutboxRepository).markSent(eq(List.of(orphaned.getId())), any());
+    }
+
+    @Test
+    void dispatchBatch_ShouldFailMail_WhenLeaseExpiredOnItsLastAttempt() {
+        MailOutboxEntity orphaned = mail("first@example.com", 3);
+        orphaned.setLeasedUntil(LocalDateTime.now().minusMinutes(1));
+        when(mailOutboxRepository.findDueForUpdate(any(), anyInt())).thenReturn(List.of(orphaned));
+
+        assertEquals(1, mailDispatcher.dispatchBatch());
+
+        assertEquals(0, smtp.connections.get());
+        verify(mailOutboxRepository).reschedule(eq(orphaned.getId()), eq(MailStatus.FAILED), any(), eq("Lease expired"));
+        verify(mailOutboxRepository, never()).lease(anyList(), any());
+    }
+
+    @Test
+    void purge_ShouldDeleteFinishedMails_OlderThanRetention() {
+        mailDispatcher.purge();
+
+        verify(mailOutboxRepository).deleteFinishedBefore(eq(List.of(MailStatus.SENT, MailStatus.FAILED)), times.capture());
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
+        assertFalse(times.getValue().isAfter(cutoff));
+        assertTrue(times.getValue().isAfter(cutoff.minusMinutes(1)));
+    }
+
+    @Test
+    void backoff_ShouldDoublePerAttempt_UpToTheCap() {
+        Duration base = Duration.ofSeconds(5);
+        Duration max = Duration.ofMinutes(1);
+
+        assertEquals(Duration.ofSeconds(5), MailDispatcher.backoff(1, base, max));
+        assertEquals(Duration.ofSeconds(20), MailDispatcher.backoff(3, base, max));
+        assertEquals(max, MailDispatcher.backoff(5, base, max));
+        assertEquals(max, MailDispatcher.backoff(100, base, max));
+    }
+
+    private static MailOutboxEntity mail(String recipient, int attempts) {
+        return MailOutboxEntity.builder()
+                .id(UUID.randomUUID())
+                .recipient(recipient)
+                .subject("Verification code")
+                .body("Do not give to others this code. Your verification code: 12345678")
+                .status(MailStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static class FakeSmtpServer implements AutoCloseable {
+
+        private final ServerSocket server;
+        private final Set<String> rejected;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final Queue<String> delivered = new ConcurrentLinkedQueue<>();
+
+        private FakeSmtpServer(Set<String> rejected) throws IOException {
+            this.server = new ServerSocket(0);
+            this.rejected = rejected;
+            Thread acceptor = new Thread(this::accept, "fake-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private int port() {
+            return server.getLocalPort();
+        }
+
+        private void accept() {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    connections.incrementAndGet();
+                    converse(socket);
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void converse(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+            reply(out, "220 localhost fake SMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("RCPT TO:")) {
+                    boolean known = rejected.stream().noneMatch(line::contains);
+                    reply(out, known ? "250 OK" : "550 No such user");
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line).append('\n');
+                    }
+                    delivered.add(data.toString());
+                    reply(out, "250 OK");
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "250 OK");
+                }
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package uz.com.service.paging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CountServiceTest {
+
+    private static final String PLAN = "explain (format json) select 1 from users where is_deleted = false";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CountService countService;
+    private final AtomicLong exact = new AtomicLong(42);
+
+    @BeforeEach
+    void setUp() {
+        countService = new CountService(jdbcTemplate, new ObjectMapper(), 60_000, 1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void count_ShouldCountExactly_BelowThreshold() {
+        when(jdbcTemplate.queryForObject(PLAN, String.class)).thenReturn(plan(999));
+
+        CountService.TableCount count = countService.count("users", exact::get);
+
+        assertEquals(42, count.total());
+        assertFalse(count.estimated());
+    }
+
+    @Test
+    void count_ShouldUseEstimateOfLiveRows_AboveThreshold() {
+        when(jdbcTemplate.queryForObject(PLAN, String.class)).thenReturn(plan(250_000));
+
+        CountService.TableCount count = countService.count("users", () -> fail("exact count must not run"));
+
+        assertEquals(250_000, count.total());
+        assertTrue(count.estimated());
+        assertEquals(12_500, count.pageCount(20));
+    }
+
+    @Test
+    void count_ShouldServeCachedValue_UntilInvalidated() {
+        when(jdbcTemplate.queryForObject(PLAN, String.class)).thenReturn(plan(10));
+
+        countService.count("users", exact::get);
+        exact.set(43);
+        assertEquals(42, countService.count("users", exact::get).total());
+
+        countService.invalidate("users");
+        assertEquals(43, countService.count("users", exact::get).total());
+        verify(jdbcTemplate, times(2)).queryForObject(PLAN, String.class);
+    }
+
+    @Test
+    void invalidate_ShouldWaitForCommit_InsideTransaction() {
+        when(jdbcTemplate.queryForObject(PLAN, String.class)).thenReturn(plan(10));
+        countService.count("users", exact::get);
+        exact.set(43);
+
+        TransactionSynchronizationManager.initSynchronization();
+        countService.invalidate("users");
+        assertEquals(42, countService.count("users", exact::get).total());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(43, countService.count("users", exact::get).total());
+    }
+
+    @Test
+    void count_ShouldRejectUnknownTable() {
+        assertThrows(IllegalArgumentException.class, () -> countService.count("users where 1=1", exact::get));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static String plan(long rows) {
+        return "[{\"Plan\": {\"Node Type\": \"Seq Scan\", \"Relation Name\": \"users\", \"Plan Rows\": " + rows + "}}]";
+    }
+}
@@ -0,0 +1,76 @@
+package uz.com.service.paging;
+
+import org.junit.jupiter.api.Test;
+import uz.com.exception.DataNotAcceptableException;
+import uz.com.model.dto.response.PageResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    private final PageCursor cursor = new PageCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000),
+            UUID.fromString("8f14e45f-ceea-467a-9575-8e6e1a4b1f2c"));
+
+    @Test
+    void decode_ShouldReturnSamePosition_AfterEncode() {
+        String token = cursor.encode();
+
+        assertEquals(cursor, PageCursor.decode(token));
+        assertFalse(token.contains("="));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decode_ShouldStartFromFirstPage_WhenCursorIsEmpty() {
+        assertSame(PageCursor.FIRST, PageCursor.decode(null));
+        assertSame(PageCursor.FIRST, PageCursor.decode(" "));
+    }
+
+    @Test
+    void decode_ShouldRejectGarbage() {
+        assertInvalid("not a cursor!");
+        assertInvalid("%%%");
+        assertInvalid(encoded("no separator here"));
+        assertInvalid(encoded("2025-03-14T09:26:53|not-a-uuid"));
+        assertInvalid(encoded("yesterday|" + cursor.id()));
+    }
+
+    @Test
+    void decode_ShouldRejectTamperedCursor() {
+        String token = cursor.encode();
+
+        assertInvalid(token.substring(0, token.length() / 2));
+        assertInvalid(token + "!");
+        assertInvalid(encoded(cursor.createdAt() + "|" + cursor.id() + "|" + cursor.id()));
+        assertInvalid(encoded(cursor.createdAt() + "' or '1'='1|" + cursor.id()));
+    }
+
+    @Test
+    void page_ShouldReturnCursorOfLastRow_WhenMoreRowsExist() {
+        List<PageCursor> rows = List.of(
+                new PageCursor(cursor.createdAt(), UUID.randomUUID()),
+                cursor,
+                new PageCursor(cursor.createdAt().minusDays(1), UUID.randomUUID()));
+
+        PageResponse<UUID> page = PageCursor.page(rows, 2, PageCursor::createdAt, PageCursor::id, PageCursor::id);
+
+        assertEquals(List.of(rows.get(0).id(), cursor.id()), page.getResponse());
+        assertEquals(cursor, PageCursor.decode(page.getNextCursor()));
+        assertNull(PageCursor.page(rows, 3, PageCursor::createdAt, PageCursor::id, PageCursor::id).getNextCursor());
+    }
+
+    private static String encoded(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertInvalid(String token) {
+        DataNotAcceptableException exception = assertThrows(DataNotAcceptableException.class, () -> PageCursor.decode(token));
+        assertEquals("Invalid cursor!", exception.getMessage());
+    }
+}
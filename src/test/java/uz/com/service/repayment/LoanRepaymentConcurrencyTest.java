@@ -0,0 +1,185 @@
+package uz.com.service.repayment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uz.com.exception.DataNotAcceptableException;
+import uz.com.model.entity.AccountsEntity;
+import uz.com.model.entity.LoansEntity;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.AccountType;
+import uz.com.model.enums.LoanStatus;
+import uz.com.model.enums.UserRole;
+import uz.com.model.money.Money;
+import uz.com.repository.AccountRepository;
+import uz.com.repository.BalanceSnapshotRepository;
+import uz.com.repository.LedgerEntryRepository;
+import uz.com.repository.LoansRepository;
+import uz.com.repository.TransactionRepository;
+import uz.com.repository.UserRepository;
+import uz.com.service.debt.DebtSummaryService;
+import uz.com.service.ledger.LedgerService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("jpa")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoanRepaymentConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private LoansRepository loansRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private LedgerService ledgerService;
+    private LoanRepaymentService loanRepaymentService;
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new LedgerService(ledgerEntryRepository, balanceSnapshotRepository, jdbcTemplate);
+        loanRepaymentService = new LoanRepaymentService(loansRepository, accountRepository, transactionRepository,
+                ledgerService, Mockito.mock(DebtSummaryService.class), transactionManager, new SimpleMeterRegistry(), 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from ledger_entries");
+        jdbcTemplate.update("delete from transactions");
+        jdbcTemplate.update("delete from loans");
+        jdbcTemplate.update("delete from accounts");
+        jdbcTemplate.update("delete from users_role");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void repay_ShouldNeverOverpayLoan_AndDebitExactlyWhatLoanWasReduced_UnderConcurrentPayments() throws Exception {
+        UserEntity borrower = userRepository.save(borrower());
+        AccountsEntity account = accountRepository.save(account(borrower, "1000.00"));
+        LoansEntity loan = loansRepository.save(loan(borrower, "100.00"));
+        Money payment = money("7.00");
+        AtomicInteger paid = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    for (int i = 0; i < 100; i++) {
+                        try {
+                            LoansEntity repaid = loanRepaymentService.repay(loan.getId(), account.getId(), payment,
+                                    borrower.getId(), false);
+                            assertFalse(repaid.getMustBePay().isNegative());
+                            paid.incrementAndGet();
+                        } catch (DataNotAcceptableException e) {
+                            if ("Invalid amount!".equals(e.getMessage())) {
+                                return null;
+                            }
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            assertTrue(ready.await(10, TimeUnit.SECONDS));
+            go.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Money reduced = payment.times(paid.get());
+        LoansEntity stored = loansRepository.findById(loan.getId()).orElseThrow();
+        AccountsEntity debited = accountRepository.findById(account.getId()).orElseThrow();
+        assertEquals(14, paid.get());
+        assertEquals(money("2.00"), stored.getMustBePay());
+        assertEquals(reduced, stored.getPaidEver());
+        assertEquals(money("1000.00").minus(reduced), debited.getBalance());
+        assertEquals(paid.get(), transactionRepository.count());
+        assertEquals(0, reduced.toBigDecimal().negate().compareTo(ledgerService.balanceOf(account.getId())));
+    }
+
+    private static UserEntity borrower() {
+        UserEntity user = new UserEntity();
+        user.setFullName("Test User");
+        user.setEmail("payer@gmail.com");
+        user.setPhone("+998900000010");
+        user.setPassword("Password1!");
+        user.setAddress("Tashkent");
+        user.setRole(Set.of(UserRole.CLIENT));
+        return user;
+    }
+
+    private static AccountsEntity account(UserEntity owner, String balance) {
+        AccountsEntity account = new AccountsEntity();
+        account.setUser(owner);
+        account.setType(AccountType.MAIN);
+        account.setInterestRate(0);
+        account.setBalance(money(balance));
+        return account;
+    }
+
+    private static LoansEntity loan(UserEntity borrower, String mustBePay) {
+        LoansEntity loan = new LoansEntity();
+        loan.setUser(borrower);
+        loan.setAmount(money(mustBePay));
+        loan.setInterestRate(0.0);
+        loan.setStatus(LoanStatus.ACTIVE);
+        loan.setMustBePay(money(mustBePay));
+        loan.setPaidEver(Money.ZERO);
+        return loan;
+    }
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+}
@@ -0,0 +1,160 @@
+package uz.com.service.repayment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import uz.com.exception.DataNotAcceptableException;
+import uz.com.exception.DataNotFoundException;
+import uz.com.model.entity.AccountsEntity;
+import uz.com.model.entity.LoansEntity;
+import uz.com.model.entity.TransactionEntity;
+import uz.com.model.entity.UserEntity;
+import uz.com.model.enums.LoanStatus;
+import uz.com.model.money.Money;
+import uz.com.repository.AccountRepository;
+import uz.com.repository.LoansRepository;
+import uz.com.repository.TransactionRepository;
+import uz.com.service.debt.DebtSummaryService;
+import uz.com.service.ledger.LedgerService;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanRepaymentServiceTest {
+
+    @Mock
+    private LoansRepository loansRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private DebtSummaryService debtSummaryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID loanId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+    private final UserEntity borrower = new UserEntity();
+
+    private LoanRepaymentService loanRepaymentService;
+
+    @BeforeEach
+    void setUp() {
+        borrower.setId(UUID.randomUUID());
+        loanRepaymentService = new LoanRepaymentService(loansRepository, accountRepository, transactionRepository,
+                ledgerService, debtSummaryService, transactionManager, meterRegistry, 3);
+    }
+
+    @Test
+    void repay_ShouldRejectCaller_WhoIsNeitherBorrowerNorStaff() {
+        when(loansRepository.findLoansEntityByIdAndDeletedFalse(loanId)).thenReturn(loan("100.00", "0.00"));
+
+        Exception exception = assertThrows(DataNotFoundException.class,
+                () -> loanRepaymentService.repay(loanId, accountId, money("10.00"), UUID.randomUUID(), false));
+
+        assertEquals("Loan not found!", exception.getMessage());
+        verify(loansRepository, never()).compareAndPay(any(), any(), any(), any(), any(), any());
+        verifyNoInteractions(accountRepository, transactionRepository);
+    }
+
+    @Test
+    void repay_ShouldDebitBorrowerAccount_WhenStaffPaysForIt() {
+        UUID managerId = UUID.randomUUID();
+        when(loansRepository.findLoansEntityByIdAndDeletedFalse(loanId)).thenReturn(loan("100.00", "0.00"));
+        when(loansRepository.compareAndPay(loanId, money("100.00"), LoanStatus.ACTIVE, money("90.00"), money("10.00"),
+                LoanStatus.ACTIVE)).thenReturn(1);
+        when(accountRepository.debitOwnedBalance(accountId, borrower.getId(), money("10.00"))).thenReturn(1);
+        when(transactionRepository.save(any(TransactionEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        LoansEntity repaid = loanRepaymentService.repay(loanId, accountId, money("10.00"), managerId, true);
+
+        assertEquals(money("90.00"), repaid.getMustBePay());
+        assertEquals(money("10.00"), repaid.getPaidEver());
+        verify(transactionRepository).save(argThat(transaction -> managerId.equals(transaction.getCreatedBy())
+                && money("10.00").equals(transaction.getAmount())));
+    }
+
+    @Test
+    void repay_ShouldRetryOnFreshLoan_WhenConcurrentPaymentChangedIt() {
+        when(loansRepository.findLoansEntityByIdAndDeletedFalse(loanId))
+                .thenReturn(loan("100.00", "0.00"), loan("70.00", "30.00"));
+        when(loansRepository.compareAndPay(loanId, money("100.00"), LoanStatus.ACTIVE, money("30.00"), money("70.00"),
+                LoanStatus.ACTIVE)).thenReturn(0);
+        when(loansRepository.compareAndPay(loanId, money("70.00"), LoanStatus.ACTIVE, money("0.00"), money("100.00"),
+                LoanStatus.COMPLETED)).thenReturn(1);
+        when(accountRepository.debitOwnedBalance(accountId, borrower.getId(), money("70.00"))).thenReturn(1);
+        when(transactionRepository.save(any(TransactionEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        LoansEntity repaid = loanRepaymentService.repay(loanId, accountId, money("70.00"), borrower.getId(), false);
+
+        assertEquals(LoanStatus.COMPLETED, repaid.getStatus());
+        assertEquals(money("100.00"), repaid.getPaidEver());
+        assertEquals(1, meterRegistry.counter("loan.repayment.conflicts").count());
+        verify(accountRepository, times(1)).debitOwnedBalance(any(), any(), any());
+    }
+
+    @Test
+    void repay_ShouldGiveUp_WhenEveryAttemptLosesTheRace() {
+        when(loansRepository.findLoansEntityByIdAndDeletedFalse(loanId)).thenAnswer(invocation -> loan("100.00", "0.00"));
+        when(loansRepository.compareAndPay(eq(loanId), any(), any(), any(), any(), any())).thenReturn(0);
+
+        Exception exception = assertThrows(DataNotAcceptableException.class,
+                () -> loanRepaymentService.repay(loanId, accountId, money("10.00"), borrower.getId(), false));
+
+        assertEquals("Loan is being paid concurrently! Try again later!", exception.getMessage());
+        assertEquals(3, meterRegistry.counter("loan.repayment.conflicts").count());
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void repay_ShouldRollBackLoanUpdate_WhenAccountHasNoEnoughBalance() {
+        AccountsEntity account = new AccountsEntity();
+        account.setUser(borrower);
+        when(loansRepository.findLoansEntityByIdAndDeletedFalse(loanId)).thenReturn(loan("100.00", "0.00"));
+        when(loansRepository.compareAndPay(eq(loanId), any(), any(), any(), any(), any())).thenReturn(1);
+        when(accountRepository.debitOwnedBalance(accountId, borrower.getId(), money("10.00"))).thenReturn(0);
+        when(accountRepository.findAccountsEntityByIdAndDeletedFalse(accountId)).thenReturn(account);
+
+        Exception exception = assertThrows(DataNotAcceptableException.class,
+                () -> loanRepaymentService.repay(loanId, accountId, money("10.00"), borrower.getId(), false));
+
+        assertEquals("Has no enough balance in account! Try again later!", exception.getMessage());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(debtSummaryService, never()).apply(any(), any(), any());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private LoansEntity loan(String mustBePay, String paidEver) {
+        LoansEntity loan = new LoansEntity();
+        loan.setId(loanId);
+        loan.setUser(borrower);
+        loan.setMustBePay(money(mustBePay));
+        loan.setPaidEver(money(paidEver));
+        loan.setStatus(LoanStatus.ACTIVE);
+        return loan;
+    }
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+}
@@ -0,0 +1,103 @@
+package uz.com.service.step;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uz.com.model.enums.UserStep;
+import uz.com.repository.UserRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStepTrackerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserStepTracker userStepTracker;
+
+    @BeforeEach
+    void setUp() {
+        userStepTracker = new UserStepTracker(userRepository, new SimpleMeterRegistry(), 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void flush_ShouldCoalesceRepeatedSteps_IntoOneBatchedUpdate() {
+        UUID user = UUID.randomUUID();
+        for (int i = 0; i < 1000; i++) {
+            userStepTracker.record(user, UserStep.TRANSACTION_CREATE);
+        }
+
+        userStepTracker.flush();
+        userStepTracker.flush();
+
+        verify(userRepository, times(1)).updateSteps(List.of(user), UserStep.TRANSACTION_CREATE);
+        assertEquals(0, userStepTracker.getPendingCount());
+    }
+
+    @Test
+    void record_ShouldSkipWrite_WhenStepDidNotChange() {
+        UUID user = UUID.randomUUID();
+        userStepTracker.record(user, UserStep.LOAN_CREATE);
+        userStepTracker.flush();
+
+        userStepTracker.record(user, UserStep.LOAN_CREATE);
+        userStepTracker.flush();
+        userStepTracker.record(user, UserStep.TRANSACTION_CREATE);
+        userStepTracker.flush();
+
+        verify(userRepository, times(1)).updateSteps(List.of(user), UserStep.LOAN_CREATE);
+        verify(userRepository, times(1)).updateSteps(List.of(user), UserStep.TRANSACTION_CREATE);
+    }
+
+    @Test
+    void flush_ShouldSplitBatches_AndRetryFailedOnes() {
+        List<UUID> users = IntStream.range(0, 5).mapToObj(i -> UUID.randomUUID()).toList();
+        when(userRepository.updateSteps(anyList(), any()))
+                .thenThrow(new IllegalStateException("database is down"))
+                .thenReturn(2);
+        userStepTracker.record(users, UserStep.ACCOUNT_CREATE);
+
+        userStepTracker.flush();
+        assertEquals(2, userStepTracker.getPendingCount());
+        userStepTracker.flush();
+
+        verify(userRepository, times(4)).updateSteps(anyList(), eq(UserStep.ACCOUNT_CREATE));
+        assertEquals(0, userStepTracker.getPendingCount());
+    }
+
+    @Test
+    void record_ShouldWaitForCommit_InsideTransaction() {
+        UUID user = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+        userStepTracker.record(user, UserStep.LOAN_CREATE);
+        assertEquals(0, userStepTracker.getPendingCount());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(1, userStepTracker.getPendingCount());
+    }
+}
@@ -0,0 +1,63 @@
+package uz.com.service.verification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryVerificationCodeStoreTest {
+
+    private final UUID user = UUID.randomUUID();
+
+    @Test
+    void consume_ShouldAcceptCodeOnlyOnce() {
+        InMemoryVerificationCodeStore store = store(300_000, 5);
+        store.put(user, 12345678);
+
+        assertTrue(store.consume(user, 12345678));
+        assertFalse(store.consume(user, 12345678));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void put_ShouldReplacePreviousCode() {
+        InMemoryVerificationCodeStore store = store(300_000, 5);
+        store.put(user, 11111111);
+        store.put(user, 22222222);
+
+        assertFalse(store.consume(user, 11111111));
+        assertTrue(store.consume(user, 22222222));
+    }
+
+    @Test
+    void consume_ShouldDropCode_AfterMaxWrongAttempts() {
+        InMemoryVerificationCodeStore store = store(300_000, 3);
+        store.put(user, 12345678);
+
+        assertFalse(store.consume(user, 1));
+        assertFalse(store.consume(user, null));
+        assertFalse(store.consume(user, 2));
+
+        assertFalse(store.consume(user, 12345678));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void consume_ShouldRejectExpiredCode_AndSweepShouldEvictIt() throws InterruptedException {
+        InMemoryVerificationCodeStore store = store(20, 5);
+        store.put(user, 12345678);
+        store.put(UUID.randomUUID(), 87654321);
+
+        Thread.sleep(60);
+        store.sweep();
+
+        assertEquals(0, store.size());
+        assertFalse(store.consume(user, 12345678));
+    }
+
+    private static InMemoryVerificationCodeStore store(long ttlMillis, int maxAttempts) {
+        return new InMemoryVerificationCodeStore(new SimpleMeterRegistry(), ttlMillis, maxAttempts, 10, 64);
+    }
+}